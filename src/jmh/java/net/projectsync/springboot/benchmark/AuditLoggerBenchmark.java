@@ -0,0 +1,113 @@
+package net.projectsync.springboot.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import net.projectsync.springboot.beanscopes.audit.AuditJournal;
+import net.projectsync.springboot.beanscopes.audit.AuditLevel;
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+import net.projectsync.springboot.beanscopes.audit.ConsoleAuditSink;
+import net.projectsync.springboot.beanscopes.audit.FsyncPolicy;
+import net.projectsync.springboot.beanscopes.model.AuditLogger;
+
+/*
+ * AuditLogger.log alone, per sink and mode, with the record PrototypeScope.process writes for every transfer.
+ * 	memory    InMemoryAuditSink, the cost of AuditLogger itself
+ * 	console   ConsoleAuditSink into a PrintStream that discards its output (formatting + PrintStream, no terminal)
+ * 	journal   AuditJournal in a temp directory, FsyncPolicy.SEGMENT
+ * sync: the sink is written under the AuditLogger lock on the calling thread; async: ring buffer + drain thread.
+ *
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.args="AuditLoggerBenchmark -prof gc"
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.main=net.projectsync.springboot.benchmark.ThreadSweep -Djmh.args="AuditLoggerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditLoggerBenchmark {
+
+	@Param({ "memory", "console", "journal" })
+	private String sink;
+
+	@Param({ "sync", "async" })
+	private String mode;
+
+	private AnnotationConfigApplicationContext context;
+	private AuditLogger auditLogger;
+	private Path journalDirectory;
+
+	@Setup
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext();
+		// async with BLOCK: a slow sink slows the callers down instead of hiding records in drops
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+				"audit.level", "INFO",
+				"audit.async.enabled", mode.equals("async"),
+				"audit.async.overflow-policy", "BLOCK")));
+		context.registerBean("auditSink", AuditSink.class, this::newSink);
+		context.registerBean(AuditLogger.class);
+		context.refresh();
+		auditLogger = context.getBean(AuditLogger.class);
+	}
+
+	private AuditSink newSink() {
+		return switch (sink) {
+			case "memory" -> new InMemoryAuditSink();
+			case "console" -> new ConsoleAuditSink(new PrintStream(OutputStream.nullOutputStream()));
+			case "journal" -> newJournal();
+			default -> throw new IllegalArgumentException(sink);
+		};
+	}
+
+	private AuditJournal newJournal() {
+		try {
+			journalDirectory = Files.createTempDirectory("audit-journal-benchmark");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return new AuditJournal(journalDirectory, 64L * 1024 * 1024, FsyncPolicy.SEGMENT, Duration.ofSeconds(1));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		context.close(); // drains the async queue, closes the journal
+		if (journalDirectory != null) {
+			try (Stream<Path> files = Files.walk(journalDirectory)) {
+				for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+					Files.delete(file);
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void log() {
+		auditLogger.log(AuditLevel.INFO, "Processing transaction: {} from {} to {}", 10.25, "ACC1", "ACC2");
+	}
+}
@@ -0,0 +1,88 @@
+package net.projectsync.springboot.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import net.projectsync.springboot.beanscopes.dto.BatchTransferResponse;
+import net.projectsync.springboot.beanscopes.dto.TransferResult;
+import net.projectsync.springboot.beanscopes2.dto.ScopeResponse;
+
+/*
+ * JSON vs CBOR vs Smile for the typed responses, serialization and deserialization time per payload.
+ * The payload size of every combination is printed once per fork ("payload bytes").
+ *
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.args="CodecBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+	@Param({ "json", "cbor", "smile" })
+	private String format;
+
+	// scope: GET /singleton etc. (3 fields); batch: POST /transfers/batch with 1000 results
+	@Param({ "scope", "batch" })
+	private String payload;
+
+	private ObjectMapper mapper;
+	private Object value;
+	private Class<?> type;
+	private byte[] bytes;
+
+	@Setup
+	public void setUp() throws IOException {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		mapper = switch (format) {
+			case "json" -> builder.build();
+			case "cbor" -> builder.factory(new CBORFactory()).build();
+			case "smile" -> builder.factory(new SmileFactory()).build();
+			default -> throw new IllegalArgumentException(format);
+		};
+		if (payload.equals("scope")) {
+			value = new ScopeResponse("singleton", "0190a1b2-c3d4-7e5f-8a6b-1c2d3e4f5a6b", 1517905909);
+			type = ScopeResponse.class;
+		} else {
+			List<TransferResult> results = new ArrayList<>();
+			for (int i = 0; i < 1_000; i++) {
+				results.add(i % 10 == 0 ? TransferResult.rejected(i, "amount must be at least 0.01") : TransferResult.completed(i));
+			}
+			value = BatchTransferResponse.of(results);
+			type = BatchTransferResponse.class;
+		}
+		bytes = mapper.writeValueAsBytes(value);
+		System.out.println("payload bytes " + payload + "/" + format + ": " + bytes.length);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return mapper.writeValueAsBytes(value);
+	}
+
+	@Benchmark
+	public Object deserialize() throws IOException {
+		return mapper.readValue(bytes, type);
+	}
+}
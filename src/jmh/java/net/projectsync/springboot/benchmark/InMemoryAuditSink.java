@@ -0,0 +1,35 @@
+package net.projectsync.springboot.benchmark;
+
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+
+// Stands in for stdout in the benchmarks: copies every record like a real sink would, but into a reused buffer
+public class InMemoryAuditSink implements AuditSink {
+
+	private static final int MAX_BUFFERED_CHARS = 64 * 1024;
+
+	private final StringBuilder buffer = new StringBuilder(MAX_BUFFERED_CHARS + 1024);
+	private long records;
+	private long flushes;
+
+	@Override
+	public void write(CharSequence record) {
+		if (buffer.length() > MAX_BUFFERED_CHARS) {
+			buffer.setLength(0);
+		}
+		buffer.append(record).append('\n');
+		records++;
+	}
+
+	@Override
+	public void flush() {
+		flushes++;
+	}
+
+	public long getRecords() {
+		return records;
+	}
+
+	public long getFlushes() {
+		return flushes;
+	}
+}
@@ -0,0 +1,82 @@
+package net.projectsync.springboot.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.projectsync.springboot.beanscopes.ledger.Ledger;
+import net.projectsync.springboot.beanscopes.ledger.ShardedLedger;
+import net.projectsync.springboot.beanscopes.ledger.StripedLedger;
+
+/*
+ * Ledger.transfer alone, without PaymentService (no pooled scope, no audit lock), to see how each engine scales
+ * with threads. Every thread moves money between its own 64 accounts, so threads only meet where the engine
+ * makes them meet: a stripe lock shared by two threads' accounts (striped) or a shard thread (sharded).
+ * Ops/ms should grow with the thread count until the engine, not the caller, is the limit.
+ *
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.main=net.projectsync.springboot.benchmark.ThreadSweep -Djmh.args="LedgerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LedgerBenchmark {
+
+	private static final int ACCOUNTS_PER_THREAD = 64;
+
+	@Param({ "striped", "sharded" })
+	private String engine;
+
+	private Ledger ledger;
+	private final AtomicInteger threads = new AtomicInteger();
+
+	// The accounts of one benchmark thread, disjoint from every other thread's
+	@State(Scope.Thread)
+	public static class Accounts {
+
+		final String[] names = new String[ACCOUNTS_PER_THREAD];
+
+		@Setup
+		public void setUp(LedgerBenchmark benchmark) {
+			int thread = benchmark.threads.getAndIncrement();
+			for (int i = 0; i < ACCOUNTS_PER_THREAD; i++) {
+				names[i] = "T" + thread + "-ACC" + i;
+			}
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		ledger = "sharded".equals(engine) ? new ShardedLedger(0, false) : new StripedLedger(0, false);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (ledger instanceof ShardedLedger sharded) {
+			sharded.close();
+		}
+	}
+
+	@Benchmark
+	public void transfer(Accounts accounts) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int from = random.nextInt(ACCOUNTS_PER_THREAD);
+		int to = (from + 1 + random.nextInt(ACCOUNTS_PER_THREAD - 1)) % ACCOUNTS_PER_THREAD;
+		ledger.transfer(accounts.names[from], accounts.names[to], 1 + random.nextInt(10_000));
+	}
+}
@@ -0,0 +1,199 @@
+package net.projectsync.springboot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Lookup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.SessionScope;
+
+import net.projectsync.springboot.common.scope.CompiledPrototype;
+import net.projectsync.springboot.common.scope.CompiledPrototypeProcessor;
+import net.projectsync.springboot.common.scope.ScopedHandle;
+
+/*
+ * Cost of one call through each way this project gets at a bean, steady state (the bean already exists for
+ * the singleton, request and session cases; prototypes are created on every call, like in PaymentService.transfer):
+ * 	singletonField     @Autowired singleton, a plain field read
+ * 	objectFactory      ObjectFactory<PrototypeScope>.getObject() as in PaymentService
+ * 	objectProvider     ObjectProvider<PrototypeTarget>.getObject()
+ * 	compiledProvider   the same for a @CompiledPrototype bean (CompiledPrototypeProcessor's generated factory)
+ * 	compiledSupplier   CompiledPrototypeProcessor.supplier(...).get() for the same bean, as in BeanScopeService.prototypeScope
+ * 	plainNew           new PrototypeTarget(), what compiledSupplier should come close to
+ * 	lookupMethod       @Lookup method, CGLIB overrides it with beanFactory.getBean(...)
+ * 	requestProxy       CGLIB scoped proxy of a request bean: RequestContextHolder + request attribute per call
+ * 	sessionProxy       CGLIB scoped proxy of a session bean: same, through the HttpSession
+ * 	requestHandle      ScopedHandle.get() (ThreadLocal read + identity check), then a plain call
+ *
+ * The beans are small stand-ins so only the access path is measured; the request is a MockHttpServletRequest
+ * bound to the benchmark thread. Reported as ns per call; ScopeAccessThroughputBenchmark runs the same methods as
+ * calls per µs (the regex below matches both). Add -prof gc for the allocation rate (gc.alloc.rate.norm is bytes
+ * per call):
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.args="ScopeAccessBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScopeAccessBenchmark {
+
+	private AnnotationConfigApplicationContext context;
+	private Client client;
+	private ScopedHandle<RequestTarget> requestHandle;
+	private Supplier<CompiledTarget> compiledSupplier;
+
+	@Setup
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext();
+		context.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+		context.getBeanFactory().registerScope(WebApplicationContext.SCOPE_SESSION, new SessionScope());
+		context.registerBean("singletonTarget", SingletonTarget.class);
+		context.registerBean(CompiledPrototypeProcessor.class);
+		context.registerBean("prototypeTarget", PrototypeTarget.class);
+		context.registerBean("compiledTarget", CompiledTarget.class);
+		context.registerBean("requestTarget", RequestTarget.class);
+		context.registerBean("sessionTarget", SessionTarget.class);
+		context.registerBean("client", Client.class);
+		context.refresh();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		client = context.getBean(Client.class);
+		requestHandle = ScopedHandle.of(context, "requestTarget", RequestTarget.class);
+		compiledSupplier = context.getBean(CompiledPrototypeProcessor.class).supplier("compiledTarget", CompiledTarget.class);
+		client.requestProxy.value(); // the request and session beans exist before the first measured call
+		client.sessionProxy.value();
+	}
+
+	@TearDown
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		context.close();
+	}
+
+	@Benchmark
+	public int singletonField() {
+		return client.singleton.value();
+	}
+
+	@Benchmark
+	public int objectFactory() {
+		return client.prototypeFactory.getObject().value();
+	}
+
+	@Benchmark
+	public int objectProvider() {
+		return client.prototypeProvider.getObject().value();
+	}
+
+	@Benchmark
+	public int compiledProvider() {
+		return client.compiledProvider.getObject().value();
+	}
+
+	@Benchmark
+	public int compiledSupplier() {
+		return compiledSupplier.get().value();
+	}
+
+	@Benchmark
+	public int plainNew() {
+		return new PrototypeTarget().value();
+	}
+
+	@Benchmark
+	public int lookupMethod() {
+		return client.lookupPrototype().value();
+	}
+
+	@Benchmark
+	public int requestProxy() {
+		return client.requestProxy.value();
+	}
+
+	@Benchmark
+	public int sessionProxy() {
+		return client.sessionProxy.value();
+	}
+
+	@Benchmark
+	public int requestHandle() {
+		return requestHandle.get().value();
+	}
+
+	public static class Target {
+
+		private final int value = System.identityHashCode(this);
+
+		public int value() {
+			return value;
+		}
+	}
+
+	public static class SingletonTarget extends Target {
+	}
+
+	@org.springframework.context.annotation.Scope("prototype")
+	public static class PrototypeTarget extends Target {
+	}
+
+	@org.springframework.context.annotation.Scope("prototype")
+	@CompiledPrototype
+	public static class CompiledTarget extends Target {
+	}
+
+	@org.springframework.context.annotation.Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
+	public static class RequestTarget extends Target {
+	}
+
+	@org.springframework.context.annotation.Scope(value = WebApplicationContext.SCOPE_SESSION, proxyMode = ScopedProxyMode.TARGET_CLASS)
+	public static class SessionTarget extends Target {
+	}
+
+	// The singleton that holds each kind of reference, like PaymentService / BeanScopeService
+	public static class Client {
+
+		@Autowired
+		SingletonTarget singleton;
+
+		@Autowired
+		ObjectFactory<PrototypeTarget> prototypeFactory;
+
+		@Autowired
+		ObjectProvider<PrototypeTarget> prototypeProvider;
+
+		@Autowired
+		ObjectProvider<CompiledTarget> compiledProvider;
+
+		@Autowired
+		RequestTarget requestProxy;
+
+		@Autowired
+		SessionTarget sessionProxy;
+
+		@Lookup
+		public PrototypeTarget lookupPrototype() {
+			return null; // overridden by the CGLIB subclass
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package net.projectsync.springboot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/*
+ * The ScopeAccessBenchmark methods again, reported as throughput in calls per µs (ops/ns would round the slower
+ * access paths to 0.000). The mode and unit here override the superclass's; setup and state are inherited.
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.args="ScopeAccessThroughputBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScopeAccessThroughputBenchmark extends ScopeAccessBenchmark {
+}
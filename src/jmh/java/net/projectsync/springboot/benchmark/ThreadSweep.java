@@ -0,0 +1,65 @@
+package net.projectsync.springboot.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Runs the selected benchmarks once per thread count: 1, 2, 4, ... up to one thread per core (the core count
+ * itself is always included). Takes the usual JMH arguments, except -t.
+ *
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.main=net.projectsync.springboot.benchmark.ThreadSweep -Djmh.args="TransferBenchmark"
+ *
+ * Every run is also written as JSON to target/jmh/threads-<n>.json, the files to keep from a build and compare
+ * against the next one; a scores-per-thread-count table is printed at the end.
+ */
+public class ThreadSweep {
+
+	public static void main(String[] args) throws Exception {
+		Options options = new CommandLineOptions(args);
+		File resultDirectory = new File("target/jmh");
+		resultDirectory.mkdirs();
+
+		List<String> summary = new ArrayList<>();
+		for (int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+			Options run = new OptionsBuilder()
+					.parent(options)
+					.threads(threads)
+					.resultFormat(ResultFormatType.JSON)
+					.result(new File(resultDirectory, "threads-" + threads + ".json").getPath())
+					.build();
+			for (RunResult result : new Runner(run).run()) {
+				summary.add(String.format("%-60s %3d threads  %14.3f +- %10.3f %s",
+						result.getParams().getBenchmark() + paramsOf(result), threads,
+						result.getPrimaryResult().getScore(), result.getPrimaryResult().getScoreError(),
+						result.getPrimaryResult().getScoreUnit()));
+			}
+		}
+		System.out.println();
+		summary.forEach(System.out::println);
+	}
+
+	private static List<Integer> threadCounts(int cores) {
+		List<Integer> counts = new ArrayList<>();
+		for (int threads = 1; threads < cores; threads *= 2) {
+			counts.add(threads);
+		}
+		counts.add(cores);
+		return counts;
+	}
+
+	private static String paramsOf(RunResult result) {
+		StringBuilder params = new StringBuilder();
+		for (String key : result.getParams().getParamsKeys()) {
+			params.append(params.length() == 0 ? " (" : ", ").append(key).append('=').append(result.getParams().getParam(key));
+		}
+		return params.length() == 0 ? "" : params.append(')').toString();
+	}
+}
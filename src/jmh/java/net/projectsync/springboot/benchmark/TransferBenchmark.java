@@ -0,0 +1,85 @@
+package net.projectsync.springboot.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import net.projectsync.springboot.beanscopes.SpringbootConceptsApplication;
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+import net.projectsync.springboot.beanscopes.service.PaymentService;
+
+/*
+ * PaymentService.transfer end to end, through the real SpringbootConceptsApplication context (no web server):
+ * prototype from the "pooled" scope, three audit records, ledger transfer. The console sink is replaced by
+ * InMemoryAuditSink (audit.sink=memory matches no sink of AuditConfig), so stdout is not what gets measured.
+ * Transfers go between random accounts out of 1024, so threads contend on the ledger like real traffic would.
+ *
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.args="TransferBenchmark -prof gc"
+ * From 1 thread to one per core (see ThreadSweep):
+ * 	mvn -Pjmh test-compile exec:exec -Djmh.main=net.projectsync.springboot.benchmark.ThreadSweep -Djmh.args="TransferBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+
+	private static final int ACCOUNTS = 1024;
+
+	// application.properties entries separated by ";", e.g. -p properties="ledger.engine=sharded;scope.pooled.enabled=true"
+	@Param({ "audit.level=DEBUG", "audit.level=INFO", "audit.async.enabled=true" })
+	private String properties;
+
+	private ConfigurableApplicationContext context;
+	private PaymentService paymentService;
+	private final String[] accounts = new String[ACCOUNTS];
+
+	@Setup
+	public void setUp() {
+		List<String> args = new ArrayList<>(List.of("--spring.main.banner-mode=off", "--logging.level.root=WARN", "--audit.sink=memory"));
+		for (String property : properties.split(";")) {
+			args.add("--" + property); // command line arguments win over application.properties
+		}
+		context = new SpringApplicationBuilder(SpringbootConceptsApplication.class)
+				.web(WebApplicationType.NONE)
+				.initializers(context -> ((GenericApplicationContext) context).registerBean("auditSink", AuditSink.class, InMemoryAuditSink::new))
+				.run(args.toArray(String[]::new));
+		paymentService = context.getBean(PaymentService.class);
+		for (int i = 0; i < ACCOUNTS; i++) {
+			accounts[i] = "ACC" + i;
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void transfer() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int from = random.nextInt(ACCOUNTS);
+		int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+		paymentService.transfer(accounts[from], accounts[to], 10.25);
+	}
+}
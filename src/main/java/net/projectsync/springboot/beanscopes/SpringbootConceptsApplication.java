@@ -4,10 +4,20 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 
 import net.projectsync.springboot.beanscopes.service.PaymentService;
+import net.projectsync.springboot.common.id.IdGeneratorConfig;
+import net.projectsync.springboot.common.scope.CompiledPrototypeConfig;
+import net.projectsync.springboot.common.session.OffHeapSessionConfig;
+import net.projectsync.springboot.common.web.BinaryMessageConvertersConfig;
+import net.projectsync.springboot.lifecycle.ParallelSingletonInitConfig;
+import net.projectsync.springboot.lifecycle.PrototypeLifecycleConfig;
+import net.projectsync.springboot.lifecycle.StartupProfilerConfig;
 
 @SpringBootApplication
+@Import({ IdGeneratorConfig.class, OffHeapSessionConfig.class, BinaryMessageConvertersConfig.class, StartupProfilerConfig.class,
+		ParallelSingletonInitConfig.class, PrototypeLifecycleConfig.class, CompiledPrototypeConfig.class })
 public class SpringbootConceptsApplication {
 
 	public static void main(String[] args) {
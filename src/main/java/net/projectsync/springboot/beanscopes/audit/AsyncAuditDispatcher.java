@@ -0,0 +1,156 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Async mode of AuditLogger: request threads only enqueue into an {@link AuditRingBuffer},
+ * a single drain thread writes records to the sink in batches (one sink flush per batch).
+ *
+ * 	[request threads] --offer()--> [ring buffer] --poll()--> [drain thread] --write()/flush()--> [AuditSink]
+ *
+ * The drain thread parks when the buffer is empty; producers unpark it only if it is actually parked,
+ * so the fast path is a CAS plus a volatile read.
+ */
+public class AsyncAuditDispatcher implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AuditRingBuffer buffer;
+    private final AuditSink sink;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final Thread drainThread;
+    private final StringBuilder scratch = new StringBuilder(256); // owned by the drain thread
+
+    private volatile boolean running = true;
+    private volatile boolean parked;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public AsyncAuditDispatcher(AuditSink sink, int capacity, OverflowPolicy overflowPolicy, int batchSize) {
+        this.buffer = new AuditRingBuffer(capacity);
+        this.sink = sink;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = Math.max(1, batchSize);
+        this.drainThread = new Thread(this::drainLoop, "audit-drain");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    public void publish(CharSequence message) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        if (!buffer.offer(message) && !handleOverflow(message)) {
+            dropped.increment();
+            return;
+        }
+        published.increment();
+        if (parked) {
+            LockSupport.unpark(drainThread);
+        }
+    }
+
+    // Returns true if the message was eventually enqueued
+    private boolean handleOverflow(CharSequence message) {
+        switch (overflowPolicy) {
+            case DROP_NEWEST:
+                return false;
+            case DROP_OLDEST:
+                do {
+                    if (buffer.poll(null)) {
+                        dropped.increment();
+                    }
+                } while (!buffer.offer(message));
+                return true;
+            case BLOCK:
+            default:
+                do {
+                    if (!running) {
+                        return false;
+                    }
+                    LockSupport.unpark(drainThread);
+                    LockSupport.parkNanos(this, BLOCKED_PARK_NANOS);
+                } while (!buffer.offer(message));
+                return true;
+        }
+    }
+
+    private void drainLoop() {
+        while (running || !buffer.isEmpty()) {
+            if (drainBatch() == 0) {
+                parked = true;
+                if (running && buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+            }
+        }
+    }
+
+    private int drainBatch() {
+        int count = 0;
+        while (count < batchSize && buffer.poll(scratch)) {
+            count++;
+            try {
+                sink.write(scratch);
+            } catch (RuntimeException e) {
+                // a broken sink must not kill the drain thread; the failed record is lost
+                dropped.increment();
+            }
+        }
+        if (count > 0) {
+            sink.flush();
+            written.add(count);
+            batches.increment();
+        }
+        return count;
+    }
+
+    // Stops accepting records, drains what is queued and flushes the sink
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+}
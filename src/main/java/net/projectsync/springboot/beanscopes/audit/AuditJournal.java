@@ -0,0 +1,272 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Persistent AuditSink: appends length-prefixed binary records to memory-mapped segment files.
+ *
+ * Layout of a segment (audit-00000000000000000000.journal, audit-...01.journal, ...):
+ * 	[int length][UTF-8 bytes] [int length][UTF-8 bytes] ... [int 0 = end of data]
+ * A new segment is mapped when the current one cannot hold the next record. Segments are pre-sized and
+ * zero-filled by the OS, so the first zero length marks the end of written data (also after a crash).
+ * A record torn by a crash leaves its length at 0 but its bytes in place; reopening zeroes everything after the
+ * end of data, so a shorter record appended there is not followed by stale bytes that read as a record.
+ *
+ * Appending is a copy into the page cache (no write() syscall per record); durability is controlled by
+ * the {@link FsyncPolicy}. With INTERVAL a background thread forces dirty pages every interval, so records
+ * also reach the disk while no further records (and no flush()) arrive.
+ *
+ * A record that cannot fit into an empty segment is truncated to fit (counted, see getTruncatedCount())
+ * rather than rejected: in sync mode the exception would fail the money transfer that logged it.
+ *
+ * Methods are synchronized so the fsync thread never sees a half-rolled segment; AuditLogger already holds
+ * this monitor in sync mode (see {@link AuditSink}), so the lock is re-entered, not contended.
+ */
+public class AuditJournal implements AuditSink, AutoCloseable {
+
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final int maxRecordChars;
+    private final ScheduledExecutorService fsyncScheduler; // INTERVAL policy only
+    private final LongAdder truncated = new LongAdder();
+
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+    private boolean dirty;
+    private long lastFsyncNanos = System.nanoTime();
+
+    public AuditJournal(Path directory, long segmentSize, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+        if (segmentSize < 1024 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentSize must be between 1KB and 2GB: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.maxRecordChars = (this.segmentSize - 2 * LENGTH_BYTES) / 3; // UTF-8 worst case, plus length and terminator
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments(directory);
+            if (segments.isEmpty()) {
+                map(0);
+            } else {
+                // reopen the last segment and continue after its last complete record
+                map(segmentIndexOf(segments.get(segments.size() - 1)));
+                int end = endOfData(segment);
+                zeroFrom(end);
+                segment.position(end);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit journal in " + directory, e);
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && fsyncIntervalNanos > 0) {
+            this.fsyncScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "audit-journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fsyncScheduler.scheduleWithFixedDelay(this::scheduledForce, fsyncIntervalNanos, fsyncIntervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.fsyncScheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized void write(CharSequence record) {
+        int chars = record.length();
+        if (chars == 0) {
+            return; // a zero length is the end-of-data marker
+        }
+        if (chars > maxRecordChars) {
+            chars = maxRecordChars; // would not fit even into an empty segment
+            truncated.increment();
+        }
+        int maxBytes = chars * 3; // UTF-8 worst case for a UTF-16 char
+        if (segment.remaining() < LENGTH_BYTES + maxBytes + LENGTH_BYTES) { // keep room for the 0 terminator
+            roll();
+        }
+        int start = segment.position();
+        segment.position(start + LENGTH_BYTES);
+        int length = encodeUtf8(record, chars, segment);
+        segment.putInt(start, length); // length last: a torn record is never visible to readers
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && dirty && System.nanoTime() - lastFsyncNanos >= fsyncIntervalNanos) {
+            force();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (fsyncScheduler != null) {
+            fsyncScheduler.shutdownNow();
+        }
+        synchronized (this) {
+            force();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized long getSegmentIndex() {
+        return segmentIndex;
+    }
+
+    // Records cut to the largest size a segment can hold
+    public long getTruncatedCount() {
+        return truncated.sum();
+    }
+
+    // INTERVAL policy: covers the time when no flush() comes along to piggy-back on
+    private synchronized void scheduledForce() {
+        try {
+            if (dirty && System.nanoTime() - lastFsyncNanos >= fsyncIntervalNanos) {
+                force();
+            }
+        } catch (RuntimeException e) {
+            // keep the schedule alive; the pages stay dirty and the next run retries
+            System.err.println("Audit journal fsync failed: " + e);
+        }
+    }
+
+    private void roll() {
+        force(); // both policies: a completed segment is always durable
+        try {
+            map(segmentIndex + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll audit journal segment in " + directory, e);
+        }
+    }
+
+    private void force() {
+        if (dirty) {
+            segment.force();
+            dirty = false;
+        }
+        lastFsyncNanos = System.nanoTime();
+    }
+
+    // Clears what a torn record left behind; only pages holding non-zero bytes are written
+    private void zeroFrom(int from) {
+        int pos = from;
+        for (; pos < segmentSize && (pos & 7) != 0; pos++) {
+            clearByte(pos);
+        }
+        for (; pos + Long.BYTES <= segmentSize; pos += Long.BYTES) {
+            if (segment.getLong(pos) != 0) {
+                segment.putLong(pos, 0);
+                dirty = true;
+            }
+        }
+        for (; pos < segmentSize; pos++) {
+            clearByte(pos);
+        }
+        force();
+    }
+
+    private void clearByte(int pos) {
+        if (segment.get(pos) != 0) {
+            segment.put(pos, (byte) 0);
+            dirty = true;
+        }
+    }
+
+    private void map(long index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segmentIndex = index;
+    }
+
+    // Encodes directly into the mapped buffer, no intermediate byte[]
+    private static int encodeUtf8(CharSequence s, int length, MappedByteBuffer out) {
+        int start = out.position();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out.put((byte) (0xF0 | (cp >> 18)));
+                out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?'); // unpaired surrogate
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return out.position() - start;
+    }
+
+    // Position just after the last complete record
+    static int endOfData(ByteBuffer buffer) {
+        int pos = 0;
+        while (pos + LENGTH_BYTES <= buffer.limit()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + LENGTH_BYTES + length > buffer.limit()) {
+                break;
+            }
+            pos += LENGTH_BYTES + length;
+        }
+        return pos;
+    }
+
+    static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    static long segmentIndexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Segment files in append order
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Sequential reader over the segments written by {@link AuditJournal}, oldest record first.
+ *
+ * 	try (AuditJournalReader reader = new AuditJournalReader(dir)) {
+ * 		while (reader.hasNext()) { String record = reader.next(); ... }
+ * 	}
+ *
+ * Segments are mapped read-only one at a time. The segment list is taken when the reader is created;
+ * records appended to the last segment afterwards are still picked up while reading it.
+ */
+public class AuditJournalReader implements Iterator<String>, AutoCloseable {
+
+    private final List<Path> segments;
+    private int nextSegment;
+    private MappedByteBuffer current;
+    private int position;
+
+    public AuditJournalReader(Path directory) {
+        try {
+            this.segments = AuditJournal.listSegments(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list audit journal segments in " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (true) {
+            if (current != null && nextLength() > 0) {
+                return true;
+            }
+            if (nextSegment >= segments.size()) {
+                return false;
+            }
+            openSegment(segments.get(nextSegment++));
+        }
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int length = current.getInt(position);
+        byte[] bytes = new byte[length];
+        current.get(position + AuditJournal.LENGTH_BYTES, bytes);
+        position += AuditJournal.LENGTH_BYTES + length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Name of the segment the last record came from, useful for tooling
+    public Path currentSegment() {
+        return nextSegment == 0 ? null : segments.get(nextSegment - 1);
+    }
+
+    @Override
+    public void close() {
+        current = null; // unmapped by the GC
+    }
+
+    private int nextLength() {
+        if (position + AuditJournal.LENGTH_BYTES > current.limit()) {
+            return 0;
+        }
+        int length = current.getInt(position);
+        return position + AuditJournal.LENGTH_BYTES + length <= current.limit() ? length : 0;
+    }
+
+    private void openSegment(Path segment) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            current = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map audit journal segment " + segment, e);
+        }
+    }
+}
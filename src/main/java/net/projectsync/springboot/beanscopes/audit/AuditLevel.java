@@ -0,0 +1,18 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+// Threshold for AuditLogger (audit.level). Records below the threshold are skipped before any formatting.
+public enum AuditLevel {
+
+    // Diagnostic records, e.g. bean hash codes in the scope demos
+    DEBUG,
+
+    // Business records, e.g. processed transactions
+    INFO,
+
+    // Nothing is audited
+    OFF;
+
+    public boolean isEnabledFor(AuditLevel threshold) {
+        return this != OFF && compareTo(threshold) >= 0;
+    }
+}
@@ -0,0 +1,99 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free ring buffer of audit records (Dmitry Vyukov's bounded MPMC queue).
+ *
+ * Every slot owns a pre-allocated StringBuilder: offer() copies the message into the slot and poll() copies
+ * it out into the consumer's scratch buffer, so steady-state enqueue/dequeue allocates nothing.
+ * The slot is released before the record reaches the sink, so a slow sink never shrinks the usable capacity.
+ *
+ * Each slot carries a sequence number:
+ * 	- sequence == position      → slot is free for the producer claiming that position
+ * 	- sequence == position + 1  → slot holds a published record for the consumer claiming that position
+ * Producers and consumers claim positions with a CAS on tail/head, so several request threads can publish
+ * concurrently, and producers may also consume (needed for OverflowPolicy.DROP_OLDEST).
+ */
+final class AuditRingBuffer {
+
+    private final StringBuilder[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong(); // next position to publish
+    private final AtomicLong head = new AtomicLong(); // next position to consume
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1; // round up to power of two
+        this.mask = capacity - 1;
+        this.slots = new StringBuilder[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new StringBuilder(128);
+            sequences.set(i, i);
+        }
+    }
+
+    // Returns false when the buffer is full
+    boolean offer(CharSequence message) {
+        long pos = tail.get();
+        for (;;) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    StringBuilder slot = slots[index];
+                    slot.setLength(0);
+                    slot.append(message);
+                    sequences.set(index, pos + 1); // publish
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // Copies the oldest record into target (or discards it when target is null). Returns false when empty.
+    boolean poll(StringBuilder target) {
+        long pos = head.get();
+        for (;;) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    if (target != null) {
+                        target.setLength(0);
+                        target.append(slots[index]);
+                    }
+                    sequences.set(index, pos + mask + 1); // release slot for the next lap
+                    return true;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    // Approximate under concurrency, exact when quiescent
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+}
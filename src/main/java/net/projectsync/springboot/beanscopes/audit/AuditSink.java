@@ -0,0 +1,17 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+/**
+ * Destination for audit records written by {@link net.projectsync.springboot.beanscopes.model.AuditLogger}.
+ *
+ * Implementations are NOT required to be thread-safe: in sync mode the AuditLogger serializes calls,
+ * in async mode only the single drain thread ever touches the sink.
+ */
+public interface AuditSink {
+
+    // One audit record. The CharSequence may be a reused buffer, so copy it if you need to keep it.
+    void write(CharSequence record);
+
+    // Called once per batch (async mode) or once per record (sync mode).
+    default void flush() {
+    }
+}
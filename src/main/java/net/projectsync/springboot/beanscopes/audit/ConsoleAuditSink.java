@@ -0,0 +1,33 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+import java.io.PrintStream;
+
+// Default sink: the original "AUDIT: ..." console output.
+// Records are buffered and printed with a single print() per flush, so a batch costs one PrintStream lock.
+public class ConsoleAuditSink implements AuditSink {
+
+    private final StringBuilder buffer = new StringBuilder(1024);
+    private final PrintStream out;
+
+    public ConsoleAuditSink() {
+        this(System.out);
+    }
+
+    public ConsoleAuditSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(CharSequence record) {
+        buffer.append("AUDIT: ").append(record).append(System.lineSeparator());
+    }
+
+    @Override
+    public void flush() {
+        if (buffer.length() > 0) {
+            out.print(buffer);
+            out.flush();
+            buffer.setLength(0);
+        }
+    }
+}
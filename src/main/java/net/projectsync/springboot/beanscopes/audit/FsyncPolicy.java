@@ -0,0 +1,11 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+// When AuditJournal forces mapped pages to disk (MappedByteBuffer.force)
+public enum FsyncPolicy {
+
+    // Once per segment, when it is rolled (and on close). Cheapest; a crash may lose the open segment's tail.
+    SEGMENT,
+
+    // At most once per configured interval: piggy-backed on flush(), and from a background thread while no records arrive (and on close)
+    INTERVAL
+}
@@ -0,0 +1,14 @@
+package net.projectsync.springboot.beanscopes.audit;
+
+// What AuditLogger does in async mode when the ring buffer is full
+public enum OverflowPolicy {
+
+    // Caller waits until the drain thread frees a slot (no loss, but back-pressures request threads)
+    BLOCK,
+
+    // Oldest queued record is discarded to make room for the new one
+    DROP_OLDEST,
+
+    // New record is discarded, queued records are kept
+    DROP_NEWEST
+}
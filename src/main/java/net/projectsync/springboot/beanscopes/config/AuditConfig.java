@@ -0,0 +1,37 @@
+package net.projectsync.springboot.beanscopes.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import net.projectsync.springboot.beanscopes.audit.AuditJournal;
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+import net.projectsync.springboot.beanscopes.audit.ConsoleAuditSink;
+import net.projectsync.springboot.beanscopes.audit.FsyncPolicy;
+
+// Chooses where AuditLogger records go: audit.sink=console (default) or audit.sink=journal
+@Configuration
+public class AuditConfig {
+
+	@Bean
+	@ConditionalOnProperty(name = "audit.sink", havingValue = "console", matchIfMissing = true)
+	public AuditSink consoleAuditSink() {
+		return new ConsoleAuditSink();
+	}
+
+	// Memory-mapped segment files; close() (inferred destroy method) forces the open segment to disk
+	@Bean
+	@ConditionalOnProperty(name = "audit.sink", havingValue = "journal")
+	public AuditJournal auditJournal(
+			@Value("${audit.journal.directory:audit-journal}") Path directory,
+			@Value("${audit.journal.segment-size:64MB}") DataSize segmentSize,
+			@Value("${audit.journal.fsync-policy:SEGMENT}") FsyncPolicy fsyncPolicy,
+			@Value("${audit.journal.fsync-interval:1s}") Duration fsyncInterval) {
+		return new AuditJournal(directory, segmentSize.toBytes(), fsyncPolicy, fsyncInterval);
+	}
+}
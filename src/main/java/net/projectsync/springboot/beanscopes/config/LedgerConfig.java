@@ -0,0 +1,87 @@
+package net.projectsync.springboot.beanscopes.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import net.projectsync.springboot.beanscopes.ledger.BalanceStore;
+import net.projectsync.springboot.beanscopes.ledger.HeapBalanceStore;
+import net.projectsync.springboot.beanscopes.ledger.Ledger;
+import net.projectsync.springboot.beanscopes.ledger.LedgerSnapshotter;
+import net.projectsync.springboot.beanscopes.ledger.MappedBalanceStore;
+import net.projectsync.springboot.beanscopes.ledger.ShardedLedger;
+import net.projectsync.springboot.beanscopes.ledger.StripedLedger;
+import net.projectsync.springboot.beanscopes.ledger.WriteAheadLog;
+
+// Chooses the engine behind the Ledger (ledger.engine=striped|sharded), where balances live (ledger.store=heap|mapped)
+// and whether completed transfers are made durable (ledger.wal.enabled)
+@Configuration
+public class LedgerConfig {
+
+	@Bean
+	@ConditionalOnProperty(name = "ledger.store", havingValue = "heap", matchIfMissing = true)
+	public BalanceStore heapBalanceStore() {
+		return new HeapBalanceStore();
+	}
+
+	// close() (inferred destroy method) forces the mapped pages to disk; destroyed after the ledger that uses it
+	@Bean
+	@ConditionalOnProperty(name = "ledger.store", havingValue = "mapped")
+	public MappedBalanceStore mappedBalanceStore(
+			@Value("${ledger.store.path:ledger/balances.dat}") Path path,
+			@Value("${ledger.store.capacity:1048576}") int capacity) {
+		return new MappedBalanceStore(path, capacity);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "ledger.engine", havingValue = "striped", matchIfMissing = true)
+	public Ledger stripedLedger(
+			BalanceStore balanceStore,
+			@Value("${ledger.stripes:0}") int stripes,
+			@Value("${ledger.enforce-funds:false}") boolean enforceFunds) {
+		return new StripedLedger(stripes, enforceFunds, balanceStore);
+	}
+
+	// One thread per shard; close() (inferred destroy method) lets each shard finish its queued commands
+	@Bean
+	@ConditionalOnProperty(name = "ledger.engine", havingValue = "sharded")
+	public ShardedLedger shardedLedger(
+			BalanceStore balanceStore,
+			@Value("${ledger.shards:0}") int shards,
+			@Value("${ledger.enforce-funds:false}") boolean enforceFunds) {
+		return new ShardedLedger(shards, enforceFunds, balanceStore);
+	}
+
+	// close() (inferred destroy method) writes and forces whatever is still queued
+	@Bean
+	@ConditionalOnProperty(name = "ledger.wal.enabled", havingValue = "true")
+	public WriteAheadLog writeAheadLog(
+			@Value("${ledger.wal.directory:ledger/wal}") Path directory,
+			@Value("${ledger.wal.segment-size:64MB}") DataSize segmentSize,
+			@Value("${ledger.wal.max-batch:1024}") int maxBatch) {
+		return new WriteAheadLog(directory, segmentSize.toBytes(), maxBatch);
+	}
+
+	// Startup recovery (latest snapshot + WAL tail) runs here, during context refresh: before the web server accepts transfers.
+	// Its result is in stats() (/stats/snapshots). ledger.store=mapped cannot be recovered this way, see LedgerSnapshotter.
+	@Bean
+	@ConditionalOnProperty(name = "ledger.wal.enabled", havingValue = "true")
+	public LedgerSnapshotter ledgerSnapshotter(
+			WriteAheadLog writeAheadLog,
+			BalanceStore balanceStore,
+			@Value("${ledger.snapshot.directory:ledger/snapshots}") Path directory,
+			@Value("${ledger.snapshot.interval:60s}") Duration interval) {
+		if (balanceStore instanceof MappedBalanceStore) {
+			throw new IllegalStateException("ledger.wal.enabled=true needs ledger.store=heap: the mapped store is not in step with the write-ahead log");
+		}
+		LedgerSnapshotter snapshotter = new LedgerSnapshotter(directory, writeAheadLog.getDirectory(), interval);
+		snapshotter.recover(balanceStore);
+		snapshotter.start();
+		return snapshotter;
+	}
+}
@@ -0,0 +1,24 @@
+package net.projectsync.springboot.beanscopes.config;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import net.projectsync.springboot.beanscopes.model.RequestScope;
+import net.projectsync.springboot.beanscopes.model.SessionScope;
+import net.projectsync.springboot.common.scope.ScopedHandle;
+
+// Proxy-free alternatives to injecting the RequestScope / SessionScope CGLIB proxies (see ScopedHandle)
+@Configuration
+public class ScopeConfig {
+
+	@Bean
+	public ScopedHandle<RequestScope> requestScopeHandle(BeanFactory beanFactory) {
+		return ScopedHandle.of(beanFactory, "requestScope", RequestScope.class);
+	}
+
+	@Bean
+	public ScopedHandle<SessionScope> sessionScopeHandle(BeanFactory beanFactory) {
+		return ScopedHandle.of(beanFactory, "sessionScope", SessionScope.class);
+	}
+}
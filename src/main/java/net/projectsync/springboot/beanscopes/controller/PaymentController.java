@@ -1,27 +1,108 @@
 package net.projectsync.springboot.beanscopes.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.projectsync.springboot.beanscopes.dto.BalanceResponse;
+import net.projectsync.springboot.beanscopes.dto.BatchTransferResponse;
+import net.projectsync.springboot.beanscopes.dto.ScopeIdResponse;
+import net.projectsync.springboot.beanscopes.dto.TransferRequest;
+import net.projectsync.springboot.beanscopes.dto.TransfersCompletedResponse;
+import net.projectsync.springboot.beanscopes.ledger.Ledger;
 import net.projectsync.springboot.beanscopes.service.PaymentService;
+import net.projectsync.springboot.beanscopes.service.TransferBatchProcessor;
+import net.projectsync.springboot.common.web.BinaryMessageConvertersConfig;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.time.Instant;
+import java.util.List;
 
+/*
+ * The GET endpoints answer browsers and curl with text. Callers that send Accept: application/json,
+ * application/cbor or application/x-jackson-smile get the typed variant mapped to the same path instead
+ * (the produces condition wins over the text handler when it matches the Accept header):
+ * 	curl -H 'Accept: application/cbor' localhost:8080/accounts/ACC1/balance
+ * The POST endpoints already return records, so they negotiate the same three formats.
+ */
 @RestController
 public class PaymentController {
 
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    private static final String SMILE = BinaryMessageConvertersConfig.APPLICATION_SMILE_VALUE;
+
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private TransferBatchProcessor transferBatchProcessor;
+
+    @Autowired
+    private Ledger ledger;
+
     @GetMapping("/prototype")
     public String transfer() {
 
+        return "2 transactions completed at: " + twoTransfers();
+    }
+
+    @GetMapping(value = "/prototype", produces = { JSON, CBOR, SMILE })
+    public TransfersCompletedResponse transferTyped() {
+
+        return new TransfersCompletedResponse(2, twoTransfers());
+    }
+
+    private Instant twoTransfers() {
+
         paymentService.transfer("ACC1", "ACC2", 1000);
         paymentService.transfer("ACC3", "ACC4", 2000);
+        return Instant.now();
+    }
 
-        return "2 transactions completed at: " + Instant.now();
+    // Thousands of transfers in one round trip:
+    // curl -X POST localhost:8080/transfers/batch -H 'Content-Type: application/json' \
+    //      -d '[{"fromAccount":"ACC1","toAccount":"ACC2","amount":1000},{"fromAccount":"ACC3","toAccount":"ACC4","amount":2000}]'
+    @PostMapping("/transfers/batch")
+    public BatchTransferResponse transferBatch(@RequestBody List<TransferRequest> transfers) {
+
+        if (transfers.size() > transferBatchProcessor.getMaxSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch of " + transfers.size() + " exceeds transfers.batch.max-size=" + transferBatchProcessor.getMaxSize());
+        }
+        return transferBatchProcessor.process(transfers);
+    }
+
+    // Settlement files of any size: one transfer per line in, one result per line out, streamed while processing
+    // curl -X POST localhost:8080/transfers/stream -H 'Content-Type: application/x-ndjson' --data-binary @transfers.ndjson
+    @PostMapping(value = "/transfers/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void transferStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        // request and response bodies are used as raw streams: nothing is buffered beyond the in-flight window
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        transferBatchProcessor.processStream(request.getInputStream(), response.getOutputStream());
+    }
+
+    @GetMapping("/accounts/{account}/balance")
+    public String getBalance(@PathVariable String account) {
+
+        long balance = ledger.balance(account);
+        return account + ": " + (balance / (double) Ledger.MINOR_UNITS_PER_UNIT);
+    }
+
+    @GetMapping(value = "/accounts/{account}/balance", produces = { JSON, CBOR, SMILE })
+    public BalanceResponse getBalanceTyped(@PathVariable String account) {
+
+        long balance = ledger.balance(account);
+        return new BalanceResponse(account, balance, balance / (double) Ledger.MINOR_UNITS_PER_UNIT);
     }
 
     @GetMapping("/request")
@@ -30,6 +111,12 @@ public class PaymentController {
         return "Request UUID: " + paymentService.getRequestUUID();
     }
 
+    @GetMapping(value = "/request", produces = { JSON, CBOR, SMILE })
+    public ScopeIdResponse getRequestUUIDTyped() {
+
+        return new ScopeIdResponse("request", paymentService.getRequestUUID(), null);
+    }
+
     @GetMapping("/session")
     public String getSessionId(HttpServletRequest request) {
 
@@ -38,5 +125,10 @@ public class PaymentController {
     	// Duplicate logs do not indicate a new session bean.
         return "Session UUID: " + paymentService.getSessionUUID() + ", JSESSIONID: " + request.getSession().getId();
     }
-}
 
+    @GetMapping(value = "/session", produces = { JSON, CBOR, SMILE })
+    public ScopeIdResponse getSessionIdTyped(HttpServletRequest request) {
+
+        return new ScopeIdResponse("session", paymentService.getSessionUUID(), request.getSession().getId());
+    }
+}
@@ -0,0 +1,99 @@
+package net.projectsync.springboot.beanscopes.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import net.projectsync.springboot.beanscopes.ledger.Ledger;
+import net.projectsync.springboot.beanscopes.ledger.LedgerSnapshotter;
+import net.projectsync.springboot.beanscopes.ledger.WriteAheadLog;
+import net.projectsync.springboot.beanscopes.model.AuditLogger;
+import net.projectsync.springboot.beanscopes.scope.PooledScope;
+import net.projectsync.springboot.common.scope.CompiledPrototypeProcessor;
+import net.projectsync.springboot.common.session.OffHeapSessionRepository;
+import net.projectsync.springboot.lifecycle.PrototypeLifecycleManager;
+import net.projectsync.springboot.lifecycle.StartupProfiler;
+
+// Read-only counters of the infrastructure behind PaymentService
+@RestController
+public class StatsController {
+
+    @Autowired
+    private AuditLogger auditLogger;
+
+    @Autowired
+    private PooledScope pooledScope;
+
+    @Autowired
+    private CompiledPrototypeProcessor compiledPrototypeProcessor;
+
+    @Autowired
+    private Ledger ledger;
+
+    @Autowired(required = false)
+    private WriteAheadLog writeAheadLog;
+
+    @Autowired(required = false)
+    private LedgerSnapshotter ledgerSnapshotter;
+
+    @Autowired(required = false)
+    private OffHeapSessionRepository sessionRepository;
+
+    @Autowired(required = false)
+    private StartupProfiler startupProfiler;
+
+    @Autowired(required = false)
+    private PrototypeLifecycleManager prototypeLifecycleManager;
+
+    @GetMapping("/stats/audit")
+    public Map<String, Object> auditStats() {
+        return auditLogger.stats();
+    }
+
+    @GetMapping("/stats/pool")
+    public Map<String, Object> poolStats() {
+        return pooledScope.stats();
+    }
+
+    // Instances created by the generated factories of @CompiledPrototype beans
+    @GetMapping("/stats/compiled-prototypes")
+    public Map<String, Object> compiledPrototypeStats() {
+        return compiledPrototypeProcessor.stats();
+    }
+
+    @GetMapping("/stats/ledger")
+    public Map<String, Object> ledgerStats() {
+        return ledger.stats();
+    }
+
+    // Group commit: avgBatchSize transfers share one fsync
+    @GetMapping("/stats/wal")
+    public Map<String, Object> walStats() {
+        return writeAheadLog != null ? writeAheadLog.stats() : Map.of("enabled", false);
+    }
+
+    @GetMapping("/stats/snapshots")
+    public Map<String, Object> snapshotStats() {
+        return ledgerSnapshotter != null ? ledgerSnapshotter.stats() : Map.of("enabled", false);
+    }
+
+    // session.store=offheap: arena usage, per-session sizes and evictions
+    @GetMapping("/stats/sessions")
+    public Map<String, Object> sessionStats() {
+        return sessionRepository != null ? sessionRepository.stats() : Map.of("enabled", false);
+    }
+
+    // startup.profiler.enabled=true: time per bean and lifecycle phase, and the dependency chain startup waits for
+    @GetMapping("/stats/startup")
+    public Map<String, Object> startupStats() {
+        return startupProfiler != null ? startupProfiler.report() : Map.of("enabled", false);
+    }
+
+    // prototype.lifecycle.enabled=true: prototypes with destroy callbacks still live, destroyed, collected
+    @GetMapping("/stats/prototypes")
+    public Map<String, Object> prototypeStats() {
+        return prototypeLifecycleManager != null ? prototypeLifecycleManager.stats() : Map.of("enabled", false);
+    }
+}
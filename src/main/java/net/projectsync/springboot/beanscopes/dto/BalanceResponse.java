@@ -0,0 +1,5 @@
+package net.projectsync.springboot.beanscopes.dto;
+
+// GET /accounts/{account}/balance for JSON/CBOR/Smile clients; minorUnits is exact, balance is for display
+public record BalanceResponse(String account, long minorUnits, double balance) {
+}
@@ -0,0 +1,21 @@
+package net.projectsync.springboot.beanscopes.dto;
+
+import java.util.List;
+
+// Response of POST /transfers/batch; results are in request order
+public record BatchTransferResponse(int total, int completed, int rejected, int failed, List<TransferResult> results) {
+
+    public static BatchTransferResponse of(List<TransferResult> results) {
+        int completed = 0;
+        int rejected = 0;
+        int failed = 0;
+        for (TransferResult result : results) {
+            switch (result.status()) {
+                case COMPLETED -> completed++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+        }
+        return new BatchTransferResponse(results.size(), completed, rejected, failed, results);
+    }
+}
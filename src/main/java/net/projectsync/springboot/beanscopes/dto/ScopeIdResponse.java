@@ -0,0 +1,5 @@
+package net.projectsync.springboot.beanscopes.dto;
+
+// GET /request and /session for JSON/CBOR/Smile clients; sessionId (JSESSIONID) only for /session
+public record ScopeIdResponse(String scope, String uuid, String sessionId) {
+}
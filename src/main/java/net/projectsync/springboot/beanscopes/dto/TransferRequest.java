@@ -0,0 +1,25 @@
+package net.projectsync.springboot.beanscopes.dto;
+
+// One transfer in a batch / stream request, e.g. {"fromAccount":"ACC1","toAccount":"ACC2","amount":1000}
+public record TransferRequest(String fromAccount, String toAccount, double amount) {
+
+    // null when valid, otherwise the reason the transfer is rejected without being executed
+    public String validate() {
+        if (fromAccount == null || fromAccount.isBlank()) {
+            return "fromAccount is required";
+        }
+        if (toAccount == null || toAccount.isBlank()) {
+            return "toAccount is required";
+        }
+        if (fromAccount.equals(toAccount)) {
+            return "fromAccount and toAccount must differ";
+        }
+        if (!Double.isFinite(amount) || amount <= 0) {
+            return "amount must be a positive number";
+        }
+        if (amount < 0.005) {
+            return "amount must be at least 0.01"; // rounds to 0 minor units in the ledger
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package net.projectsync.springboot.beanscopes.dto;
+
+// Outcome of one transfer; index is its position in the request
+public record TransferResult(int index, Status status, String error) {
+
+    public enum Status {
+        COMPLETED, REJECTED, FAILED
+    }
+
+    public static TransferResult completed(int index) {
+        return new TransferResult(index, Status.COMPLETED, null);
+    }
+
+    public static TransferResult rejected(int index, String reason) {
+        return new TransferResult(index, Status.REJECTED, reason);
+    }
+
+    public static TransferResult failed(int index, String reason) {
+        return new TransferResult(index, Status.FAILED, reason);
+    }
+}
@@ -0,0 +1,7 @@
+package net.projectsync.springboot.beanscopes.dto;
+
+import java.time.Instant;
+
+// GET /prototype for JSON/CBOR/Smile clients
+public record TransfersCompletedResponse(int transactions, Instant completedAt) {
+}
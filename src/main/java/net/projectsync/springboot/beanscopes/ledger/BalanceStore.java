@@ -0,0 +1,39 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Where the ledger engines keep balances (ledger.store, see LedgerConfig):
+ * 	heap   - HeapBalanceStore, chunked long[] arrays plus an account -> slot index (default)
+ * 	mapped - MappedBalanceStore, fixed 64-byte slots in a memory-mapped file: constant heap footprint,
+ * 	         reopened instantly on restart
+ *
+ * An account is resolved to a slot once (slot()), after that balances are read and written by slot number.
+ * get/set are volatile; callers provide mutual exclusion per account (stripe lock or shard thread) where a
+ * read-modify-write must be atomic with other checks, add() is atomic on its own.
+ */
+public interface BalanceStore extends AutoCloseable {
+
+    // Slot of the account, created with a zero balance on first use
+    int slot(String account);
+
+    // Slot of the account or -1 if it has never been used
+    int find(String account);
+
+    long get(int slot);
+
+    void set(int slot, long balance);
+
+    // Atomically adds delta and returns the new balance; ArithmeticException on overflow (balance unchanged)
+    long add(int slot, long delta);
+
+    // Number of accounts
+    int size();
+
+    // Visits every account with its current balance (weakly consistent under concurrent updates)
+    void forEach(ObjLongConsumer<String> visitor);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,79 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ObjLongConsumer;
+
+// Balances in primitive long[] chunks (no boxed Long, no object per account), indexed by a ConcurrentHashMap.
+// Chunks are allocated on demand, so memory grows with the number of accounts.
+public class HeapBalanceStore implements BalanceStore {
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<long[]> chunks = new AtomicReferenceArray<>(1 << (31 - CHUNK_SHIFT));
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    @Override
+    public int slot(String account) {
+        Integer slot = slots.get(account);
+        return slot != null ? slot : slots.computeIfAbsent(account, k -> allocate());
+    }
+
+    @Override
+    public int find(String account) {
+        Integer slot = slots.get(account);
+        return slot != null ? slot : -1;
+    }
+
+    @Override
+    public long get(int slot) {
+        return (long) LONGS.getVolatile(chunks.get(slot >>> CHUNK_SHIFT), slot & CHUNK_MASK);
+    }
+
+    @Override
+    public void set(int slot, long balance) {
+        LONGS.setVolatile(chunks.get(slot >>> CHUNK_SHIFT), slot & CHUNK_MASK, balance);
+    }
+
+    @Override
+    public long add(int slot, long delta) {
+        long[] chunk = chunks.get(slot >>> CHUNK_SHIFT);
+        int index = slot & CHUNK_MASK;
+        while (true) {
+            long current = (long) LONGS.getVolatile(chunk, index);
+            long updated = Math.addExact(current, delta);
+            if (LONGS.compareAndSet(chunk, index, current, updated)) {
+                return updated;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public void forEach(ObjLongConsumer<String> visitor) {
+        slots.forEach((account, slot) -> visitor.accept(account, get(slot)));
+    }
+
+    // Runs inside computeIfAbsent: the chunk exists before the slot is published to other threads
+    private int allocate() {
+        int slot = nextSlot.getAndIncrement();
+        int chunk = slot >>> CHUNK_SHIFT;
+        if (chunks.get(chunk) == null) {
+            chunks.compareAndSet(chunk, null, new long[CHUNK_SIZE]);
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,11 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+// Thrown by the ledger (with ledger.enforce-funds=true) when a transfer would overdraw the source account
+public class InsufficientFundsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InsufficientFundsException(String account, long balance, long amount) {
+        super("Insufficient funds in " + account + ": balance " + balance + ", transfer " + amount + " (minor units)");
+    }
+}
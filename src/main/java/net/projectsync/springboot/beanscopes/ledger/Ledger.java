@@ -0,0 +1,42 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+import java.util.Map;
+
+/**
+ * Account balances behind PaymentService.transfer.
+ *
+ * Balances are long minor units (cents), never double: 0.1 + 0.2 != 0.3 in binary floating point.
+ * Use toMinorUnits() at the edge, e.g. 1000.0 -> 100000.
+ *
+ * Engines (ledger.engine, see LedgerConfig):
+ * 	striped - StripedLedger, callers lock the stripes of both accounts (default)
+ * 	sharded - ShardedLedger, accounts owned by single-writer shard threads, no locks at all
+ *
+ * Accounts are created on first use with a zero balance. Unless ledger.enforce-funds=true,
+ * balances may go negative, which keeps the demo endpoints working without deposits.
+ */
+public interface Ledger {
+
+    long MINOR_UNITS_PER_UNIT = 100;
+
+    static long toMinorUnits(double amount) {
+        return Math.round(amount * MINOR_UNITS_PER_UNIT);
+    }
+
+    // Moves amount (minor units, > 0) between two different accounts (IllegalArgumentException otherwise).
+    // When the call returns, either both balances changed or neither did.
+    void transfer(String fromAccount, String toAccount, long amount);
+
+    // Undoes a transfer() that returned normally, e.g. when the write-ahead log could not record it.
+    // No funds check: the money is going back where it came from.
+    void reverse(String fromAccount, String toAccount, long amount);
+
+    void deposit(String account, long amount);
+
+    long balance(String account);
+
+    // Sum of all balances. Only exact while no transfer is running.
+    long totalBalance();
+
+    Map<String, Object> stats();
+}
@@ -0,0 +1,334 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import net.projectsync.springboot.beanscopes.ledger.WriteAheadLog.WalRecord;
+
+/**
+ * Snapshots of all balances plus recovery from snapshot + WAL tail (enabled together with ledger.wal.enabled).
+ *
+ * Snapshots are built from the log, not from the live ledger: snapshot(n) = snapshot(n-1) + the records of the
+ * sealed WAL segments (every segment but the one being appended to). So a snapshot is exactly consistent with
+ * an LSN without pausing transfers. Once the snapshot is on disk the folded segments and older snapshots are
+ * deleted (compaction), which keeps the log short:
+ *
+ * 	snapshot-00000000000001048576.snap   balances as of LSN 1048576
+ * 	wal-00000000000001048577.log         the tail: replayed on startup
+ *
+ * Recovery (startup) = load the latest valid snapshot, replay only records with an LSN after it. Transfers are
+ * deltas, so the replay is split by account across all cores: one pass while reading the tail puts each record
+ * in the bucket of its two accounts' partitions, then each partition folds only its own bucket and writes the
+ * final balances once. Time-to-ready grows with the tail and the account count, not with history.
+ *
+ * Not for a MappedBalanceStore: its pages reach the disk whenever the OS writes them, not in step with the WAL's
+ * force(), so after a crash they can hold unlogged transfers or miss logged ones. LedgerConfig refuses the combination.
+ *
+ * 	file: [long magic][long lsn][int count] count x ([short length][account UTF-8][long balance]) [int crc32c]
+ */
+public class LedgerSnapshotter implements AutoCloseable {
+
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private static final long MAGIC = 0x4c45444745525331L; // "LEDGERS1"
+
+    private final Path directory;
+    private final Path walDirectory;
+    private final Duration interval;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong snapshotLsn = new AtomicLong();
+    private final AtomicInteger snapshots = new AtomicInteger();
+    private final AtomicInteger compactedSegments = new AtomicInteger();
+    private volatile long lastSnapshotMillis;
+    private volatile Map<String, Object> recovery = Map.of("performed", false);
+
+    public LedgerSnapshotter(Path directory, Path walDirectory, Duration interval) {
+        this.directory = directory;
+        this.walDirectory = walDirectory;
+        this.interval = interval;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create snapshot directory " + directory, e);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ledger-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Background snapshots every interval, the first one after one interval
+    public void start() {
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                // keep the schedule alive; the next run retries with the same segments
+                System.err.println("Ledger snapshot failed: " + e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the latest snapshot and the WAL tail after it into store. Must run before any transfer.
+     * Returns what was done (also exposed by stats()).
+     */
+    public Map<String, Object> recover(BalanceStore store) {
+        if (store instanceof MappedBalanceStore) {
+            throw new IllegalArgumentException("A mapped balance store is not in step with the write-ahead log and cannot be recovered from it");
+        }
+        long start = System.nanoTime();
+        Map<String, Object> result = new LinkedHashMap<>();
+        try {
+            Snapshot snapshot = loadLatest();
+            Tail tail = new Tail(Runtime.getRuntime().availableProcessors());
+            for (Path segment : WriteAheadLog.listSegments(walDirectory)) {
+                WriteAheadLog.scanSegment(segment, record -> {
+                    if (record.lsn() > snapshot.lsn) {
+                        tail.add(record);
+                    }
+                });
+            }
+            replay(store, snapshot.balances, tail);
+            snapshotLsn.set(snapshot.lsn);
+
+            result.put("performed", true);
+            result.put("snapshotLsn", snapshot.lsn);
+            result.put("snapshotAccounts", snapshot.balances.size());
+            result.put("replayedRecords", tail.records);
+            result.put("lastLsn", tail.records == 0 ? snapshot.lsn : tail.lastLsn);
+            result.put("partitions", tail.buckets.size());
+            result.put("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ledger recovery failed", e);
+        }
+        recovery = result;
+        return result;
+    }
+
+    // Partition p owns the accounts whose hash maps to p: no two partitions ever write the same slot
+    private static void replay(BalanceStore store, Map<String, long[]> base, Tail tail) {
+        int partitions = tail.buckets.size();
+        List<Map<String, long[]>> balances = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            balances.add(new HashMap<>());
+        }
+        base.forEach((account, balance) -> balances.get(partition(account, partitions)).put(account, new long[] { balance[0] }));
+        IntStream.range(0, partitions).parallel().forEach(p -> {
+            Map<String, long[]> own = balances.get(p);
+            for (WalRecord record : tail.buckets.get(p)) {
+                if (partition(record.fromAccount(), partitions) == p) {
+                    own.computeIfAbsent(record.fromAccount(), k -> new long[1])[0] -= record.amount();
+                }
+                if (partition(record.toAccount(), partitions) == p) {
+                    own.computeIfAbsent(record.toAccount(), k -> new long[1])[0] += record.amount();
+                }
+            }
+            own.forEach((account, balance) -> store.set(store.slot(account), balance[0]));
+        });
+    }
+
+    private static int partition(String account, int partitions) {
+        int h = account.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), partitions);
+    }
+
+    /**
+     * Folds all sealed WAL segments into a new snapshot, then deletes them and the older snapshots.
+     * Returns the LSN of the new snapshot, or the current one if there was nothing to fold.
+     */
+    public synchronized long snapshot() {
+        try {
+            List<Path> segments = WriteAheadLog.listSegments(walDirectory);
+            if (segments.size() < 2) {
+                return snapshotLsn.get(); // only the active segment: nothing sealed yet
+            }
+            List<Path> sealed = segments.subList(0, segments.size() - 1);
+            Snapshot snapshot = loadLatest();
+            long lsn = snapshot.lsn;
+            for (Path segment : sealed) {
+                long[] end = WriteAheadLog.scanSegment(segment, record -> {
+                    if (record.lsn() > snapshot.lsn) {
+                        snapshot.balances.computeIfAbsent(record.fromAccount(), k -> new long[1])[0] -= record.amount();
+                        snapshot.balances.computeIfAbsent(record.toAccount(), k -> new long[1])[0] += record.amount();
+                    }
+                });
+                lsn = Math.max(lsn, end[1]);
+            }
+            if (lsn > snapshot.lsn) {
+                write(lsn, snapshot.balances);
+            }
+            // compaction: the new snapshot covers every sealed segment
+            for (Path segment : sealed) {
+                Files.deleteIfExists(segment);
+                compactedSegments.incrementAndGet();
+            }
+            for (Path old : listSnapshots()) {
+                if (lsnOf(old) < lsn) {
+                    Files.deleteIfExists(old);
+                }
+            }
+            snapshotLsn.set(lsn);
+            return lsn;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ledger snapshot failed", e);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("snapshotLsn", snapshotLsn.get());
+        stats.put("snapshots", snapshots.get());
+        stats.put("lastSnapshotMillis", lastSnapshotMillis);
+        stats.put("compactedSegments", compactedSegments.get());
+        stats.put("interval", interval.toString());
+        stats.put("recovery", recovery);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    // Temp file + fsync + atomic rename: a crash leaves either the old or the new snapshot, never half of one
+    private void write(long lsn, Map<String, long[]> balances) throws IOException {
+        long start = System.nanoTime();
+        Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(temp), crc), 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeLong(lsn);
+            out.writeInt(balances.size());
+            for (Map.Entry<String, long[]> entry : balances.entrySet()) {
+                byte[] account = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(account.length);
+                out.write(account);
+                out.writeLong(entry.getValue()[0]);
+            }
+            out.flush();
+            int checksum = (int) crc.getValue();
+            out.writeInt(checksum);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        snapshots.incrementAndGet();
+        lastSnapshotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    // Newest snapshot that passes its checksum; an empty snapshot at LSN 0 if there is none
+    private Snapshot loadLatest() throws IOException {
+        List<Path> files = listSnapshots();
+        for (int i = files.size() - 1; i >= 0; i--) {
+            Snapshot snapshot = read(files.get(i));
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        return new Snapshot(0, new HashMap<>());
+    }
+
+    private static Snapshot read(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < 24) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - 4);
+        if (ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt() != (int) crc.getValue()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4))) {
+            if (in.readLong() != MAGIC) {
+                return null;
+            }
+            long lsn = in.readLong();
+            int count = in.readInt();
+            Map<String, long[]> balances = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                byte[] account = new byte[in.readUnsignedShort()];
+                in.readFully(account);
+                balances.put(new String(account, StandardCharsets.UTF_8), new long[] { in.readLong() });
+            }
+            return new Snapshot(lsn, balances);
+        }
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static long lsnOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    // The WAL tail, split while it is read: a record goes to the bucket of each of its two accounts' partitions
+    private static final class Tail {
+
+        final List<List<WalRecord>> buckets;
+        long records;
+        long lastLsn;
+
+        Tail(int partitions) {
+            buckets = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        void add(WalRecord record) {
+            int from = partition(record.fromAccount(), buckets.size());
+            int to = partition(record.toAccount(), buckets.size());
+            buckets.get(from).add(record);
+            if (to != from) {
+                buckets.get(to).add(record);
+            }
+            records++;
+            lastLsn = record.lsn();
+        }
+    }
+
+    // balances as one-element arrays: updated in place while folding, no boxing per record
+    private record Snapshot(long lsn, Map<String, long[]> balances) {
+    }
+}
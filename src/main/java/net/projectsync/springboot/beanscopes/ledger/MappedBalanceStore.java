@@ -0,0 +1,301 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Off-heap BalanceStore: an open-addressing hash table laid out in a memory-mapped file.
+ *
+ * 	slot 0       header: [long magic][int version][int epoch][long capacity][int size]
+ * 	slot 1..n-1  [long balance][int state][int hash][48 bytes account id, UTF-8]      (64 bytes = one cache line)
+ *
+ * 	state  0    empty
+ * 	state > 0   in use, value = key length
+ * 	state < 0   being inserted by the process that opened the file in epoch -state
+ *
+ * Accounts are placed by String.hashCode() (stable across JVMs) with linear probing. Inserts claim a slot
+ * with a CAS on its state, write hash and key, then publish the key length with a release store; readers
+ * acquire the state before looking at the key. Balances are read and written through VarHandle views on the
+ * mapped buffer (volatile get/set, CAS for add), so the table is safe for concurrent use without locks.
+ *
+ * The heap footprint is a few objects regardless of account count, nothing is loaded on startup: reopening
+ * maps the file and bumps the epoch. A slot claimed in an earlier epoch (crash mid-insert) is skipped forever.
+ * The capacity is fixed when the file is created (no resizing); inserts fail beyond a 75% load factor.
+ * Pages are written back by the OS; close() forces them to disk.
+ */
+public class MappedBalanceStore implements BalanceStore {
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    static final int SLOT_BYTES = 64;
+    static final int MAX_KEY_BYTES = 48;
+
+    private static final long MAGIC = 0x524f545342414c31L; // "1LABSTOR" little-endian
+    private static final int VERSION = 1;
+
+    // header fields (slot 0)
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 8;
+    private static final int HEADER_EPOCH = 12;
+    private static final int HEADER_CAPACITY = 16;
+    private static final int HEADER_SIZE = 24;
+
+    // slot fields
+    private static final int BALANCE = 0;
+    private static final int STATE = 8;
+    private static final int HASH = 12;
+    private static final int KEY = 16;
+
+    // one mapping per 2^24 slots (1GB): a single MappedByteBuffer cannot exceed 2GB
+    private static final int CHUNK_SHIFT = 24;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final Path file;
+    private final MappedByteBuffer[] chunks;
+    private final MappedByteBuffer header;
+    private final int capacity;
+    private final int mask;
+    private final int maxSize;
+    private final int epoch;
+
+    public MappedBalanceStore(Path file, int capacity) {
+        this.file = file;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            boolean exists = Files.exists(file) && Files.size(file) > 0;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int slots = exists ? readCapacity(channel) : Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+                this.capacity = slots;
+                this.chunks = new MappedByteBuffer[(int) (((long) slots + CHUNK_MASK) >>> CHUNK_SHIFT)];
+                for (int i = 0; i < chunks.length; i++) {
+                    long firstSlot = (long) i << CHUNK_SHIFT;
+                    long slotsInChunk = Math.min(1L << CHUNK_SHIFT, slots - firstSlot);
+                    // the mapping stays valid after the channel is closed; mapping past the end grows the (sparse) file
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, firstSlot * SLOT_BYTES, slotsInChunk * SLOT_BYTES);
+                    chunks[i].order(ByteOrder.LITTLE_ENDIAN); // same order as the VarHandle views
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open balance store " + file, e);
+        }
+        this.header = chunks[0];
+        this.mask = this.capacity - 1;
+        this.maxSize = (int) (this.capacity * 3L / 4);
+
+        if (header.getLong(HEADER_MAGIC) != MAGIC) {
+            header.putLong(HEADER_MAGIC, MAGIC);
+            header.putInt(HEADER_VERSION, VERSION);
+            header.putLong(HEADER_CAPACITY, this.capacity);
+        } else if (header.getInt(HEADER_VERSION) != VERSION) {
+            throw new IllegalStateException("Unsupported balance store version " + header.getInt(HEADER_VERSION) + " in " + file);
+        }
+        int next = header.getInt(HEADER_EPOCH) + 1;
+        this.epoch = next > 0 ? next : 1;
+        header.putInt(HEADER_EPOCH, epoch);
+    }
+
+    @Override
+    public int slot(String account) {
+        int hash = account.hashCode();
+        byte[] key = null;
+        int slot = firstSlot(hash);
+        for (int probes = 0; probes < capacity; probes++) {
+            ByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            int state = (int) INT.getAcquire(chunk, offset + STATE);
+            if (state == 0) {
+                if (key == null) {
+                    key = encodeKey(account);
+                }
+                if ((int) INT.getVolatile(header, HEADER_SIZE) >= maxSize) {
+                    throw new IllegalStateException("Balance store " + file + " is full (" + capacity + " slots), raise ledger.store.capacity");
+                }
+                if (INT.compareAndSet(chunk, offset + STATE, 0, -epoch)) {
+                    INT.set(chunk, offset + HASH, hash);
+                    chunk.put(offset + KEY, key);
+                    LONG.setVolatile(chunk, offset + BALANCE, 0L);
+                    INT.setRelease(chunk, offset + STATE, key.length); // publish
+                    INT.getAndAdd(header, HEADER_SIZE, 1);
+                    return slot;
+                }
+                probes--; // lost the race for this slot: look at it again, it may be our account
+                continue;
+            }
+            if (state < 0) {
+                if (-state == epoch) {
+                    Thread.onSpinWait(); // being inserted right now: wait for the key, it may be ours
+                    probes--;
+                    continue;
+                }
+                // claimed by a process that died mid-insert: a dead slot, keep probing
+            } else if ((int) INT.get(chunk, offset + HASH) == hash && keyEquals(chunk, offset, state, account)) {
+                return slot;
+            }
+            slot = nextSlot(slot);
+        }
+        throw new IllegalStateException("Balance store " + file + " is full (" + capacity + " slots), raise ledger.store.capacity");
+    }
+
+    @Override
+    public int find(String account) {
+        int hash = account.hashCode();
+        int slot = firstSlot(hash);
+        for (int probes = 0; probes < capacity; probes++) {
+            ByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            int state = (int) INT.getAcquire(chunk, offset + STATE);
+            if (state == 0) {
+                return -1;
+            }
+            if (state < 0 && -state == epoch) {
+                Thread.onSpinWait();
+                probes--;
+                continue;
+            }
+            if (state > 0 && (int) INT.get(chunk, offset + HASH) == hash && keyEquals(chunk, offset, state, account)) {
+                return slot;
+            }
+            slot = nextSlot(slot);
+        }
+        return -1;
+    }
+
+    @Override
+    public long get(int slot) {
+        return (long) LONG.getVolatile(chunk(slot), offset(slot) + BALANCE);
+    }
+
+    @Override
+    public void set(int slot, long balance) {
+        LONG.setVolatile(chunk(slot), offset(slot) + BALANCE, balance);
+    }
+
+    @Override
+    public long add(int slot, long delta) {
+        ByteBuffer chunk = chunk(slot);
+        int index = offset(slot) + BALANCE;
+        while (true) {
+            long current = (long) LONG.getVolatile(chunk, index);
+            long updated = Math.addExact(current, delta);
+            if (LONG.compareAndSet(chunk, index, current, updated)) {
+                return updated;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) INT.getVolatile(header, HEADER_SIZE);
+    }
+
+    // Scans the whole table: O(capacity), meant for snapshots and totals, not for the request path
+    @Override
+    public void forEach(ObjLongConsumer<String> visitor) {
+        byte[] key = new byte[MAX_KEY_BYTES];
+        for (int slot = 1; slot < capacity; slot++) {
+            ByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            int state = (int) INT.getAcquire(chunk, offset + STATE);
+            if (state > 0) {
+                chunk.get(offset + KEY, key, 0, state);
+                visitor.accept(new String(key, 0, state, StandardCharsets.UTF_8), (long) LONG.getVolatile(chunk, offset + BALANCE));
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT];
+    }
+
+    private static int offset(int slot) {
+        return (slot & CHUNK_MASK) * SLOT_BYTES;
+    }
+
+    private int firstSlot(int hash) {
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        return slot == 0 ? 1 : slot; // slot 0 is the header
+    }
+
+    private int nextSlot(int slot) {
+        int next = (slot + 1) & mask;
+        return next == 0 ? 1 : next;
+    }
+
+    private static byte[] encodeKey(String account) {
+        byte[] key = account.getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0 || key.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Account id must be 1-" + MAX_KEY_BYTES + " UTF-8 bytes: " + account);
+        }
+        return key;
+    }
+
+    // Compares without encoding the account: an ASCII id has one byte per char,
+    // a non-ASCII id has more UTF-8 bytes than chars and only then needs encoding
+    private static boolean keyEquals(ByteBuffer chunk, int offset, int keyLength, String account) {
+        if (keyLength == account.length()) {
+            for (int i = 0; i < keyLength; i++) {
+                char c = account.charAt(i);
+                if (c >= 0x80 || chunk.get(offset + KEY + i) != (byte) c) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (keyLength < account.length()) {
+            return false;
+        }
+        byte[] key = account.getBytes(StandardCharsets.UTF_8);
+        if (key.length != keyLength) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; i++) {
+            if (chunk.get(offset + KEY + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readCapacity(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SLOT_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        if (header.getLong(HEADER_MAGIC) != MAGIC) {
+            throw new IllegalStateException("Not a balance store (bad magic)");
+        }
+        return (int) header.getLong(HEADER_CAPACITY);
+    }
+}
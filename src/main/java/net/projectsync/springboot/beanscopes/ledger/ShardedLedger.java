@@ -0,0 +1,332 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer ledger engine (ledger.engine=sharded), in the style of the LMAX architecture.
+ *
+ * Accounts are hash-partitioned into N shards. Each shard owns its accounts exclusively: one thread,
+ * fed through a lock-free queue, is the only one that ever reads or writes them. No locks, no CAS on
+ * balances, no contention on hot accounts: callers only enqueue a command and wait for its completion.
+ *
+ * 	same shard:   [caller] --move--> [shard A]                                  (one step, atomic)
+ * 	cross shard:  [caller] --debit--> [shard A] --credit--> [shard B]           (two steps)
+ * 	                                         <--compensate--  (credit failed)   (debit is undone on shard A)
+ *
+ * The caller's transfer() returns once the transfer is complete or fully compensated, so from the outside it
+ * is all-or-nothing. While a cross-shard transfer is between its two steps the money is "in transit":
+ * totalBalance() can be off by the in-transit amounts under load.
+ *
+ * Balances live in one shared BalanceStore; each slot is only ever written by the thread of the account's
+ * shard. Reads (balance, totals) go straight to the store instead of through the shard queues.
+ */
+public class ShardedLedger implements Ledger, AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Shard[] shards;
+    private final boolean enforceFunds;
+    private final BalanceStore store;
+
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder crossShard = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder compensations = new LongAdder();
+    private final LongAdder reversed = new LongAdder();
+
+    public ShardedLedger(int shards, boolean enforceFunds) {
+        this(shards, enforceFunds, new HeapBalanceStore());
+    }
+
+    public ShardedLedger(int shards, boolean enforceFunds, BalanceStore store) {
+        this.store = store;
+        // 0 = one shard per core
+        int count = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            this.shards[i] = new Shard(i);
+        }
+        this.enforceFunds = enforceFunds;
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        requireDifferent(fromAccount, toAccount);
+        Shard source = shards[shardOf(fromAccount)];
+        Shard target = shards[shardOf(toAccount)];
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        if (source == target) {
+            source.submit(() -> {
+                try {
+                    source.move(fromAccount, toAccount, amount);
+                    done.complete(null);
+                } catch (RuntimeException e) {
+                    done.completeExceptionally(e);
+                }
+            });
+        } else {
+            crossShard.increment();
+            source.submit(() -> debit(source, target, fromAccount, toAccount, amount, done));
+        }
+        await(done);
+        transfers.increment();
+    }
+
+    // Step 1, on the source shard thread
+    private void debit(Shard source, Shard target, String fromAccount, String toAccount, long amount, CompletableFuture<Void> done) {
+        try {
+            source.debit(fromAccount, amount);
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e); // nothing happened yet, nothing to undo
+            return;
+        }
+        try {
+            target.submit(() -> credit(source, target, fromAccount, toAccount, amount, done));
+        } catch (RuntimeException e) {
+            // target shard no longer accepts commands: undo right here, we are on the source thread
+            compensate(source, fromAccount, amount);
+            done.completeExceptionally(e);
+        }
+    }
+
+    // Step 2, on the target shard thread
+    private void credit(Shard source, Shard target, String fromAccount, String toAccount, long amount, CompletableFuture<Void> done) {
+        try {
+            target.credit(toAccount, amount);
+            done.complete(null);
+        } catch (RuntimeException e) {
+            // compensating action: give the money back to the source account, on its own shard
+            source.submitUnchecked(() -> {
+                compensate(source, fromAccount, amount);
+                done.completeExceptionally(e);
+            });
+        }
+    }
+
+    private void compensate(Shard source, String fromAccount, long amount) {
+        compensations.increment();
+        source.credit(fromAccount, amount); // the same amount was just debited from it, cannot overflow in practice
+    }
+
+    // Same two steps as a cross-shard transfer, in the other direction and without the funds check
+    @Override
+    public void reverse(String fromAccount, String toAccount, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        requireDifferent(fromAccount, toAccount);
+        Shard source = shards[shardOf(fromAccount)];
+        Shard target = shards[shardOf(toAccount)];
+        call(target, () -> {
+            target.withdraw(toAccount, amount);
+            return null;
+        });
+        call(source, () -> {
+            source.credit(fromAccount, amount);
+            return null;
+        });
+        reversed.increment();
+    }
+
+    @Override
+    public void deposit(String account, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        Shard shard = shards[shardOf(account)];
+        call(shard, () -> {
+            shard.credit(account, amount);
+            return null;
+        });
+    }
+
+    // Shard.move computes both balances from the same start: the credit would overwrite the debit
+    private static void requireDifferent(String fromAccount, String toAccount) {
+        if (fromAccount.equals(toAccount)) {
+            throw new IllegalArgumentException("fromAccount and toAccount must differ: " + fromAccount);
+        }
+    }
+
+    // A single balance is one volatile read: no round trip through the shard
+    @Override
+    public long balance(String account) {
+        int slot = store.find(account);
+        return slot < 0 ? 0 : store.get(slot);
+    }
+
+    @Override
+    public long totalBalance() {
+        long[] total = new long[1];
+        store.forEach((account, balance) -> total[0] += balance);
+        return total[0];
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("engine", "sharded");
+        stats.put("shards", shards.length);
+        stats.put("enforceFunds", enforceFunds);
+        stats.put("store", store.getClass().getSimpleName());
+        stats.put("accounts", store.size());
+        stats.put("transfers", transfers.sum());
+        stats.put("crossShardTransfers", crossShard.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("compensations", compensations.sum());
+        stats.put("reversed", reversed.sum());
+        stats.put("totalBalance", totalBalance());
+        return stats;
+    }
+
+    public int shardOf(String account) {
+        int h = account.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    // Stops accepting commands; each shard finishes what is already queued
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // a compensation can reach a shard that has already exited; with all shard threads gone,
+        // this thread is the single writer and runs the leftovers so no caller waits forever
+        boolean ranAny;
+        do {
+            ranAny = false;
+            for (Shard shard : shards) {
+                Runnable command;
+                while ((command = shard.commands.poll()) != null) {
+                    command.run();
+                    ranAny = true;
+                }
+            }
+        } while (ranAny);
+    }
+
+    private static <T> T call(Shard shard, Supplier<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        shard.submit(() -> {
+            try {
+                result.complete(query.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return await(result);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // e.g. InsufficientFundsException, as thrown by the striped engine
+            }
+            throw e;
+        }
+    }
+
+    private final class Shard {
+
+        private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+
+        private volatile boolean running = true;
+        private volatile boolean parked;
+
+        Shard(int index) {
+            this.thread = new Thread(this::run, "ledger-shard-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        void submit(Runnable command) {
+            if (!running) {
+                throw new IllegalStateException("Ledger is shut down");
+            }
+            submitUnchecked(command);
+        }
+
+        // Compensations must still run while shutting down: the loop drains the queue before exiting
+        void submitUnchecked(Runnable command) {
+            commands.offer(command);
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private void run() {
+            while (running || !commands.isEmpty()) {
+                Runnable command = commands.poll();
+                if (command != null) {
+                    command.run();
+                    continue;
+                }
+                parked = true;
+                if (running && commands.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+            }
+        }
+
+        // Everything below runs on this shard's thread only: the single writer of its accounts' slots
+
+        void move(String fromAccount, String toAccount, long amount) {
+            int from = store.slot(fromAccount);
+            int to = store.slot(toAccount);
+            long fromBalance = store.get(from);
+            checkFunds(fromAccount, fromBalance, amount);
+            long debited = Math.subtractExact(fromBalance, amount);
+            long credited = Math.addExact(store.get(to), amount);
+            store.set(from, debited);
+            store.set(to, credited);
+        }
+
+        void debit(String account, long amount) {
+            int slot = store.slot(account);
+            long balance = store.get(slot);
+            checkFunds(account, balance, amount);
+            store.set(slot, Math.subtractExact(balance, amount));
+        }
+
+        // reverse(): takes back a credit, the balance may go negative
+        void withdraw(String account, long amount) {
+            int slot = store.slot(account);
+            store.set(slot, Math.subtractExact(store.get(slot), amount));
+        }
+
+        void credit(String account, long amount) {
+            int slot = store.slot(account);
+            store.set(slot, Math.addExact(store.get(slot), amount));
+        }
+
+        private void checkFunds(String account, long balance, long amount) {
+            if (enforceFunds && balance < amount) {
+                rejected.increment();
+                throw new InsufficientFundsException(account, balance, amount);
+            }
+        }
+    }
+}
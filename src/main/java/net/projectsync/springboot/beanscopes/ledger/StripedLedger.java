@@ -0,0 +1,146 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-based ledger engine (ledger.engine=striped, default).
+ *
+ * Locking: accounts hash onto a fixed array of stripe locks. A transfer takes the two stripes
+ * in ascending stripe index (one lock if both accounts share a stripe), so every thread acquires
+ * locks in the same global order and two opposite transfers (A->B, B->A) can never deadlock.
+ * Transfers on accounts in different stripes run fully in parallel.
+ * Balances live in a BalanceStore; the stripe locks make check-then-update atomic.
+ */
+public class StripedLedger implements Ledger {
+
+    private final Object[] locks;
+    private final int stripeMask;
+    private final boolean enforceFunds;
+    private final BalanceStore store;
+
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder reversed = new LongAdder();
+    private final LongAdder sameStripe = new LongAdder();
+
+    public StripedLedger(int stripes, boolean enforceFunds) {
+        this(stripes, enforceFunds, new HeapBalanceStore());
+    }
+
+    public StripedLedger(int stripes, boolean enforceFunds, BalanceStore store) {
+        // 0 = 4 stripes per core; rounded up to a power of two so a stripe is picked with a mask
+        int requested = stripes > 0 ? stripes : 4 * Runtime.getRuntime().availableProcessors();
+        int size = Integer.highestOneBit(Math.max(1, requested - 1)) << 1;
+        this.locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new Object();
+        }
+        this.stripeMask = size - 1;
+        this.enforceFunds = enforceFunds;
+        this.store = store;
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, long amount) {
+        locked(fromAccount, toAccount, amount, true);
+        transfers.increment();
+    }
+
+    @Override
+    public void reverse(String fromAccount, String toAccount, long amount) {
+        locked(toAccount, fromAccount, amount, false);
+        reversed.increment();
+    }
+
+    private void locked(String fromAccount, String toAccount, long amount, boolean checkFunds) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        if (fromAccount.equals(toAccount)) {
+            // move() computes both balances from the same start: the credit would overwrite the debit
+            throw new IllegalArgumentException("fromAccount and toAccount must differ: " + fromAccount);
+        }
+        int from = store.slot(fromAccount);
+        int to = store.slot(toAccount);
+        int fromStripe = stripe(fromAccount);
+        int toStripe = stripe(toAccount);
+
+        if (fromStripe == toStripe) {
+            sameStripe.increment();
+            synchronized (locks[fromStripe]) {
+                move(fromAccount, from, to, amount, checkFunds);
+            }
+        } else {
+            // fixed global order: lower stripe index first
+            Object first = locks[Math.min(fromStripe, toStripe)];
+            Object second = locks[Math.max(fromStripe, toStripe)];
+            synchronized (first) {
+                synchronized (second) {
+                    move(fromAccount, from, to, amount, checkFunds);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void deposit(String account, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        int slot = store.slot(account);
+        synchronized (locks[stripe(account)]) {
+            store.set(slot, Math.addExact(store.get(slot), amount));
+        }
+    }
+
+    // A single balance is one volatile read, no lock needed
+    @Override
+    public long balance(String account) {
+        int slot = store.find(account);
+        return slot < 0 ? 0 : store.get(slot);
+    }
+
+    @Override
+    public long totalBalance() {
+        long[] total = new long[1];
+        store.forEach((account, balance) -> total[0] += balance);
+        return total[0];
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("engine", "striped");
+        stats.put("stripes", locks.length);
+        stats.put("enforceFunds", enforceFunds);
+        stats.put("store", store.getClass().getSimpleName());
+        stats.put("accounts", store.size());
+        stats.put("transfers", transfers.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("reversed", reversed.sum());
+        stats.put("sameStripeTransfers", sameStripe.sum());
+        stats.put("totalBalance", totalBalance());
+        return stats;
+    }
+
+    // caller holds the stripe lock(s) of both accounts
+    private void move(String fromAccount, int from, int to, long amount, boolean checkFunds) {
+        long fromBalance = store.get(from);
+        if (checkFunds && enforceFunds && fromBalance < amount) {
+            rejected.increment();
+            throw new InsufficientFundsException(fromAccount, fromBalance, amount);
+        }
+        // both computed before either is written: an overflow leaves the two balances untouched
+        long debited = Math.subtractExact(fromBalance, amount);
+        long credited = Math.addExact(store.get(to), amount);
+        store.set(from, debited);
+        store.set(to, credited);
+    }
+
+    private int stripe(String account) {
+        int h = account.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+}
@@ -0,0 +1,380 @@
+package net.projectsync.springboot.beanscopes.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log of completed transfers (ledger.wal.enabled=true), with group commit.
+ *
+ * 	[request threads] --append()--> [queue] --> [wal-writer thread] --write(batch)--> force() --> release the whole batch
+ *
+ * append() blocks until its record is on disk, but callers don't pay one fsync each: while the writer is in
+ * force() for one batch, the next callers queue up and are written and forced together. The busier the system,
+ * the larger the batches, so durable throughput is bounded by fsync latency * batch size, not by fsync latency.
+ *
+ * Segments are named by the LSN (log sequence number) of their first record: wal-00000000000000000001.log, ...
+ * 	record: [int length][long lsn][short fromLength][from UTF-8][short toLength][to UTF-8][long amount][int crc32c]
+ * length covers lsn..amount; the CRC detects a torn last record after a crash, which is truncated on reopen.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    static final String SEGMENT_PREFIX = "wal-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MAX_RECORD_BYTES = 4 + 8 + 2 + 256 + 2 + 256 + 8 + 4;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final int maxBatch;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private final ByteBuffer buffer; // owned by the writer thread
+    private final CRC32C crc = new CRC32C(); // owned by the writer thread
+    private final List<Pending> batch = new ArrayList<>(); // owned by the writer thread
+
+    private FileChannel segment;
+    private long nextLsn;
+    private final AtomicLong durableLsn = new AtomicLong();
+
+    private volatile boolean running = true;
+    private volatile boolean parked;
+
+    // metrics
+    private final LongAdder records = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private long secondStartNanos = System.nanoTime(); // writer thread
+    private int fsyncsThisSecond; // writer thread
+    private volatile int fsyncsLastSecond;
+
+    public WriteAheadLog(Path directory, long segmentSize, int maxBatch) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.buffer = ByteBuffer.allocateDirect(this.maxBatch * MAX_RECORD_BYTES);
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments(directory);
+            if (segments.isEmpty()) {
+                nextLsn = 1;
+                openSegment(nextLsn);
+            } else {
+                Path last = segments.get(segments.size() - 1);
+                long[] end = scanSegment(last, null); // {valid bytes, last lsn}
+                nextLsn = end[1] > 0 ? end[1] + 1 : firstLsnOf(last);
+                segment = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                segment.truncate(end[0]); // drop a torn record left by a crash
+                segment.position(end[0]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-ahead log in " + directory, e);
+        }
+        durableLsn.set(nextLsn - 1);
+        this.writer = new Thread(this::writeLoop, "wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Appends a transfer and returns its LSN once it is durable (forced to disk together with its batch).
+     * Account ids are limited to 256 UTF-8 bytes.
+     */
+    public long append(String fromAccount, String toAccount, long amount) {
+        if (!running) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+        // encoded on the caller's thread, the writer only copies bytes
+        byte[] from = fromAccount.getBytes(StandardCharsets.UTF_8);
+        byte[] to = toAccount.getBytes(StandardCharsets.UTF_8);
+        if (from.length > 256 || to.length > 256) {
+            throw new IllegalArgumentException("Account id longer than 256 bytes");
+        }
+        Pending pending = new Pending(from, to, amount);
+        queue.offer(pending);
+        if (parked) {
+            LockSupport.unpark(writer);
+        }
+        try {
+            long lsn = pending.done.join();
+            long waited = System.nanoTime() - pending.enqueuedNanos;
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            return lsn;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public long getDurableLsn() {
+        return durableLsn.get();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Map<String, Object> stats() {
+        long batchCount = batches.sum();
+        long recordCount = records.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("durableLsn", durableLsn.get());
+        stats.put("records", recordCount);
+        stats.put("batches", batchCount); // = fsyncs
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) recordCount / batchCount);
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("maxWaitMicros", TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()));
+        stats.put("fsyncsPerSecond", fsyncsLastSecond);
+        stats.put("queueDepth", queue.size());
+        return stats;
+    }
+
+    // Stops accepting records, writes and forces what is queued
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+            segment.close();
+            // appended while closing, after the writer's last look at the queue
+            Pending late;
+            while ((late = queue.poll()) != null) {
+                late.done.completeExceptionally(new IllegalStateException("Write-ahead log is closed"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            Pending pending;
+            while (batch.size() < maxBatch && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (batch.isEmpty()) {
+                rollSecond();
+                parked = true;
+                if (running && queue.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+                continue;
+            }
+            commit();
+            batch.clear();
+        }
+    }
+
+    // One write() per buffer-full and exactly one force() for the whole batch
+    private void commit() {
+        long firstLsn = nextLsn;
+        long startPosition = -1;
+        try {
+            if (segment.position() >= segmentSize) {
+                segment.force(false);
+                segment.close();
+                openSegment(firstLsn);
+            }
+            startPosition = segment.position();
+            buffer.clear();
+            for (Pending pending : batch) {
+                pending.lsn = nextLsn++;
+                encode(pending);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            segment.force(false); // fdatasync: skips metadata that isn't needed to read the data back
+        } catch (IOException | RuntimeException e) {
+            nextLsn = firstLsn;
+            discardPartialWrite(startPosition);
+            RuntimeException failure = e instanceof IOException io ? new UncheckedIOException("Write-ahead log write failed", io) : (RuntimeException) e;
+            for (Pending pending : batch) {
+                pending.done.completeExceptionally(failure);
+            }
+            return;
+        }
+        durableLsn.set(nextLsn - 1);
+        records.add(batch.size());
+        batches.increment();
+        maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+        countFsync();
+        for (Pending pending : batch) {
+            pending.done.complete(pending.lsn);
+        }
+    }
+
+    // Later batches must not land behind a half-written one: the reader stops at the first bad record
+    private void discardPartialWrite(long startPosition) {
+        if (startPosition < 0) {
+            return;
+        }
+        try {
+            segment.truncate(startPosition);
+            segment.position(startPosition);
+        } catch (IOException ignored) {
+            // the disk is gone; the next batch fails the same way
+        }
+    }
+
+    private void encode(Pending pending) {
+        byte[] from = pending.fromAccount;
+        byte[] to = pending.toAccount;
+        int start = buffer.position();
+        int length = 8 + 2 + from.length + 2 + to.length + 8;
+        buffer.putInt(length);
+        buffer.putLong(pending.lsn);
+        buffer.putShort((short) from.length).put(from);
+        buffer.putShort((short) to.length).put(to);
+        buffer.putLong(pending.amount);
+        crc.reset();
+        crc.update(buffer.duplicate().position(start + 4).limit(start + 4 + length));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private void countFsync() {
+        fsyncsThisSecond++;
+        rollSecond();
+    }
+
+    private void rollSecond() {
+        long now = System.nanoTime();
+        if (now - secondStartNanos >= TimeUnit.SECONDS.toNanos(1)) {
+            fsyncsLastSecond = fsyncsThisSecond;
+            fsyncsThisSecond = 0;
+            secondStartNanos = now;
+        }
+    }
+
+    private void openSegment(long firstLsn) throws IOException {
+        segment = FileChannel.open(segmentPath(directory, firstLsn),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.position(segment.size());
+    }
+
+    /**
+     * Reads the valid records of one segment in order and passes them to visitor (may be null).
+     * Stops at the end of the file or at the first torn / corrupt record.
+     * Returns {number of valid bytes, LSN of the last valid record or 0}.
+     */
+    public static long[] scanSegment(Path file, Consumer<WalRecord> visitor) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32C checksum = new CRC32C();
+        long lastLsn = 0;
+        while (data.remaining() >= 4) {
+            int start = data.position();
+            int length = data.getInt();
+            if (length < 20 || length > MAX_RECORD_BYTES || data.remaining() < length + 4) {
+                data.position(start);
+                break;
+            }
+            int crcAt = start + 4 + length;
+            checksum.reset();
+            checksum.update(data.duplicate().limit(crcAt));
+            // CRC first, then parse inside [lsn..amount] only: a corrupt record must not be read as one
+            WalRecord record = data.getInt(crcAt) == (int) checksum.getValue() ? parseRecord(data.slice(start + 4, length)) : null;
+            if (record == null) {
+                data.position(start);
+                break;
+            }
+            data.position(crcAt + 4);
+            lastLsn = record.lsn();
+            if (visitor != null) {
+                visitor.accept(record);
+            }
+        }
+        return new long[] { data.position(), lastLsn };
+    }
+
+    public static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    public static long firstLsnOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static Path segmentPath(Path directory, long firstLsn) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+    }
+
+    // null if the string lengths do not add up to the record's length
+    private static WalRecord parseRecord(ByteBuffer record) {
+        long lsn = record.getLong();
+        String from = readString(record);
+        String to = from != null ? readString(record) : null;
+        if (to == null || record.remaining() != Long.BYTES) {
+            return null;
+        }
+        return new WalRecord(lsn, from, to, record.getLong());
+    }
+
+    // null if the stored length runs past the end of the record
+    private static String readString(ByteBuffer data) {
+        if (data.remaining() < Short.BYTES) {
+            return null;
+        }
+        int length = Short.toUnsignedInt(data.getShort());
+        if (length > data.remaining()) {
+            return null;
+        }
+        String value = new String(data.array(), data.arrayOffset() + data.position(), length, StandardCharsets.UTF_8);
+        data.position(data.position() + length);
+        return value;
+    }
+
+    // One transfer read back from the log
+    public record WalRecord(long lsn, String fromAccount, String toAccount, long amount) {
+    }
+
+    private static final class Pending {
+
+        final byte[] fromAccount;
+        final byte[] toAccount;
+        final long amount;
+        final long enqueuedNanos = System.nanoTime();
+        final CompletableFuture<Long> done = new CompletableFuture<>();
+        long lsn; // assigned by the writer thread
+
+        Pending(byte[] fromAccount, byte[] toAccount, long amount) {
+            this.fromAccount = fromAccount;
+            this.toAccount = toAccount;
+            this.amount = amount;
+        }
+    }
+}
@@ -1,13 +1,288 @@
 package net.projectsync.springboot.beanscopes.model;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.projectsync.springboot.beanscopes.audit.AsyncAuditDispatcher;
+import net.projectsync.springboot.beanscopes.audit.AuditJournal;
+import net.projectsync.springboot.beanscopes.audit.AuditLevel;
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+import net.projectsync.springboot.beanscopes.audit.OverflowPolicy;
+
+/**
+ * Two styles of API:
+ * 	- log("...")                              → message already built by the caller
+ * 	- log(level, "x: {} from {}", 1.5, "ACC1") → level checked first, then formatted lazily into a reused
+ * 	                                             thread-local buffer; primitive overloads avoid boxing, so
+ * 	                                             the call allocates nothing (and does nothing when disabled)
+ */
 @Component
 @Scope("singleton") // default, but explicit for clarity
 public class AuditLogger {
 
+    private static final String PLACEHOLDER = "{}";
+    private static final int MAX_RETAINED_BUFFER = 4096;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    @Autowired
+    private AuditSink auditSink;
+
+    // records below this level are skipped (DEBUG | INFO | OFF)
+    @Value("${audit.level:DEBUG}")
+    private AuditLevel threshold;
+
+    // sync mode (default): log() writes to the sink on the calling thread
+    // async mode: log() only enqueues, a single drain thread writes batches to the sink
+    @Value("${audit.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${audit.async.capacity:8192}")
+    private int asyncCapacity;
+
+    @Value("${audit.async.batch-size:256}")
+    private int asyncBatchSize;
+
+    @Value("${audit.async.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    // Bounds on what an open Batch may hold back from the sink, whichever comes first
+    @Value("${audit.batch.max-records:1024}")
+    private int batchMaxRecords;
+
+    @Value("${audit.batch.max-delay:100ms}")
+    private Duration batchMaxDelay;
+
+    private AsyncAuditDispatcher dispatcher;
+
+    // > 0 while a Batch is open: sync-mode writes are buffered by the sink and flushed when the last batch closes,
+    // or earlier at batchMaxRecords records or the next batchFlusher tick, so overlapping batches (from any request)
+    // cannot hold records back longer than that
+    private final AtomicInteger openBatches = new AtomicInteger();
+
+    // guarded by auditSink
+    private int unflushed;
+
+    // sync mode only: every batchMaxDelay, flushes what open batches are holding back, even if nothing is logged
+    private ScheduledExecutorService batchFlusher;
+
+    @PostConstruct
+    void start() {
+        if (asyncEnabled) {
+            dispatcher = new AsyncAuditDispatcher(auditSink, asyncCapacity, overflowPolicy, asyncBatchSize);
+            return;
+        }
+        long delayNanos = batchMaxDelay.toNanos();
+        if (delayNanos <= 0) {
+            throw new IllegalArgumentException("audit.batch.max-delay must be positive: " + batchMaxDelay);
+        }
+        batchFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "audit-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchFlusher.scheduleWithFixedDelay(this::flushHeldBack, delayNanos, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isEnabled(AuditLevel level) {
+        return level.isEnabledFor(threshold);
+    }
+
     public void log(String message) {
-        System.out.println("AUDIT: " + message);
+        if (isEnabled(AuditLevel.INFO)) {
+            emit(message);
+        }
+    }
+
+    public void log(AuditLevel level, String pattern, long arg) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        StringBuilder buffer = BUFFER.get();
+        int from = appendUntilPlaceholder(buffer, pattern, 0);
+        buffer.append(arg);
+        finish(buffer, pattern, from);
+    }
+
+    public void log(AuditLevel level, String pattern, double arg) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        StringBuilder buffer = BUFFER.get();
+        int from = appendUntilPlaceholder(buffer, pattern, 0);
+        buffer.append(arg);
+        finish(buffer, pattern, from);
+    }
+
+    public void log(AuditLevel level, String pattern, Object arg) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        StringBuilder buffer = BUFFER.get();
+        int from = appendUntilPlaceholder(buffer, pattern, 0);
+        buffer.append(arg);
+        finish(buffer, pattern, from);
+    }
+
+    public void log(AuditLevel level, String pattern, Object arg0, Object arg1) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        StringBuilder buffer = BUFFER.get();
+        int from = appendUntilPlaceholder(buffer, pattern, 0);
+        buffer.append(arg0);
+        from = appendUntilPlaceholder(buffer, pattern, from);
+        buffer.append(arg1);
+        finish(buffer, pattern, from);
+    }
+
+    // e.g. "Processing transaction: {} from {} to {}", amount, fromAccount, toAccount
+    public void log(AuditLevel level, String pattern, double arg0, Object arg1, Object arg2) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        StringBuilder buffer = BUFFER.get();
+        int from = appendUntilPlaceholder(buffer, pattern, 0);
+        buffer.append(arg0);
+        from = appendUntilPlaceholder(buffer, pattern, from);
+        buffer.append(arg1);
+        from = appendUntilPlaceholder(buffer, pattern, from);
+        buffer.append(arg2);
+        finish(buffer, pattern, from);
+    }
+
+    // Appends the literal text up to the next "{}" and returns the index just after it
+    private static int appendUntilPlaceholder(StringBuilder buffer, String pattern, int from) {
+        int at = pattern.indexOf(PLACEHOLDER, from);
+        if (at < 0) {
+            buffer.append(pattern, from, pattern.length()).append(' '); // more args than placeholders
+            return pattern.length();
+        }
+        buffer.append(pattern, from, at);
+        return at + PLACEHOLDER.length();
+    }
+
+    private void finish(StringBuilder buffer, String pattern, int from) {
+        buffer.append(pattern, from, pattern.length());
+        try {
+            emit(buffer);
+        } finally {
+            buffer.setLength(0);
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove(); // don't pin one oversized message per thread
+            }
+        }
+    }
+
+    // The sink / ring buffer copies the CharSequence, so the caller may reuse it right after
+    private void emit(CharSequence message) {
+        AsyncAuditDispatcher async = dispatcher;
+        if (async != null) {
+            async.publish(message);
+            return;
+        }
+        synchronized (auditSink) {
+            auditSink.write(message);
+            if (openBatches.get() == 0 || ++unflushed >= batchMaxRecords) {
+                flushSink();
+            }
+        }
+    }
+
+    // caller holds the auditSink lock
+    private void flushSink() {
+        auditSink.flush();
+        unflushed = 0;
+    }
+
+    // batchFlusher tick; an exception would cancel the schedule, so it is reported instead
+    private void flushHeldBack() {
+        try {
+            synchronized (auditSink) {
+                if (unflushed > 0) {
+                    flushSink();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Audit batch flush failed: " + e);
+        }
+    }
+
+    /**
+     * One sink flush for a whole unit of work instead of one per record:
+     * 	try (AuditLogger.Batch batch = auditLogger.beginBatch()) { ... thousands of log() calls, any thread ... }
+     * Only affects sync mode; in async mode the drain thread already flushes once per drained batch.
+     * While any batch is open, records are still flushed every audit.batch.max-records records, and a timer flushes
+     * every audit.batch.max-delay whether or not anything else is logged, so no record waits longer than that.
+     * Batches are not per thread: one open batch defers flushes for every writer, within the same bounds.
+     */
+    public Batch beginBatch() {
+        openBatches.incrementAndGet();
+        return new Batch();
+    }
+
+    public final class Batch implements AutoCloseable {
+
+        private boolean closed;
+
+        private Batch() {
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            synchronized (auditSink) {
+                if (openBatches.decrementAndGet() == 0) {
+                    flushSink();
+                }
+            }
+        }
+    }
+
+    // Drains queued records before the sink is closed
+    @PreDestroy
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+        if (batchFlusher != null) {
+            batchFlusher.shutdownNow();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        AsyncAuditDispatcher async = dispatcher;
+        stats.put("mode", async != null ? "async" : "sync");
+        stats.put("level", threshold);
+        stats.put("sink", auditSink.getClass().getSimpleName());
+        if (auditSink instanceof AuditJournal journal) {
+            stats.put("truncated", journal.getTruncatedCount());
+        }
+        if (async != null) {
+            stats.put("capacity", async.getCapacity());
+            stats.put("overflowPolicy", async.getOverflowPolicy());
+            stats.put("queueDepth", async.getQueueDepth());
+            stats.put("published", async.getPublishedCount());
+            stats.put("written", async.getWrittenCount());
+            stats.put("dropped", async.getDroppedCount());
+            stats.put("batches", async.getBatchCount());
+        }
+        return stats;
     }
 }
@@ -4,9 +4,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import net.projectsync.springboot.beanscopes.audit.AuditLevel;
+import net.projectsync.springboot.beanscopes.scope.Poolable;
+import net.projectsync.springboot.beanscopes.scope.PooledScope;
+import net.projectsync.springboot.common.scope.CompiledPrototype;
+
+// "pooled" behaves like "prototype" unless scope.pooled.enabled=true, then instances are recycled (see PooledScope)
+// @CompiledPrototype: a new instance (every one with pooling off, a pool miss with it on) is a constructor call
+// and one field write, see CompiledPrototypeProcessor
 @Component
-@Scope("prototype")
-public class PrototypeScope {
+@Scope(PooledScope.NAME)
+@CompiledPrototype
+public class PrototypeScope extends Poolable {
 
     // Spring creates a new Transaction each time (prototype).
     // Inside that Transaction, Spring wires in the same singleton AuditLogger.
@@ -14,6 +23,12 @@ public class PrototypeScope {
     private AuditLogger auditLogger; // singleton injected inside prototype
 
     public void process(String fromAccount, String toAccount, double amount) {
-        auditLogger.log("Processing transaction: " + amount + " from " + fromAccount + " to " + toAccount);
+        // parameterized: no string concatenation or double boxing on the hot path
+        auditLogger.log(AuditLevel.INFO, "Processing transaction: {} from {} to {}", amount, fromAccount, toAccount);
+    }
+
+    @Override
+    public void reset() {
+        // no per-transaction state to clear
     }
 }
@@ -4,23 +4,38 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
 
+import net.projectsync.springboot.common.id.IdFormat;
+import net.projectsync.springboot.common.id.IdGenerator;
+
 /**
  * proxyMode = ScopedProxyMode.TARGET_CLASS
  * Meaning: “This bean is request-scoped, but if it’s injected into a bean with a longer lifecycle (like a singleton), inject a proxy instead of the real bean.”
  * 
  * Spring creates a new instance of RequestTracker for each HTTP request.
- * Every instance has its own requestUUID because below line is executed once per bean instance, i.e., once per HTTP request.
- * 	 private final String requestUUID = java.util.UUID.randomUUID().toString();
- *   This line executes once per bean instance, i.e., once per HTTP request.
+ * Every instance has its own requestId because the constructor runs once per bean instance, i.e., once per HTTP request.
+ * 	 this.requestId = idGenerator.nextId();
+ *   The id is a primitive long (no SecureRandom, no String); it is rendered only when getRequestUUID() is called.
  */
 @Component
 @Scope(value = "request", proxyMode = ScopedProxyMode.TARGET_CLASS)
 public class RequestScope {
 
-    private final String requestUUID = java.util.UUID.randomUUID().toString();
+    private final long requestId;
+    private final long requestIdLowBits; // lower half of a UUID, 0 for the other formats
+    private final IdFormat idFormat;
+
+    public RequestScope(IdGenerator idGenerator) {
+        this.requestId = idGenerator.nextId();
+        this.requestIdLowBits = idGenerator.nextLowBits();
+        this.idFormat = idGenerator.format();
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
 
     public String getRequestUUID() {
-        return requestUUID;
+        return idFormat.render(requestId, requestIdLowBits);
     }
 
     public int getRealHashCode() {
@@ -1,20 +1,46 @@
 package net.projectsync.springboot.beanscopes.model;
 
+import java.io.Serializable;
+
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PreDestroy;
+import net.projectsync.springboot.common.id.IdFormat;
+import net.projectsync.springboot.common.id.IdGenerator;
+
 @Component
 @Scope(value = "session", proxyMode = ScopedProxyMode.TARGET_CLASS)
-public class SessionScope {
+public class SessionScope implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
-    private final String sessionUUID = java.util.UUID.randomUUID().toString();
+    private final long sessionId;
+    private final long sessionIdLowBits; // lower half of a UUID, 0 for the other formats
+    private final IdFormat idFormat;
+
+    public SessionScope(IdGenerator idGenerator) {
+        this.sessionId = idGenerator.nextId();
+        this.sessionIdLowBits = idGenerator.nextLowBits();
+        this.idFormat = idGenerator.format();
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
 
     public String getSessionUUID() {
-        return sessionUUID;
+        return idFormat.render(sessionId, sessionIdLowBits);
+    }
+
+    // Runs when the session ends: invalidated, or expired (with session.store=offheap from the session-expiry thread)
+    @PreDestroy
+    public void destroy() {
+        System.out.println("SessionScope destroyed: " + getSessionUUID());
     }
 
     public int getRealHashCode() {
     	return System.identityHashCode(this);
     }
-}
\ No newline at end of file
+}
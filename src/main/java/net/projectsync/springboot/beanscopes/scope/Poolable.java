@@ -0,0 +1,35 @@
+package net.projectsync.springboot.beanscopes.scope;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Base class for beans in the "pooled" scope: reset() is called when an instance is returned, before it can be handed
+// out again. Clear any per-use state there; injected singletons stay as they are.
+// The checked-out flag lives in the instance itself, so PooledScope tracks checkouts without allocating per get().
+public abstract class Poolable {
+
+    private static final VarHandle CHECKED_OUT;
+
+    static {
+        try {
+            CHECKED_OUT = MethodHandles.lookup().findVarHandle(Poolable.class, "checkedOut", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // accessed through CHECKED_OUT
+    private volatile boolean checkedOut;
+
+    public abstract void reset();
+
+    // false if already checked out
+    final boolean checkOut() {
+        return CHECKED_OUT.compareAndSet(this, false, true);
+    }
+
+    // false if not checked out: released twice, or never handed out as a tracked instance
+    final boolean checkIn() {
+        return CHECKED_OUT.compareAndSet(this, true, false);
+    }
+}
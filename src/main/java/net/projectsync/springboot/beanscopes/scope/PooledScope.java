@@ -0,0 +1,254 @@
+package net.projectsync.springboot.beanscopes.scope;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Custom "pooled" scope: like prototype (a caller gets an instance nobody else is using), but instances are
+ * recycled instead of going through full bean creation (reflection, @Autowired injection, post-processors)
+ * on every ObjectFactory.getObject().
+ *
+ * 	@Component
+ * 	@Scope(PooledScope.NAME)
+ * 	public class PrototypeScope extends Poolable { ... }
+ *
+ * 	PrototypeScope bean = prototypeFactory.getObject();   // from the pool (hit) or freshly created (miss)
+ * 	try { bean.process(...); } finally { pooledScope.release(bean); }   // reset() and back into the pool
+ *
+ * Only Poolable instances currently handed out by get() are taken back: releasing one twice, or releasing an instance
+ * this scope never handed out, is ignored and counted (invalidReleases) instead of putting it into the pool twice.
+ * The checked-out flag is a field of Poolable, so tracking costs no allocation per get(). Instances handed out while
+ * the singletons are being created are not tracked (injected): they end up in @Autowired fields and are never
+ * released, so they would keep checkedOut above 0 forever. Beans that are not Poolable behave like prototype.
+ *
+ * Pools are striped (one small stack per stripe, stripe picked by thread id), so threads rarely contend.
+ * With scope.pooled.enabled=false (default) the scope behaves exactly like prototype and release() is a no-op.
+ *
+ * Registers itself with the bean factory (BeanFactoryPostProcessor), so @Scope("pooled") needs no extra config.
+ */
+@Component
+public class PooledScope implements Scope, BeanFactoryPostProcessor, SmartInitializingSingleton, EnvironmentAware {
+
+    public static final String NAME = "pooled";
+
+    private boolean enabled;
+    private int maxPerStripe;
+    private int prewarmPerStripe;
+    private int stripeMask;
+
+    private final Map<String, Stripe[]> pools = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> beanNamesByType = new ConcurrentHashMap<>();
+    // false while the singletons are created: instances handed out then are injected into fields, not released
+    private volatile boolean tracking;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder creations = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder invalidReleases = new LongAdder();
+    private final LongAdder injected = new LongAdder();
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicInteger checkedOut = new AtomicInteger();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        // BeanFactoryPostProcessors are created before @Value processing, so read the Environment directly
+        this.enabled = environment.getProperty("scope.pooled.enabled", Boolean.class, false);
+        this.maxPerStripe = environment.getProperty("scope.pooled.max-per-stripe", Integer.class, 16);
+        this.prewarmPerStripe = Math.min(maxPerStripe, environment.getProperty("scope.pooled.prewarm-per-stripe", Integer.class, 0));
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.stripeMask = stripes - 1;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        beanFactory.registerScope(NAME, this);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        tracking = true;
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        if (!enabled) {
+            return create(name, objectFactory);
+        }
+        Stripe stripe = pool(name, objectFactory)[stripeIndex()];
+        Object bean = stripe.pop();
+        if (bean != null) {
+            idle.decrementAndGet();
+            hits.increment();
+        } else {
+            misses.increment();
+            bean = create(name, objectFactory);
+        }
+        if (!(bean instanceof Poolable poolable)) {
+            return bean;
+        }
+        if (!tracking) {
+            injected.increment();
+        } else if (poolable.checkOut()) {
+            checkedOut.incrementAndGet();
+        }
+        return bean;
+    }
+
+    // Returns an instance obtained from this scope. Must not be used by the caller afterwards.
+    // Every get() must be paired with exactly one release(): an instance that is never released stays tracked.
+    public void release(Object bean) {
+        if (!enabled || !(bean instanceof Poolable poolable)) {
+            return;
+        }
+        if (!poolable.checkIn()) {
+            invalidReleases.increment(); // released twice, never handed out by get(), or injected
+            return;
+        }
+        checkedOut.decrementAndGet();
+        String name = beanNamesByType.get(bean.getClass());
+        Stripe[] stripes = name != null ? pools.get(name) : null;
+        if (stripes == null) {
+            return; // not one of ours
+        }
+        poolable.reset();
+        releases.increment();
+        if (stripes[stripeIndex()].push(bean)) {
+            idle.incrementAndGet();
+        } else {
+            discarded.increment(); // stripe full: let the GC take it
+        }
+    }
+
+    @Override
+    public Object remove(String name) {
+        Stripe[] stripes = pools.remove(name);
+        if (stripes != null) {
+            for (Stripe stripe : stripes) {
+                idle.addAndGet(-stripe.clear());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        // like prototype: pooled instances are not destroyed by the container
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return null;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("stripes", stripeMask + 1);
+        stats.put("maxPerStripe", maxPerStripe);
+        stats.put("idle", idle.get());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("creations", creations.sum());
+        stats.put("releases", releases.sum());
+        stats.put("discarded", discarded.sum());
+        stats.put("checkedOut", checkedOut.get());
+        stats.put("invalidReleases", invalidReleases.sum());
+        stats.put("injected", injected.sum());
+        return stats;
+    }
+
+    private Object create(String name, ObjectFactory<?> objectFactory) {
+        Object bean = objectFactory.getObject(); // full bean creation, same as prototype
+        creations.increment();
+        beanNamesByType.putIfAbsent(bean.getClass(), name);
+        return bean;
+    }
+
+    // First use of a bean name builds its stripes and pre-builds prewarmPerStripe instances in each
+    private Stripe[] pool(String name, ObjectFactory<?> objectFactory) {
+        Stripe[] stripes = pools.get(name);
+        if (stripes != null) {
+            return stripes;
+        }
+        // built outside computeIfAbsent: creating a bean may resolve other pooled beans
+        Stripe[] created = new Stripe[stripeMask + 1];
+        int prewarmed = 0;
+        for (int i = 0; i < created.length; i++) {
+            created[i] = new Stripe(maxPerStripe);
+            for (int j = 0; j < prewarmPerStripe; j++) {
+                Object bean = create(name, objectFactory);
+                if (!(bean instanceof Poolable)) {
+                    break; // never pooled, see release()
+                }
+                created[i].push(bean);
+                prewarmed++;
+            }
+        }
+        stripes = pools.putIfAbsent(name, created);
+        if (stripes != null) {
+            return stripes; // another thread won the race, drop our pre-built instances
+        }
+        idle.addAndGet(prewarmed);
+        return created;
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & stripeMask;
+    }
+
+    // Bounded LIFO stack; LIFO keeps recently used (cache-warm) instances in circulation
+    private static final class Stripe {
+
+        private final Object[] items;
+        private int size;
+
+        Stripe(int capacity) {
+            this.items = new Object[capacity];
+        }
+
+        synchronized Object pop() {
+            if (size == 0) {
+                return null;
+            }
+            Object bean = items[--size];
+            items[size] = null;
+            return bean;
+        }
+
+        synchronized boolean push(Object bean) {
+            if (size == items.length) {
+                return false;
+            }
+            items[size++] = bean;
+            return true;
+        }
+
+        synchronized int clear() {
+            int cleared = size;
+            while (size > 0) {
+                items[--size] = null;
+            }
+            return cleared;
+        }
+    }
+}
@@ -4,10 +4,15 @@ import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import net.projectsync.springboot.beanscopes.audit.AuditLevel;
+import net.projectsync.springboot.beanscopes.ledger.Ledger;
+import net.projectsync.springboot.beanscopes.ledger.WriteAheadLog;
 import net.projectsync.springboot.beanscopes.model.AuditLogger;
 import net.projectsync.springboot.beanscopes.model.PrototypeScope;
 import net.projectsync.springboot.beanscopes.model.RequestScope;
 import net.projectsync.springboot.beanscopes.model.SessionScope;
+import net.projectsync.springboot.beanscopes.scope.PooledScope;
+import net.projectsync.springboot.common.scope.ScopedHandle;
 
 @Service
 public class PaymentService {
@@ -26,6 +31,18 @@ public class PaymentService {
     @Autowired
     private ObjectFactory<PrototypeScope> prototypeFactory;
 
+    // PrototypeScope is in the "pooled" scope: instances obtained from prototypeFactory go back here after use
+    @Autowired
+    private PooledScope pooledScope;
+
+    // Balances (long minor units); the transfer actually moves money here
+    @Autowired
+    private Ledger ledger;
+
+    // Only present with ledger.wal.enabled=true: transfer() returns once the transfer is on disk (group commit)
+    @Autowired(required = false)
+    private WriteAheadLog writeAheadLog;
+
     // Request-scoped bean (proxy injected)
     // RequestTracker is stable only for the lifetime of a single request, then swapped out.
     @Autowired
@@ -36,19 +53,44 @@ public class PaymentService {
     @Autowired
     private SessionScope sessionScope;
 
+    // Proxy-free alternative (see ScopedHandle): get() resolves the real bean once per request,
+    // after that calls go straight to the bean instead of proxy → RequestContextHolder → scope lookup each time
+    @Autowired
+    private ScopedHandle<RequestScope> requestScopeHandle;
+
+    @Autowired
+    private ScopedHandle<SessionScope> sessionScopeHandle;
+
     public void transfer(String fromAcc, String toAcc, double amount) {
 
-        System.out.println();
         PrototypeScope prototypeScope = prototypeFactory.getObject();
-        auditLogger.log("Singleton Bean hash code: " + auditLogger.hashCode());
-        auditLogger.log("Prototype Bean hash code: " + prototypeScope.hashCode());
-        prototypeScope.process(fromAcc, toAcc, amount);
+        try {
+            auditLogger.log(AuditLevel.DEBUG, "Singleton Bean hash code: {}", auditLogger.hashCode());
+            auditLogger.log(AuditLevel.DEBUG, "Prototype Bean hash code: {}", prototypeScope.hashCode());
+            long minorUnits = Ledger.toMinorUnits(amount);
+            ledger.transfer(fromAcc, toAcc, minorUnits);
+            if (writeAheadLog != null) {
+                try {
+                    writeAheadLog.append(fromAcc, toAcc, minorUnits); // only successful transfers are logged
+                } catch (RuntimeException e) {
+                    // not on disk, so it must not stay in the balances either: after a crash the log is the truth
+                    ledger.reverse(fromAcc, toAcc, minorUnits);
+                    throw e;
+                }
+            }
+            prototypeScope.process(fromAcc, toAcc, amount); // audited once the money has actually moved
+        } catch (RuntimeException e) {
+            // e.g. InsufficientFundsException with ledger.enforce-funds=true, or a failed write-ahead log append
+            auditLogger.log(AuditLevel.INFO, "Transaction failed: {} from {} to {}", amount, fromAcc, toAcc);
+            throw e;
+        } finally {
+            pooledScope.release(prototypeScope);
+        }
 
         /* Output:
         AUDIT: Singleton Bean hash code: 760925533
         AUDIT: Prototype Bean hash code: 991305095
         AUDIT: Processing transaction: 1000.0 from ACC1 to ACC2
-
         AUDIT: Singleton Bean hash code: 760925533
         AUDIT: Prototype Bean hash code: 1792308514
         AUDIT: Processing transaction: 2000.0 from ACC3 to ACC4
@@ -58,11 +100,12 @@ public class PaymentService {
     public String getRequestUUID() {
 
         System.out.println();
-        auditLogger.log("Request bean proxy hashCode: " + requestScope.hashCode());
-        auditLogger.log("Request bean real hashCode: "  + requestScope.getRealHashCode()); // Instead of logging hashCode() on the proxy, log something from inside the bean itself to “see” the real bean hashcode
+        RequestScope currentRequestScope = requestScopeHandle.get(); // real bean of this request, no proxy
+        auditLogger.log(AuditLevel.DEBUG, "Request bean proxy hashCode: {}", requestScope.hashCode());
+        auditLogger.log(AuditLevel.DEBUG, "Request bean real hashCode: {}", currentRequestScope.getRealHashCode()); // Instead of logging hashCode() on the proxy, log something from inside the bean itself to “see” the real bean hashcode
         
-        String requestUUID = requestScope.getRequestUUID();
-        auditLogger.log("Request UUID: " + requestUUID);
+        String requestUUID = currentRequestScope.getRequestUUID();
+        auditLogger.log(AuditLevel.INFO, "Request UUID: {}", requestUUID);
         return requestUUID;
 
         /*
@@ -80,11 +123,12 @@ public class PaymentService {
     public String getSessionUUID() {
 
         System.out.println();
-        auditLogger.log("Session bean proxy hashCode: " + sessionScope.hashCode());
-        auditLogger.log("Session bean real hashCode : " + sessionScope.getRealHashCode());
+        SessionScope currentSessionScope = sessionScopeHandle.get(); // real bean of this session, no proxy
+        auditLogger.log(AuditLevel.DEBUG, "Session bean proxy hashCode: {}", sessionScope.hashCode());
+        auditLogger.log(AuditLevel.DEBUG, "Session bean real hashCode : {}", currentSessionScope.getRealHashCode());
         
-        String sessionUUID = sessionScope.getSessionUUID();
-        auditLogger.log("Session UUID: " + sessionUUID);
+        String sessionUUID = currentSessionScope.getSessionUUID();
+        auditLogger.log(AuditLevel.INFO, "Session UUID: {}", sessionUUID);
         return sessionUUID;
 
         /*
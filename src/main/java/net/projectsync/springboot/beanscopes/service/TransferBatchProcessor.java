@@ -0,0 +1,325 @@
+package net.projectsync.springboot.beanscopes.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.projectsync.springboot.beanscopes.dto.BatchTransferResponse;
+import net.projectsync.springboot.beanscopes.dto.TransferRequest;
+import net.projectsync.springboot.beanscopes.dto.TransferResult;
+import net.projectsync.springboot.beanscopes.model.AuditLogger;
+
+/**
+ * Runs a batch of transfers in parallel:
+ *
+ * 	1. validate    - invalid items are REJECTED and never executed
+ * 	2. partition   - transfers that share an account (directly or through a chain) end up in the same partition,
+ * 	                 so no two threads ever touch the same account and each account sees its transfers in input order
+ * 	3. execute     - partitions are split across a dedicated ForkJoinPool (not the common pool, which parallel streams share)
+ * 	4. collect     - every result goes into its input index, so the response is in request order without sorting
+ *
+ * The whole batch runs inside one AuditLogger.Batch, i.e. one audit flush instead of one per transfer.
+ *
+ * processStream() is the incremental variant for inputs too large to hold in memory (NDJSON, one transfer per line):
+ * at most transfers.stream.window transfers are in flight; reading stops until the oldest one is written back,
+ * so memory stays bounded no matter how many lines the input has.
+ */
+@Service
+public class TransferBatchProcessor {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private AuditLogger auditLogger;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 0 = one worker per core
+    @Value("${transfers.batch.parallelism:0}")
+    private int parallelism;
+
+    @Value("${transfers.batch.max-size:10000}")
+    private int maxSize;
+
+    @Value("${transfers.stream.window:1024}")
+    private int window;
+
+    // Longest an AuditLogger.Batch stays open in processStream(), however long the upload takes
+    @Value("${transfers.stream.audit-batch-max-duration:100ms}")
+    private Duration auditBatchMaxDuration;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void start() {
+        if (window < 1) {
+            // processStream() waits for the oldest transfer once window are in flight: with 0 there is none to wait for
+            throw new IllegalArgumentException("transfers.stream.window must be at least 1: " + window);
+        }
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdown();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public BatchTransferResponse process(List<TransferRequest> transfers) {
+        TransferResult[] results = new TransferResult[transfers.size()];
+
+        // 1. validate
+        int[] valid = new int[transfers.size()];
+        int validCount = 0;
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            String reason = transfer == null ? "transfer is required" : transfer.validate();
+            if (reason != null) {
+                results[i] = TransferResult.rejected(i, reason);
+            } else {
+                valid[validCount++] = i;
+            }
+        }
+
+        // 2. partition, 3. execute
+        if (validCount > 0) {
+            List<int[]> partitions = partition(transfers, Arrays.copyOf(valid, validCount));
+            try (AuditLogger.Batch batch = auditLogger.beginBatch()) {
+                pool.invoke(new ExecutePartitions(transfers, partitions, 0, partitions.size(), results));
+            }
+        }
+
+        // 4. collect
+        return BatchTransferResponse.of(Arrays.asList(results));
+    }
+
+    /**
+     * Reads NDJSON transfers from in and writes one NDJSON TransferResult per line to out, in input order,
+     * while later lines are still being read and executed. Blank lines are skipped; unparsable lines are REJECTED.
+     * Transfers sharing an account are chained, so each account still sees its transfers in input order.
+     */
+    public int processStream(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ArrayDeque<Pending> inFlight = new ArrayDeque<>(window);
+        // account -> last in-flight transfer touching it; the next transfer on that account runs after it
+        Map<String, CompletableFuture<TransferResult>> lastByAccount = new HashMap<>();
+
+        int index = 0;
+        int sinceFlush = 0;
+        // one audit flush per window, not per transfer. Closed whenever the next read would wait for the client,
+        // and after auditBatchMaxDuration: an open batch defers sync audit flushes for every other request too
+        AuditLogger.Batch batch = null;
+        long batchOpenedNanos = 0;
+        try {
+            String line;
+            while (true) {
+                if (batch != null && (!reader.ready() || System.nanoTime() - batchOpenedNanos >= auditBatchMaxDuration.toNanos())) {
+                    batch.close();
+                    batch = null;
+                }
+                if ((line = reader.readLine()) == null) {
+                    break;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (batch == null) {
+                    batch = auditLogger.beginBatch();
+                    batchOpenedNanos = System.nanoTime();
+                }
+                // backpressure: don't read further until the oldest in-flight transfer is done and written
+                if (inFlight.size() >= window) {
+                    write(out, inFlight.poll(), lastByAccount);
+                }
+                inFlight.add(submit(index++, line, lastByAccount));
+
+                // stream back whatever is already done at the head, without waiting
+                while (!inFlight.isEmpty() && inFlight.peek().result().isDone()) {
+                    write(out, inFlight.poll(), lastByAccount);
+                }
+                if (++sinceFlush == window) {
+                    out.flush();
+                    batch.close();
+                    batch = null;
+                    sinceFlush = 0;
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                write(out, inFlight.poll(), lastByAccount);
+            }
+            out.flush();
+        } finally {
+            // on a client disconnect the submitted transfers still finish, only their results are lost
+            for (Pending pending : inFlight) {
+                pending.result().join();
+            }
+            if (batch != null) {
+                batch.close();
+            }
+        }
+        return index;
+    }
+
+    private Pending submit(int index, String line, Map<String, CompletableFuture<TransferResult>> lastByAccount) {
+        TransferRequest transfer;
+        String reason;
+        try {
+            transfer = objectMapper.readValue(line, TransferRequest.class);
+            reason = transfer == null ? "transfer is required" : transfer.validate();
+        } catch (JsonProcessingException e) {
+            transfer = null;
+            reason = "malformed transfer: " + e.getOriginalMessage();
+        }
+        if (reason != null) {
+            return new Pending(CompletableFuture.completedFuture(TransferResult.rejected(index, reason)), null, null);
+        }
+
+        TransferRequest valid = transfer;
+        CompletableFuture<TransferResult> previousFrom = lastByAccount.get(valid.fromAccount());
+        CompletableFuture<TransferResult> previousTo = lastByAccount.get(valid.toAccount());
+        CompletableFuture<?> after = previousFrom == null ? previousTo
+                : previousTo == null || previousTo == previousFrom ? previousFrom
+                : CompletableFuture.allOf(previousFrom, previousTo);
+        CompletableFuture<TransferResult> result = after == null
+                ? CompletableFuture.supplyAsync(() -> execute(index, valid), pool)
+                : after.thenApplyAsync(ignored -> execute(index, valid), pool);
+
+        lastByAccount.put(valid.fromAccount(), result);
+        lastByAccount.put(valid.toAccount(), result);
+        return new Pending(result, valid.fromAccount(), valid.toAccount());
+    }
+
+    private void write(OutputStream out, Pending pending, Map<String, CompletableFuture<TransferResult>> lastByAccount)
+            throws IOException {
+        TransferResult result = pending.result().join();
+        // forget accounts whose last in-flight transfer this was, so the map stays window-sized
+        if (pending.fromAccount() != null) {
+            lastByAccount.remove(pending.fromAccount(), pending.result());
+            lastByAccount.remove(pending.toAccount(), pending.result());
+        }
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    // One in-flight stream transfer; accounts are null for rejected lines
+    private record Pending(CompletableFuture<TransferResult> result, String fromAccount, String toAccount) {
+    }
+
+    private TransferResult execute(int index, TransferRequest transfer) {
+        try {
+            paymentService.transfer(transfer.fromAccount(), transfer.toAccount(), transfer.amount());
+            return TransferResult.completed(index);
+        } catch (RuntimeException e) {
+            return TransferResult.failed(index, e.getMessage());
+        }
+    }
+
+    // Union-find over account names: two transfers are connected when they share an account.
+    // Returns the indexes of each connected group, in input order within the group.
+    static List<int[]> partition(List<TransferRequest> transfers, int[] indexes) {
+        Map<String, Integer> accountIds = new HashMap<>();
+        int[] parent = new int[indexes.length * 2];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        int[] fromIds = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            TransferRequest transfer = transfers.get(indexes[i]);
+            int from = accountIds.computeIfAbsent(transfer.fromAccount(), k -> accountIds.size());
+            int to = accountIds.computeIfAbsent(transfer.toAccount(), k -> accountIds.size());
+            union(parent, from, to);
+            fromIds[i] = from;
+        }
+
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        List<List<Integer>> ordered = new ArrayList<>();
+        for (int i = 0; i < indexes.length; i++) {
+            List<Integer> group = groups.computeIfAbsent(find(parent, fromIds[i]), k -> {
+                List<Integer> created = new ArrayList<>();
+                ordered.add(created);
+                return created;
+            });
+            group.add(indexes[i]);
+        }
+
+        List<int[]> partitions = new ArrayList<>(ordered.size());
+        for (List<Integer> group : ordered) {
+            partitions.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return partitions;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]]; // path halving
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    // Splits the partition list in halves until a slice holds at most one partition
+    private final class ExecutePartitions extends RecursiveAction {
+
+        private final List<TransferRequest> transfers;
+        private final List<int[]> partitions;
+        private final int from;
+        private final int to;
+        private final TransferResult[] results;
+
+        ExecutePartitions(List<TransferRequest> transfers, List<int[]> partitions, int from, int to, TransferResult[] results) {
+            this.transfers = transfers;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ExecutePartitions(transfers, partitions, from, mid, results),
+                        new ExecutePartitions(transfers, partitions, mid, to, results));
+                return;
+            }
+            for (int index : partitions.get(from)) {
+                results[index] = execute(index, transfers.get(index));
+            }
+        }
+    }
+}
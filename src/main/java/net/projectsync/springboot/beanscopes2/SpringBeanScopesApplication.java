@@ -2,8 +2,14 @@ package net.projectsync.springboot.beanscopes2;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+import net.projectsync.springboot.common.scope.CompiledPrototypeConfig;
+import net.projectsync.springboot.common.session.OffHeapSessionConfig;
+import net.projectsync.springboot.common.web.BinaryMessageConvertersConfig;
 
 @SpringBootApplication
+@Import({ OffHeapSessionConfig.class, BinaryMessageConvertersConfig.class, CompiledPrototypeConfig.class })
 public class SpringBeanScopesApplication {
 
 	public static void main(String[] args) {
@@ -1,27 +1,53 @@
 package net.projectsync.springboot.beanscopes2.config;
 
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 
 import net.projectsync.springboot.beanscopes2.service.NotificationService;
+import net.projectsync.springboot.common.id.IdGenerator;
+import net.projectsync.springboot.common.id.IdGeneratorConfig;
+import net.projectsync.springboot.common.scope.CompiledPrototype;
+import net.projectsync.springboot.common.scope.CompiledPrototypeProcessor;
+import net.projectsync.springboot.common.scope.ScopedHandle;
 
-@Configuration
+// proxyBeanMethods = false: no @Bean method calls another one, and CompiledPrototypeProcessor calls
+// notificationPrototype() itself, which the CGLIB proxy would turn back into a getBean()
+@Configuration(proxyBeanMethods = false)
+@Import(IdGeneratorConfig.class)
 public class NotificationConfig {
 
+	// Shared, non-blocking id source for every NotificationService instance (see ids.generator)
+	@Autowired
+	private IdGenerator idGenerator;
+
 	// One instance per Spring ApplicationContext (default).
 	@Bean
 	@Scope("singleton")
 	public NotificationService notificationSingleton() {
-		return new NotificationService("singleton");
+		return new NotificationService("singleton", idGenerator);
 	}
 
 	// New instance every time it’s requested from the context.
+	// @CompiledPrototype: each one is a direct call of this method (see CompiledPrototypeProcessor)
 	@Bean
 	@Scope("prototype")
+	@CompiledPrototype
 	public NotificationService notificationPrototype() {
-		return new NotificationService("prototype");
+		return new NotificationService("prototype", idGenerator);
+	}
+
+	// Instances of notificationPrototype straight from its generated factory, without the by-type lookup
+	// ObjectProvider.getObject() does on every call
+	@Bean
+	public Supplier<NotificationService> notificationPrototypeSupplier(CompiledPrototypeProcessor compiledPrototypeProcessor) {
+		return compiledPrototypeProcessor.supplier("notificationPrototype", NotificationService.class);
 	}
 
 	/*
@@ -58,14 +84,14 @@ public class NotificationConfig {
 	@Bean
 	@Scope(value = "request", proxyMode = ScopedProxyMode.TARGET_CLASS)
 	public NotificationService notificationRequest() {
-		return new NotificationService("request");
+		return new NotificationService("request", idGenerator);
 	}
 
 	// One instance per HTTP session (web-aware scope).
 	@Bean
 	@Scope(value = "session", proxyMode = ScopedProxyMode.TARGET_CLASS)
 	public NotificationService notificationSession() {
-		return new NotificationService("session");
+		return new NotificationService("session", idGenerator);
 	}
 	
 	// One instance per ServletContext (i.e., per web application), shared across all sessions and requests
@@ -74,8 +100,25 @@ public class NotificationConfig {
 	@Bean
 	@Scope(value = "application", proxyMode = ScopedProxyMode.TARGET_CLASS)
 	public NotificationService notificationApplication() {
-	    return new NotificationService("application");
+	    return new NotificationService("application", idGenerator);
 	}	
+
+	// Proxy-free handles to the three web-scoped beans above (see ScopedHandle).
+	// handle.get() resolves the real bean once per HTTP request; the CGLIB proxies still exist for classic injection.
+	@Bean
+	public ScopedHandle<NotificationService> notificationRequestHandle(BeanFactory beanFactory) {
+		return ScopedHandle.of(beanFactory, "notificationRequest", NotificationService.class);
+	}
+
+	@Bean
+	public ScopedHandle<NotificationService> notificationSessionHandle(BeanFactory beanFactory) {
+		return ScopedHandle.of(beanFactory, "notificationSession", NotificationService.class);
+	}
+
+	@Bean
+	public ScopedHandle<NotificationService> notificationApplicationHandle(BeanFactory beanFactory) {
+		return ScopedHandle.of(beanFactory, "notificationApplication", NotificationService.class);
+	}
 }
 
 /** Prototype vs Request:
@@ -1,11 +1,14 @@
 package net.projectsync.springboot.beanscopes2.controller;
 
-import java.util.Map;
+import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.projectsync.springboot.beanscopes2.dto.ScopeResponse;
 import net.projectsync.springboot.beanscopes2.service.BeanScopeService;
 
 @RestController
@@ -14,29 +17,31 @@ public class BeanScopeController {
 	@Autowired
 	private BeanScopeService beanScopeService;
 
+	// Pre-serialized bytes with a strong ETag: 304 when the client already has them (see PreSerializedResponse)
+	// Also per media type: Accept: application/cbor or application/x-jackson-smile get their own bytes and ETag
 	@GetMapping("/singleton")
-	public Map<String, Object> singletonScope() {
-		return beanScopeService.singletonScope();
+	public void singletonScope(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		beanScopeService.singletonResponse().writeTo(request, response);
 	}
 
 	@GetMapping("/prototype")
-	public Map<String, Object> prototypeScope() {
+	public ScopeResponse prototypeScope() {
 		return beanScopeService.prototypeScope();
 	}
 
 	@GetMapping("/request")
-	public Map<String, Object> requestScope() {
+	public ScopeResponse requestScope() {
 		return beanScopeService.requestScope();
 	}
 
 	@GetMapping("/session")
-	public Map<String, Object> sessionScope() {
+	public ScopeResponse sessionScope() {
 		return beanScopeService.sessionScope();
 	}
 	
 	@GetMapping("/application")
-	public Map<String, Object> applicationScope() {
-		return beanScopeService.applicationScope();
+	public void applicationScope(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		beanScopeService.applicationResponse().writeTo(request, response);
 	}
 }
 
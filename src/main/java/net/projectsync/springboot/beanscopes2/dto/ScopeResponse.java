@@ -0,0 +1,12 @@
+package net.projectsync.springboot.beanscopes2.dto;
+
+import net.projectsync.springboot.beanscopes2.service.NotificationService;
+
+// Body of the scope endpoints, as JSON, CBOR or Smile depending on the Accept header
+public record ScopeResponse(String scope, String uuid, int hashcode) {
+
+	public static ScopeResponse of(NotificationService notificationService) {
+		return new ScopeResponse(notificationService.getScopeName(), notificationService.getUUID(),
+				notificationService.getRealHashCode());
+	}
+}
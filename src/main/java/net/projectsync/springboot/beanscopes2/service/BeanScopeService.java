@@ -1,12 +1,19 @@
 package net.projectsync.springboot.beanscopes2.service;
 
-import java.util.Map;
+import java.util.List;
+import java.util.function.Supplier;
 
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.stereotype.Service;
 
+import net.projectsync.springboot.beanscopes2.dto.ScopeResponse;
+import net.projectsync.springboot.common.scope.ScopedHandle;
+import net.projectsync.springboot.common.web.PreSerializedResponse;
+
 @Service
 public class BeanScopeService {
 
@@ -14,55 +21,75 @@ public class BeanScopeService {
 	@Qualifier("notificationSingleton")
 	private NotificationService notificationSingleton;
 
+	// notificationPrototype (@CompiledPrototype) through its generated factory, see NotificationConfig
+	@Autowired
+	@Qualifier("notificationPrototypeSupplier")
+	private Supplier<NotificationService> notificationPrototypeSupplier;
+
+	// Request/session/application beans through ScopedHandle instead of the CGLIB proxies:
+	// one scope lookup per HTTP request, then the three getters below are plain calls on the real bean
+	@Autowired
+	@Qualifier("notificationRequestHandle")
+	private ScopedHandle<NotificationService> notificationRequestHandle;
+
+	@Autowired
+	@Qualifier("notificationSessionHandle")
+	private ScopedHandle<NotificationService> notificationSessionHandle;
+
 	@Autowired
-	@Qualifier("notificationPrototype")
-	private ObjectProvider<NotificationService> notificationPrototypeProvider;
+	@Qualifier("notificationApplicationHandle")
+	private ScopedHandle<NotificationService> notificationApplicationHandle;
 
+	// JSON first: the default when the Accept header does not ask for CBOR or Smile
 	@Autowired
-	@Qualifier("notificationRequest")
-	private NotificationService notificationRequest;
+	private MappingJackson2HttpMessageConverter jsonConverter;
 
 	@Autowired
-	@Qualifier("notificationSession")
-	private NotificationService notificationSession;
+	private MappingJackson2CborHttpMessageConverter cborConverter;
 
 	@Autowired
-	@Qualifier("notificationApplication")
-	private NotificationService notificationApplication;
-	
-	public Map<String, Object> singletonScope() {
-		return Map.of(
-				"scope", notificationSingleton.getScopeName(),
-				"uuid", notificationSingleton.getUUID(), 
-				"hashcode", notificationSingleton.getRealHashCode());
+	private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+	// The singleton and application beans never change for the life of the context: each media type is serialized
+	// on first use, then reused. A race only builds the response twice, with equal bytes.
+	private volatile PreSerializedResponse singletonResponse;
+	private volatile PreSerializedResponse applicationResponse;
+
+	public PreSerializedResponse singletonResponse() {
+		PreSerializedResponse response = singletonResponse;
+		if (response == null) {
+			response = new PreSerializedResponse(singletonScope(), List.of(jsonConverter, cborConverter, smileConverter));
+			singletonResponse = response;
+		}
+		return response;
+	}
+
+	public PreSerializedResponse applicationResponse() {
+		PreSerializedResponse response = applicationResponse;
+		if (response == null) {
+			response = new PreSerializedResponse(applicationScope(), List.of(jsonConverter, cborConverter, smileConverter));
+			applicationResponse = response;
+		}
+		return response;
+	}
+
+	public ScopeResponse singletonScope() {
+		return ScopeResponse.of(notificationSingleton);
 	}
 
-	public Map<String, Object> prototypeScope() {
-		NotificationService notificationPrototype = notificationPrototypeProvider.getObject();
-		return Map.of(
-				"scope", notificationPrototype.getScopeName(),
-				"uuid", notificationPrototype.getUUID(), 
-				"hashcode", notificationPrototype.getRealHashCode());
+	public ScopeResponse prototypeScope() {
+		return ScopeResponse.of(notificationPrototypeSupplier.get());
 	}
 
-	public Map<String, Object> requestScope() {
-		return Map.of(
-				"scope", notificationRequest.getScopeName(),
-				"uuid", notificationRequest.getUUID(), 
-				"hashcode", notificationRequest.getRealHashCode());
+	public ScopeResponse requestScope() {
+		return ScopeResponse.of(notificationRequestHandle.get());
 	}
 
-	public Map<String, Object> sessionScope() {
-		return Map.of(
-				"scope", notificationSession.getScopeName(),
-				"uuid", notificationSession.getUUID(), 
-				"hashcode", notificationSession.getRealHashCode());
+	public ScopeResponse sessionScope() {
+		return ScopeResponse.of(notificationSessionHandle.get());
 	}
 
-	public Map<String, Object> applicationScope() {
-		return Map.of(
-				"scope", notificationApplication.getScopeName(),
-				"uuid", notificationApplication.getUUID(), 
-				"hashcode", notificationApplication.getRealHashCode());
+	public ScopeResponse applicationScope() {
+		return ScopeResponse.of(notificationApplicationHandle.get());
 	}
 }
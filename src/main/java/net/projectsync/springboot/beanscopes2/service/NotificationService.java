@@ -1,19 +1,34 @@
 package net.projectsync.springboot.beanscopes2.service;
 
-import java.util.UUID;
+import java.io.Serializable;
 
-public class NotificationService {
+import net.projectsync.springboot.common.id.IdFormat;
+import net.projectsync.springboot.common.id.IdGenerator;
+
+// Serializable: the session-scoped instance is stored with its HttpSession (see OffHeapSessionRepository)
+public class NotificationService implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private final String scopeName;
-	private final String uuid;
+	private final long id;
+	private final long idLowBits; // lower half of a UUID, 0 for the other formats
+	private final IdFormat idFormat;
 
-	public NotificationService(String scopeName) {
+	public NotificationService(String scopeName, IdGenerator idGenerator) {
 		this.scopeName = scopeName;
-		this.uuid = UUID.randomUUID().toString(); // unique per instance
+		this.id = idGenerator.nextId(); // unique per instance, kept as a primitive
+		this.idLowBits = idGenerator.nextLowBits();
+		this.idFormat = idGenerator.format();
+	}
+
+	public long getId() {
+		return id;
 	}
 
+	// rendered on demand, e.g. 0190a1b2-c3d4-7e5f-8a6b-1c2d3e4f5a6b with the default uuidv7 generator
 	public String getUUID() {
-		return uuid;
+		return idFormat.render(id, idLowBits);
 	}
 
 	public String getScopeName() {
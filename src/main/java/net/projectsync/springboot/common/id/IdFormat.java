@@ -0,0 +1,59 @@
+package net.projectsync.springboot.common.id;
+
+/**
+ * How a primitive id is turned into text. Ids are kept as a long in the beans and only rendered
+ * when someone actually reads them (e.g. getRequestUUID() in a response).
+ */
+public enum IdFormat {
+
+	// 16 lower-case hex digits, e.g. 3f9a0c2e7b15d4a8
+	HEX {
+		@Override
+		public StringBuilder appendTo(StringBuilder sb, long id, long lowBits) {
+			appendHex(sb, id, 16);
+			return sb;
+		}
+	},
+
+	// Plain decimal, e.g. 7198237403345657856 (Snowflake ids are positive)
+	DECIMAL {
+		@Override
+		public StringBuilder appendTo(StringBuilder sb, long id, long lowBits) {
+			return sb.append(id);
+		}
+	},
+
+	// Canonical 8-4-4-4-12 UUID. id is the time-ordered upper half of a UUIDv7, lowBits the random lower half
+	// (see UuidV7IdGenerator).
+	UUID {
+		@Override
+		public StringBuilder appendTo(StringBuilder sb, long id, long lowBits) {
+			appendHex(sb, id >>> 32, 8);
+			sb.append('-');
+			appendHex(sb, id >>> 16, 4);
+			sb.append('-');
+			appendHex(sb, id, 4);
+			sb.append('-');
+			appendHex(sb, lowBits >>> 48, 4);
+			sb.append('-');
+			appendHex(sb, lowBits, 12);
+			return sb;
+		}
+	};
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	// lowBits: the id's lower 64 bits, only used by UUID (IdGenerator.nextLowBits())
+	public abstract StringBuilder appendTo(StringBuilder sb, long id, long lowBits);
+
+	public String render(long id, long lowBits) {
+		return appendTo(new StringBuilder(36), id, lowBits).toString();
+	}
+
+	// Appends the lowest 'digits' nibbles of value, most significant first
+	private static void appendHex(StringBuilder sb, long value, int digits) {
+		for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+			sb.append(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+		}
+	}
+}
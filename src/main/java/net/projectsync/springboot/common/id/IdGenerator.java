@@ -0,0 +1,25 @@
+package net.projectsync.springboot.common.id;
+
+/**
+ * Source of instance ids for scoped beans (RequestScope, SessionScope, NotificationService).
+ *
+ * Replaces UUID.randomUUID().toString(), which goes through one shared SecureRandom and allocates a
+ * 36-char String per bean. Ids are primitive longs (two for UUIDs: nextId() and nextLowBits()); render them
+ * with {@link #format()} only when needed.
+ * Implementations must be thread-safe and must not block.
+ */
+public interface IdGenerator {
+
+	long nextId();
+
+	// The lower 64 bits of formats wider than one long (IdFormat.UUID), drawn per id next to nextId(); 0 otherwise
+	default long nextLowBits() {
+		return 0L;
+	}
+
+	IdFormat format();
+
+	default String render(long id, long lowBits) {
+		return format().render(id, lowBits);
+	}
+}
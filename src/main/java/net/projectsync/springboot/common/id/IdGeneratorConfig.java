@@ -0,0 +1,23 @@
+package net.projectsync.springboot.common.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Shared by both demo applications via @Import(IdGeneratorConfig.class)
+@Configuration
+public class IdGeneratorConfig {
+
+	// ids.generator: uuidv7 (default, renders like the old UUIDs) | random | snowflake
+	@Bean
+	public IdGenerator idGenerator(
+			@Value("${ids.generator:uuidv7}") String type,
+			@Value("${ids.node-id:0}") long nodeId) {
+		return switch (type) {
+			case "uuidv7" -> new UuidV7IdGenerator();
+			case "random" -> new ThreadLocalRandomIdGenerator();
+			case "snowflake" -> new SnowflakeIdGenerator(nodeId);
+			default -> throw new IllegalArgumentException("Unknown ids.generator: " + type + " (uuidv7 | random | snowflake)");
+		};
+	}
+}
@@ -0,0 +1,49 @@
+package net.projectsync.springboot.common.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Twitter Snowflake-style 64-bit ids:
+ * 	[1 bit 0][41 bits millis since EPOCH][10 bits node id][12 bits sequence]
+ * Unique across up to 1024 nodes as long as each node has its own node id (ids.node-id).
+ * 4096 ids per millisecond per node; beyond that the sequence borrows from the next millisecond.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+	// 2024-01-01T00:00:00Z, gives 41 bits of millis ~69 years of headroom
+	static final long EPOCH = 1704067200000L;
+	static final int NODE_BITS = 10;
+	static final int SEQUENCE_BITS = 12;
+	static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+	private final long nodeBits;
+
+	// (millis since epoch << 12) | sequence of the last issued id
+	private final AtomicLong last = new AtomicLong();
+
+	public SnowflakeIdGenerator(long nodeId) {
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+		}
+		this.nodeBits = nodeId << SEQUENCE_BITS;
+	}
+
+	@Override
+	public long nextId() {
+		long now = System.currentTimeMillis() - EPOCH;
+		long prev;
+		long next;
+		do {
+			prev = last.get();
+			next = now > (prev >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : prev + 1;
+		} while (!last.compareAndSet(prev, next));
+		long millis = next >>> SEQUENCE_BITS;
+		long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+		return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+	}
+
+	@Override
+	public IdFormat format() {
+		return IdFormat.DECIMAL;
+	}
+}
@@ -0,0 +1,18 @@
+package net.projectsync.springboot.common.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// 64 random bits from the calling thread's own generator: no shared state, no contention.
+// Not cryptographically secure and not time-ordered; collisions become likely only after ~2^32 ids.
+public class ThreadLocalRandomIdGenerator implements IdGenerator {
+
+	@Override
+	public long nextId() {
+		return ThreadLocalRandom.current().nextLong();
+	}
+
+	@Override
+	public IdFormat format() {
+		return IdFormat.HEX;
+	}
+}
@@ -0,0 +1,52 @@
+package net.projectsync.springboot.common.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered ids in UUIDv7 layout (RFC 9562), kept in two longs.
+ *
+ * nextId() is the UUID's most significant half:
+ * 	[48 bits unix millis][4 bits version = 7][12 bits rand_a used as a monotonic counter]
+ * The counter starts at a random value each millisecond and is incremented with a CAS (lock-free), so ids are
+ * strictly increasing within this JVM. nextLowBits() is the least significant half: variant bits 10 + 62 random
+ * bits (rand_b) from the calling thread's ThreadLocalRandom. Two instances issuing ids in the same millisecond
+ * collide only if all 62 random bits match as well, not just the counter.
+ */
+public class UuidV7IdGenerator implements IdGenerator {
+
+	private static final long VERSION_7 = 0x7L << 12;
+	private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+	private static final long VARIANT_RFC = 0x8000000000000000L;
+
+	// (millis << 12) | counter of the last issued id
+	private final AtomicLong last = new AtomicLong();
+
+	@Override
+	public long nextId() {
+		long now = System.currentTimeMillis();
+		long prev;
+		long next;
+		do {
+			prev = last.get();
+			if (now > (prev >>> 12)) {
+				next = (now << 12) | ThreadLocalRandom.current().nextInt(1 << 11); // leave room to count up
+			} else {
+				next = prev + 1; // same (or earlier) millisecond: count up, overflowing into the next milli
+			}
+		} while (!last.compareAndSet(prev, next));
+		long millis = next >>> 12;
+		long counter = next & 0xFFF;
+		return (millis << 16) | VERSION_7 | counter;
+	}
+
+	@Override
+	public IdFormat format() {
+		return IdFormat.UUID;
+	}
+
+	@Override
+	public long nextLowBits() {
+		return VARIANT_RFC | (ThreadLocalRandom.current().nextLong() & VARIANT_MASK);
+	}
+}
@@ -0,0 +1,25 @@
+package net.projectsync.springboot.common.scope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Creates instances of this prototype (or pooled, request, ... bean) with a factory generated at startup
+ * instead of the reflective bean creation path, see CompiledPrototypeProcessor. On a @Component class or a
+ * @Bean method; a @Bean method's @Configuration class needs proxyBeanMethods = false.
+ *
+ * Only for simple beans, checked when the factory is generated:
+ * 	- constructor or @Bean method parameters and @Autowired / @Value fields resolve to singletons
+ * 	  (or ObjectProvider / ObjectFactory), resolved once
+ * 	- no @Autowired methods, @Resource, @PostConstruct, InitializingBean, init method or Aware interfaces
+ * 	- outside the prototype scope: no @PreDestroy, DisposableBean, AutoCloseable or destroy method (the scope
+ * 	  would never get the destruction callback)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Documented
+public @interface CompiledPrototype {
+}
@@ -0,0 +1,15 @@
+package net.projectsync.springboot.common.scope;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Shared by both demo applications via @Import(CompiledPrototypeConfig.class); only @CompiledPrototype beans are affected
+@Configuration
+public class CompiledPrototypeConfig {
+
+	// static: a BeanPostProcessor, created before the beans it creates
+	@Bean
+	public static CompiledPrototypeProcessor compiledPrototypeProcessor() {
+		return new CompiledPrototypeProcessor();
+	}
+}
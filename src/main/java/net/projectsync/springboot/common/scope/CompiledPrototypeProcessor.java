@@ -0,0 +1,452 @@
+package net.projectsync.springboot.common.scope;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.Aware;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanFactory;
+import org.springframework.context.annotation.CommonAnnotationBeanPostProcessor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Creates @CompiledPrototype beans without the reflective bean creation path. Every
+ * ObjectFactory.getObject() / ObjectProvider.getObject() / getBean() of a prototype normally runs:
+ * 	constructor resolution → reflective newInstance → injection metadata → field.set per @Autowired field
+ * 	→ Aware callbacks → every processor's beforeInitialization → init methods → every processor's afterInitialization
+ * For a @CompiledPrototype bean, a factory is generated once at startup (afterSingletonsInstantiated):
+ * 	- a Supplier spun by LambdaMetafactory that calls the constructor or @Bean method directly, its singleton
+ * 	  arguments resolved once and captured
+ * 	- one bound MethodHandle per @Autowired / @Value field, value resolved once
+ * 	- the processors whose beforeInitialization has to run: not AutowiredAnnotationBeanPostProcessor /
+ * 	  CommonAnnotationBeanPostProcessor (their work is the factory's, or checked to be absent), not the ones
+ * 	  implementing SkipForCompiledPrototypes
+ * and this processor returns the factory's instance from postProcessBeforeInstantiation: the bean factory skips
+ * the rest, except afterInitialization of all processors (AOP proxies still apply). Scopes are untouched:
+ * a pooled or request bean is still created when its scope asks for one, only faster.
+ *
+ * PriorityOrdered: registered ahead of the other instantiation-aware processors. Declare it with a static
+ * @Bean method (see CompiledPrototypeConfig).
+ */
+public class CompiledPrototypeProcessor implements InstantiationAwareBeanPostProcessor, SmartInitializingSingleton,
+		BeanFactoryAware, PriorityOrdered {
+
+	private static final Object NOT_COMPILED = new Object();
+
+	private ConfigurableListableBeanFactory beanFactory;
+
+	// bean definition name → CompiledFactory, or NOT_COMPILED for every other bean definition created so far.
+	// Inner beans (generated names, one per instance) have no definition of their own and are not kept
+	private final Map<String, Object> factories = new ConcurrentHashMap<>();
+
+	// One generated factory
+	private static final class CompiledFactory {
+
+		final String beanName;
+		final Supplier<Object> instantiator;
+		final MethodHandle[] setters;
+		final BeanPostProcessor[] processors;
+		final LongAdder created = new LongAdder();
+
+		CompiledFactory(String beanName, Supplier<Object> instantiator, List<MethodHandle> setters, List<BeanPostProcessor> processors) {
+			this.beanName = beanName;
+			this.instantiator = instantiator;
+			this.setters = setters.toArray(MethodHandle[]::new);
+			this.processors = processors.toArray(BeanPostProcessor[]::new);
+		}
+
+		Object create() {
+			Object bean = instantiator.get();
+			try {
+				for (MethodHandle setter : setters) {
+					setter.invokeExact(bean);
+				}
+			} catch (Throwable e) {
+				throw new BeanCreationException(beanName, "Field injection failed", e);
+			}
+			for (BeanPostProcessor processor : processors) {
+				Object processed = processor.postProcessBeforeInitialization(bean, beanName);
+				if (processed == null) {
+					break; // as in the bean factory: null stops the chain, the bean so far is kept
+				}
+				bean = processed;
+			}
+			created.increment();
+			return bean;
+		}
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public int getOrder() {
+		return HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+		Object factory = factories.get(beanName);
+		if (factory == null) {
+			factory = factoryFor(beanName, beanClass);
+		}
+		return factory == NOT_COMPILED ? null : ((CompiledFactory) factory).create();
+	}
+
+	// Startup: generate every factory now, so that a bean which is not simple fails the startup
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+			if (!definition.isSingleton() && !definition.isAbstract() && !factories.containsKey(beanName)) {
+				factoryFor(beanName, beanFactory.getType(beanName, false));
+			}
+		}
+	}
+
+	/*
+	 * New instances of the compiled prototype beanName without going through the bean factory at all.
+	 * ObjectProvider.getObject() still resolves the bean by type on every call (candidate lookup, qualifiers),
+	 * which costs more than creating it; this Supplier is the generated factory plus afterInitialization of
+	 * every processor (AOP proxies, PrototypeLifecycleManager), close to a plain new:
+	 * 	@Bean
+	 * 	public Supplier<NotificationService> notificationPrototypeSupplier(CompiledPrototypeProcessor processor) {
+	 * 		return processor.supplier("notificationPrototype", NotificationService.class);
+	 * 	}
+	 * Only for the "prototype" scope: a pooled or request bean must come from its scope.
+	 */
+	public <T> Supplier<T> supplier(String beanName, Class<T> type) {
+		if (!beanFactory.isPrototype(beanName)
+				|| !BeanDefinition.SCOPE_PROTOTYPE.equals(beanFactory.getMergedBeanDefinition(beanName).getScope())) {
+			throw new IllegalArgumentException("Not a prototype bean: " + beanName);
+		}
+		Object factory = factories.get(beanName);
+		if (factory == null) {
+			factory = factoryFor(beanName, beanFactory.getType(beanName, false));
+		}
+		if (!(factory instanceof CompiledFactory compiled)) {
+			throw new IllegalArgumentException("Not a @CompiledPrototype bean: " + beanName);
+		}
+		BeanPostProcessor[] processors = beanFactory instanceof AbstractBeanFactory abstractBeanFactory
+				? abstractBeanFactory.getBeanPostProcessors().toArray(BeanPostProcessor[]::new)
+				: new BeanPostProcessor[0];
+		return () -> {
+			Object bean = compiled.create();
+			for (BeanPostProcessor processor : processors) {
+				Object processed = processor.postProcessAfterInitialization(bean, beanName);
+				if (processed == null) {
+					break;
+				}
+				bean = processed;
+			}
+			return type.cast(bean);
+		};
+	}
+
+	// Not in computeIfAbsent: resolving the dependencies may create other compiled prototypes
+	private Object factoryFor(String beanName, Class<?> beanClass) {
+		if (!beanFactory.containsBeanDefinition(beanName)) {
+			return NOT_COMPILED;
+		}
+		Object factory = compile(beanName, beanClass);
+		Object existing = factories.putIfAbsent(beanName, factory);
+		return existing != null ? existing : factory;
+	}
+
+	private Object compile(String beanName, Class<?> beanClass) {
+		if (!(beanFactory.getMergedBeanDefinition(beanName) instanceof AbstractBeanDefinition definition)
+				|| !isCompiledPrototype(beanFactory.getBeanDefinition(beanName), definition, beanClass)) {
+			return NOT_COMPILED;
+		}
+		if (definition.isSingleton()) {
+			throw new IllegalStateException("@CompiledPrototype on singleton bean '" + beanName + "': it is created once anyway");
+		}
+		List<String> problems = new ArrayList<>();
+		checkDefinition(definition, problems);
+		try {
+			Supplier<Object> instantiator;
+			Class<?> type;
+			if (definition.getFactoryMethodName() != null) {
+				Method factoryMethod = factoryMethod(definition, problems);
+				type = factoryMethod != null ? factoryMethod.getReturnType() : null;
+				instantiator = factoryMethod != null ? factoryMethodInstantiator(beanName, definition, factoryMethod, problems) : null;
+			} else {
+				type = beanClass;
+				instantiator = constructorInstantiator(beanName, beanClass, problems);
+			}
+			List<MethodHandle> setters = type != null ? fieldSetters(beanName, type, problems) : List.of();
+			if (type != null && !definition.isPrototype()) {
+				checkDestruction(definition, type, problems);
+			}
+			if (!problems.isEmpty()) {
+				throw new IllegalStateException("@CompiledPrototype bean '" + beanName + "' is not simple enough: " + String.join("; ", problems));
+			}
+			return new CompiledFactory(beanName, instantiator, setters, processors());
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("@CompiledPrototype bean '" + beanName + "': cannot generate its factory", e);
+		}
+	}
+
+	// On the @Bean method for factory-method beans, on the class otherwise
+	private static boolean isCompiledPrototype(BeanDefinition original, AbstractBeanDefinition definition, Class<?> beanClass) {
+		if (definition.getFactoryMethodName() != null) {
+			MethodMetadata factoryMethod = original instanceof AnnotatedBeanDefinition annotated ? annotated.getFactoryMethodMetadata() : null;
+			return factoryMethod != null && factoryMethod.isAnnotated(CompiledPrototype.class.getName());
+		}
+		return beanClass != null && AnnotatedElementUtils.hasAnnotation(beanClass, CompiledPrototype.class);
+	}
+
+	private static void checkDefinition(AbstractBeanDefinition definition, List<String> problems) {
+		if (definition.getInstanceSupplier() != null) {
+			problems.add("registered with an instance supplier");
+		}
+		if (definition.hasConstructorArgumentValues() || !definition.getPropertyValues().isEmpty()) {
+			problems.add("has explicit constructor arguments or property values");
+		}
+		if (definition.hasMethodOverrides()) {
+			problems.add("has @Lookup or replaced methods");
+		}
+		String[] initMethodNames = definition.getInitMethodNames();
+		if (initMethodNames != null) {
+			for (String initMethodName : initMethodNames) {
+				if (!initMethodName.isEmpty()) {
+					problems.add("has init method " + initMethodName + "()");
+				}
+			}
+		}
+	}
+
+	/*
+	 * The bean factory registers a scoped bean's destruction callback with its scope in doCreateBean, which a bean
+	 * returned from postProcessBeforeInstantiation never reaches: a pooled or request bean with something to
+	 * destroy would silently never be destroyed. (Prototypes are never destroyed by the container anyway, see
+	 * PrototypeLifecycleManager, which still sees compiled ones in afterInitialization.)
+	 */
+	private static void checkDestruction(AbstractBeanDefinition definition, Class<?> type, List<String> problems) {
+		if (DisposableBean.class.isAssignableFrom(type) || AutoCloseable.class.isAssignableFrom(type)) {
+			problems.add("implements DisposableBean or AutoCloseable in scope '" + definition.getScope() + "'");
+		}
+		ReflectionUtils.doWithMethods(type, method -> {
+			if (MergedAnnotations.from(method).isPresent("jakarta.annotation.PreDestroy")) {
+				problems.add("@PreDestroy method " + method.getName() + "() in scope '" + definition.getScope() + "'");
+			}
+		});
+		String[] destroyMethodNames = definition.getDestroyMethodNames();
+		if (destroyMethodNames != null) {
+			for (String destroyMethodName : destroyMethodNames) {
+				boolean inferred = AbstractBeanDefinition.INFER_METHOD.equals(destroyMethodName);
+				if (inferred ? ClassUtils.hasMethod(type, "close") || ClassUtils.hasMethod(type, "shutdown") : !destroyMethodName.isEmpty()) {
+					problems.add("has destroy method " + (inferred ? "(inferred close / shutdown)" : destroyMethodName + "()")
+							+ " in scope '" + definition.getScope() + "'");
+				}
+			}
+		}
+	}
+
+	private Supplier<Object> constructorInstantiator(String beanName, Class<?> beanClass, List<String> problems) throws ReflectiveOperationException {
+		Constructor<?> constructor = null;
+		for (Constructor<?> candidate : beanClass.getDeclaredConstructors()) {
+			if (MergedAnnotations.from(candidate).isPresent(Autowired.class)) {
+				constructor = candidate;
+			}
+		}
+		if (constructor == null) {
+			constructor = BeanUtils.getResolvableConstructor(beanClass);
+		}
+		Object[] arguments = arguments(beanName, constructor, problems);
+		MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup());
+		return supplier(lookup, lookup.unreflectConstructor(constructor), arguments);
+	}
+
+	private Supplier<Object> factoryMethodInstantiator(String beanName, AbstractBeanDefinition definition, Method factoryMethod,
+			List<String> problems) throws ReflectiveOperationException {
+		Object[] arguments = arguments(beanName, factoryMethod, problems);
+		MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(factoryMethod.getDeclaringClass(), MethodHandles.lookup());
+		MethodHandle target = lookup.unreflect(factoryMethod);
+		if (definition.getFactoryBeanName() == null) {
+			return supplier(lookup, target, arguments);
+		}
+		Object configuration = beanFactory.getBean(definition.getFactoryBeanName());
+		if (configuration.getClass().getName().contains(ClassUtils.CGLIB_CLASS_SEPARATOR)) {
+			// calling the @Bean method on the proxy would ask the bean factory for this very bean
+			problems.add("its @Configuration class needs proxyBeanMethods = false");
+			return null;
+		}
+		Object[] withReceiver = new Object[arguments.length + 1];
+		withReceiver[0] = configuration;
+		System.arraycopy(arguments, 0, withReceiver, 1, arguments.length);
+		return supplier(lookup, target, withReceiver);
+	}
+
+	// The one method named like the factory method: overloaded @Bean methods are left to the bean factory
+	private Method factoryMethod(AbstractBeanDefinition definition, List<String> problems) {
+		Class<?> factoryClass = definition.getFactoryBeanName() != null
+				? ClassUtils.getUserClass(beanFactory.getType(definition.getFactoryBeanName()))
+				: definition.getBeanClass();
+		List<Method> candidates = new ArrayList<>();
+		for (Method method : ReflectionUtils.getUniqueDeclaredMethods(factoryClass)) {
+			if (method.getName().equals(definition.getFactoryMethodName())
+					&& Modifier.isStatic(method.getModifiers()) == (definition.getFactoryBeanName() == null)) {
+				candidates.add(method);
+			}
+		}
+		if (candidates.size() != 1) {
+			problems.add(candidates.size() + " factory methods named " + definition.getFactoryMethodName() + "()");
+			return null;
+		}
+		return candidates.get(0);
+	}
+
+	private Object[] arguments(String beanName, Executable executable, List<String> problems) {
+		Object[] arguments = new Object[executable.getParameterCount()];
+		for (int i = 0; i < arguments.length; i++) {
+			arguments[i] = resolve(beanName, new DependencyDescriptor(MethodParameter.forExecutable(executable, i), true), problems);
+		}
+		return arguments;
+	}
+
+	private List<MethodHandle> fieldSetters(String beanName, Class<?> type, List<String> problems) throws ReflectiveOperationException {
+		List<MethodHandle> setters = new ArrayList<>();
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(current, MethodHandles.lookup());
+			for (Field field : current.getDeclaredFields()) {
+				MergedAnnotations annotations = MergedAnnotations.from(field);
+				if (annotations.isPresent("jakarta.annotation.Resource")) {
+					problems.add("@Resource field " + field.getName());
+				}
+				if (Modifier.isStatic(field.getModifiers())
+						|| !(annotations.isPresent(Autowired.class) || annotations.isPresent(Value.class) || annotations.isPresent("jakarta.inject.Inject"))) {
+					continue;
+				}
+				Autowired autowired = AnnotatedElementUtils.findMergedAnnotation(field, Autowired.class);
+				Object value = resolve(beanName, new DependencyDescriptor(field, autowired == null || autowired.required()), problems);
+				if (value != null) {
+					MethodHandle setter = MethodHandles.insertArguments(lookup.unreflectSetter(field), 1, value);
+					setters.add(setter.asType(MethodType.methodType(void.class, Object.class)));
+				}
+			}
+		}
+		if (Aware.class.isAssignableFrom(type) || InitializingBean.class.isAssignableFrom(type)) {
+			problems.add("implements Aware or InitializingBean");
+		}
+		ReflectionUtils.doWithMethods(type, method -> {
+			MergedAnnotations annotations = MergedAnnotations.from(method);
+			if (annotations.isPresent(Autowired.class) || annotations.isPresent("jakarta.inject.Inject")
+					|| annotations.isPresent("jakarta.annotation.Resource") || annotations.isPresent("jakarta.annotation.PostConstruct")) {
+				problems.add("injection or @PostConstruct method " + method.getName() + "()");
+			}
+		});
+		return setters;
+	}
+
+	// Resolved once for every instance, so only singletons will do (or a provider, which resolves on each call)
+	private Object resolve(String beanName, DependencyDescriptor descriptor, List<String> problems) {
+		Set<String> autowiredBeanNames = new LinkedHashSet<>();
+		Object value = beanFactory.resolveDependency(descriptor, beanName, autowiredBeanNames, null);
+		for (String autowiredBeanName : autowiredBeanNames) {
+			if (!beanFactory.isSingleton(autowiredBeanName)) {
+				problems.add(describe(descriptor) + " is the non-singleton bean '" + autowiredBeanName + "'");
+			} else {
+				beanFactory.registerDependentBean(autowiredBeanName, beanName);
+			}
+		}
+		return value;
+	}
+
+	private static String describe(DependencyDescriptor descriptor) {
+		return descriptor.getField() != null ? "field " + descriptor.getField().getName()
+				: "parameter " + descriptor.getMethodParameter().getParameterIndex() + " of " + descriptor.getMethodParameter().getExecutable().getName();
+	}
+
+	private List<BeanPostProcessor> processors() {
+		List<BeanPostProcessor> processors = new ArrayList<>();
+		if (beanFactory instanceof AbstractBeanFactory abstractBeanFactory) {
+			for (BeanPostProcessor processor : abstractBeanFactory.getBeanPostProcessors()) {
+				if (processor != this && !(processor instanceof SkipForCompiledPrototypes)
+						&& !(processor instanceof AutowiredAnnotationBeanPostProcessor) && !(processor instanceof CommonAnnotationBeanPostProcessor)) {
+					processors.add(processor);
+				}
+			}
+		}
+		return processors;
+	}
+
+	/*
+	 * A Supplier whose get() is target(captured...): LambdaMetafactory spins a class for it, as for a lambda
+	 * written in the bean's own class, so the JIT sees a plain constructor / method call. A lookup without
+	 * full access to the bean's class (another module) gets a bound MethodHandle instead.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Supplier<Object> supplier(MethodHandles.Lookup lookup, MethodHandle target, Object[] captured) {
+		try {
+			CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+					MethodType.methodType(Supplier.class, target.type().parameterArray()),
+					MethodType.methodType(Object.class), target, MethodType.methodType(target.type().returnType()));
+			return (Supplier<Object>) site.getTarget().invokeWithArguments(captured);
+		} catch (Throwable e) {
+			MethodHandle bound = MethodHandles.insertArguments(target, 0, captured).asType(MethodType.methodType(Object.class));
+			return () -> {
+				try {
+					return (Object) bound.invokeExact();
+				} catch (RuntimeException | Error ex) {
+					throw ex;
+				} catch (Throwable ex) {
+					throw new UndeclaredThrowableException(ex);
+				}
+			};
+		}
+	}
+
+	// Instances created per compiled bean
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new TreeMap<>();
+		factories.forEach((beanName, factory) -> {
+			if (factory instanceof CompiledFactory compiled) {
+				stats.put(beanName, compiled.created.sum());
+			}
+		});
+		return stats;
+	}
+}
@@ -0,0 +1,65 @@
+package net.projectsync.springboot.common.scope;
+
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Proxy-free access to a request/session/application scoped bean.
+ *
+ * With proxyMode = TARGET_CLASS every method call on the injected proxy goes through
+ * RequestContextHolder + Scope.get() (a request/session attribute lookup) before reaching the real bean:
+ * 	requestScope.getRequestUUID()   → proxy → scope lookup → real bean
+ * 	requestScope.getRealHashCode()  → proxy → scope lookup → real bean
+ *
+ * A handle resolves the real bean once per HTTP request and caches it for the rest of that request:
+ * 	RequestScope current = requestScopeHandle.get();   // first call in this request: scope lookup
+ * 	current.getRequestUUID();                          // plain method calls from here on
+ * 	requestScopeHandle.get();                          // same request: ThreadLocal read + identity check
+ *
+ * The cache is bound to the current RequestAttributes and cleared by a request destruction callback,
+ * so a target never leaks into the next request served by the same thread.
+ * Do not hand the returned object to other threads or keep it beyond the request.
+ */
+public class ScopedHandle<T> {
+
+	private final BeanFactory beanFactory;
+	private final String targetBeanName;
+	private final Class<T> type;
+	private final String destructionCallbackName;
+	private final ThreadLocal<Binding<T>> binding = new ThreadLocal<>();
+
+	ScopedHandle(BeanFactory beanFactory, String targetBeanName, Class<T> type) {
+		this.beanFactory = beanFactory;
+		this.targetBeanName = targetBeanName;
+		this.type = type;
+		this.destructionCallbackName = ScopedHandle.class.getName() + "." + targetBeanName;
+	}
+
+	// beanName is the name the bean is injected by; if it is a scoped proxy, the handle goes to the proxy's target
+	public static <T> ScopedHandle<T> of(BeanFactory beanFactory, String beanName, Class<T> type) {
+		String targetBeanName = ScopedProxyUtils.getTargetBeanName(beanName);
+		return new ScopedHandle<>(beanFactory, beanFactory.containsBean(targetBeanName) ? targetBeanName : beanName, type);
+	}
+
+	// The bean for the current request. Throws IllegalStateException outside of a request.
+	public T get() {
+		RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+		Binding<T> current = binding.get();
+		if (current != null && current.attributes == attributes) {
+			return current.target;
+		}
+		T target = beanFactory.getBean(targetBeanName, type);
+		binding.set(new Binding<>(attributes, target));
+		attributes.registerDestructionCallback(destructionCallbackName, binding::remove, RequestAttributes.SCOPE_REQUEST);
+		return target;
+	}
+
+	public String getTargetBeanName() {
+		return targetBeanName;
+	}
+
+	private record Binding<T>(RequestAttributes attributes, T target) {
+	}
+}
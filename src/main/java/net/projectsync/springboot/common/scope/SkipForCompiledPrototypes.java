@@ -0,0 +1,9 @@
+package net.projectsync.springboot.common.scope;
+
+/**
+ * Implemented by a BeanPostProcessor whose postProcessBeforeInitialization has nothing to do for
+ * @CompiledPrototype beans: their generated factories do not call it. postProcessAfterInitialization is
+ * still called, by the bean factory.
+ */
+public interface SkipForCompiledPrototypes {
+}
@@ -0,0 +1,86 @@
+package net.projectsync.springboot.common.session;
+
+import java.util.Collections;
+import java.util.Enumeration;
+
+import org.springframework.session.MapSession;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+
+/*
+ * The HttpSession handed to HttpSessionBindingListener.valueUnbound when OffHeapSessionRepository destroys a
+ * session outside of a request (expiry, eviction). A read-only view: the session is already gone from the store.
+ */
+final class DestroyedHttpSession implements HttpSession {
+
+	private final MapSession session;
+
+	DestroyedHttpSession(MapSession session) {
+		this.session = session;
+	}
+
+	MapSession getSession() {
+		return session;
+	}
+
+	@Override
+	public long getCreationTime() {
+		return session.getCreationTime().toEpochMilli();
+	}
+
+	@Override
+	public String getId() {
+		return session.getId();
+	}
+
+	@Override
+	public long getLastAccessedTime() {
+		return session.getLastAccessedTime().toEpochMilli();
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return null; // destroyed by the repository, not by a web application
+	}
+
+	@Override
+	public void setMaxInactiveInterval(int interval) {
+		throw new IllegalStateException("Session " + getId() + " has been destroyed");
+	}
+
+	@Override
+	public int getMaxInactiveInterval() {
+		return (int) session.getMaxInactiveInterval().getSeconds();
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return session.getAttribute(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(session.getAttributeNames());
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		throw new IllegalStateException("Session " + getId() + " has been destroyed");
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		session.removeAttribute(name);
+	}
+
+	@Override
+	public void invalidate() {
+		// already invalid
+	}
+
+	@Override
+	public boolean isNew() {
+		return false;
+	}
+}
@@ -0,0 +1,54 @@
+package net.projectsync.springboot.common.session;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+import org.springframework.util.unit.DataSize;
+
+/*
+ * session.store=offheap replaces the servlet container's HttpSession with OffHeapSessionRepository.
+ * @EnableSpringHttpSession registers the SessionRepositoryFilter: request.getSession(), and with it the
+ * session scope, then reads and writes sessions through the repository.
+ *
+ * Shared by both demo applications via @Import(OffHeapSessionConfig.class)
+ */
+@Configuration
+@ConditionalOnProperty(name = "session.store", havingValue = "offheap")
+@EnableSpringHttpSession
+public class OffHeapSessionConfig {
+
+	@Bean
+	public OffHeapSessionRepository sessionRepository(
+			@Value("${session.offheap.max-memory:64MB}") DataSize maxMemory,
+			@Value("${session.offheap.block-size:256B}") DataSize blockSize,
+			@Value("${session.offheap.max-session-size:64KB}") DataSize maxSessionSize,
+			@Value("${server.servlet.session.timeout:30m}") Duration timeout,
+			@Value("${session.offheap.expiry-tick:1s}") Duration expiryTick,
+			@Value("${session.offheap.snapshot-file:sessions/sessions.snap}") String snapshotFile) {
+		OffHeapSessionRepository repository = new OffHeapSessionRepository(maxMemory.toBytes(), (int) blockSize.toBytes(),
+				(int) maxSessionSize.toBytes(), timeout, expiryTick);
+		if (!snapshotFile.isBlank()) {
+			// sessions of the previous run: indexed now, deserialized on their first request
+			repository.setSnapshotFile(Path.of(snapshotFile));
+			System.out.println("Session restore: " + repository.restore());
+		}
+		repository.start(); // session-expiry thread, stopped by close() (which also writes the snapshot)
+		return repository;
+	}
+
+	// Same cookie as the container sessions (JSESSIONID, plain id), so /session still shows the cookie value
+	@Bean
+	public CookieSerializer cookieSerializer() {
+		DefaultCookieSerializer serializer = new DefaultCookieSerializer();
+		serializer.setCookieName("JSESSIONID");
+		serializer.setUseBase64Encoding(false);
+		return serializer;
+	}
+}
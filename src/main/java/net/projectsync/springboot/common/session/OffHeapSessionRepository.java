@@ -0,0 +1,483 @@
+package net.projectsync.springboot.common.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionBindingListener;
+import net.projectsync.springboot.common.session.SessionSnapshot.Record;
+import net.projectsync.springboot.common.session.SessionTimingWheel.Timer;
+
+/**
+ * Spring Session repository that keeps sessions serialized in a fixed-size off-heap arena (session.store=offheap).
+ *
+ * With the servlet container's sessions every HttpSession and its attributes (scopedTarget.sessionScope,
+ * scopedTarget.notificationSession, ...) stay on the heap as objects until they time out, so a traffic spike
+ * grows the heap with it. Here a session is a byte[] written into SessionArena blocks at the end of each request
+ * and deserialized when the next request finds it:
+ *  - hard cap: the arena is allocated once (session.offheap.max-memory) and never grows
+ *  - eviction: when a save does not fit, the least recently used sessions (= the longest idle) are dropped first
+ *  - expiry: every session is scheduled on a SessionTimingWheel (O(1) per save), the session-expiry thread only
+ *    touches the sessions that are due, no scan over all sessions
+ *  - accounting: the serialized size of each session is tracked (sizeOf, stats), sessions larger than
+ *    session.offheap.max-session-size are not stored at all (and are destroyed, as they are gone)
+ *
+ * What stays on the heap is one small index entry per session. Attributes must be Serializable.
+ *
+ * Destroyed sessions (expired, evicted, rejected as too large or invalidated) get HttpSessionBindingListener.valueUnbound for their
+ * attributes, like with the container. That is how Spring runs the destruction callbacks of session-scoped beans
+ * (DestructionCallbackBindingListener). Only sessions that hold a listener are deserialized for it; the others
+ * are just freed. Expired sessions are destroyed a tick at a time: one lock acquisition removes all of them,
+ * the callbacks run after it is released.
+ *
+ * With a snapshot file (session.offheap.snapshot-file) close() writes all sessions to a SessionSnapshot and
+ * restore() maps it again on startup: users keep their JSESSIONID and session-scoped beans across a redeploy.
+ * Restored sessions stay in the mapped file until their first request, so the restart does not deserialize
+ * every session at once (no thundering herd); sessions that expire first are never deserialized at all,
+ * unless they hold listeners.
+ */
+public class OffHeapSessionRepository implements SessionRepository<MapSession>, AutoCloseable {
+
+	private final SessionArena arena;
+	private final int maxSessionBytes;
+	private final Duration defaultMaxInactiveInterval;
+	private final ClassLoader classLoader;
+	private final SessionTimingWheel wheel;
+	private final ScheduledExecutorService expiryScheduler;
+	private Path snapshotFile;
+
+	// least recently used session first: save() and findById() re-insert a session at the end.
+	// Insertion order, not access order, so lookups that are no access (sizeOf, close) leave the order alone
+	private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(256);
+	private long storedBytes;
+	private long saves;
+	private long evicted;
+	private long expired;
+	private long rejected;
+	private long destroyed;
+	private long expiryBatches;
+	private int maxExpiryBatch;
+
+	// Restored sessions not requested yet: their Entry has firstBlock NOT_LOADED, the bytes are still in the snapshot
+	private static final int NOT_LOADED = -1;
+	private SessionSnapshot snapshot;
+	private final Map<String, Record> unloaded = new HashMap<>();
+	private Map<String, Object> lastRestore = Map.of("performed", false);
+
+	// listeners: the session holds an HttpSessionBindingListener, so it is deserialized when it is destroyed
+	private record Entry(int firstBlock, int length, long lastAccessedMillis, long maxInactiveMillis,
+			boolean listeners, Timer timer) {
+
+		boolean isExpired(long nowMillis) {
+			return maxInactiveMillis >= 0 && nowMillis - lastAccessedMillis >= maxInactiveMillis;
+		}
+	}
+
+	// A removed session whose listeners still have to be called (outside the lock)
+	private record Removed(String id, byte[] data) {
+	}
+
+	public OffHeapSessionRepository(long maxMemoryBytes, int blockSize, int maxSessionBytes, Duration defaultMaxInactiveInterval) {
+		this(maxMemoryBytes, blockSize, maxSessionBytes, defaultMaxInactiveInterval, Duration.ofSeconds(1));
+	}
+
+	public OffHeapSessionRepository(long maxMemoryBytes, int blockSize, int maxSessionBytes, Duration defaultMaxInactiveInterval,
+			Duration expiryTick) {
+		this.arena = new SessionArena(maxMemoryBytes, blockSize);
+		// every block loses its header to the chain, so the limit is in blocks, not bytes
+		if (maxSessionBytes <= 0 || arena.blocksFor(maxSessionBytes) > arena.totalBlocks()) {
+			throw new IllegalArgumentException("max session size must be between 1 byte and what the arena's "
+					+ arena.totalBlocks() + " blocks hold: " + maxSessionBytes);
+		}
+		this.maxSessionBytes = maxSessionBytes;
+		this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+		this.classLoader = getClass().getClassLoader();
+		this.wheel = new SessionTimingWheel(expiryTick.toMillis(), System.currentTimeMillis());
+		this.expiryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "session-expiry");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// close() writes the sessions to file, restore() reads them from it
+	public synchronized void setSnapshotFile(Path file) {
+		this.snapshotFile = file;
+	}
+
+	/**
+	 * Maps the snapshot file written by the last close(), if there is one, and indexes its sessions without
+	 * deserializing them. Must run before the first request; returns what was done (also exposed by stats()).
+	 */
+	public synchronized Map<String, Object> restore() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		if (snapshotFile == null || !Files.exists(snapshotFile)) {
+			result.put("performed", false);
+			result.put("reason", snapshotFile == null ? "no snapshot file configured" : "no snapshot at " + snapshotFile);
+			lastRestore = result;
+			return result;
+		}
+		long start = System.nanoTime();
+		try {
+			snapshot = SessionSnapshot.open(snapshotFile);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot restore sessions from " + snapshotFile, e);
+		}
+		long now = System.currentTimeMillis();
+		int alreadyExpired = 0;
+		for (Record record : snapshot.records()) {
+			Entry entry = new Entry(NOT_LOADED, record.length(), record.lastAccessedMillis(),
+					record.maxInactiveMillis(), record.listeners(), new Timer(record.id()));
+			index.put(record.id(), entry);
+			unloaded.put(record.id(), record);
+			if (record.maxInactiveMillis() >= 0) {
+				// expired while the application was down: due on the next tick
+				wheel.schedule(entry.timer(), record.lastAccessedMillis() + record.maxInactiveMillis());
+			}
+			if (entry.isExpired(now)) {
+				alreadyExpired++;
+			}
+		}
+		if (unloaded.isEmpty()) {
+			snapshot = null;
+		}
+		result.put("performed", true);
+		result.put("sessions", index.size());
+		result.put("alreadyExpired", alreadyExpired);
+		result.put("micros", (System.nanoTime() - start) / 1_000);
+		lastRestore = result;
+		return result;
+	}
+
+	// Background expiry, once per tick
+	public void start() {
+		long tick = wheel.tickMillis();
+		expiryScheduler.scheduleWithFixedDelay(() -> {
+			try {
+				expireSessions();
+			} catch (RuntimeException e) {
+				// keep the schedule alive; sessions already removed are not retried
+				System.err.println("Session expiry failed: " + e);
+			}
+		}, tick, tick, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Removes every session whose deadline has passed since the last call and destroys them.
+	 * Called by the session-expiry thread; returns the number of sessions expired.
+	 */
+	public int expireSessions() {
+		List<Removed> removed = new ArrayList<>();
+		int count;
+		synchronized (this) {
+			// a due timer means the session was not saved since its deadline: every save reschedules it
+			count = wheel.advance(System.currentTimeMillis(), id -> remove(id, removed));
+			expired += count;
+			if (count > 0) {
+				expiryBatches++;
+				maxExpiryBatch = Math.max(maxExpiryBatch, count);
+			}
+		}
+		destroy(removed);
+		return count;
+	}
+
+	@Override
+	public MapSession createSession() {
+		MapSession session = new MapSession();
+		session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+		return session;
+	}
+
+	@Override
+	public void save(MapSession session) {
+		boolean listeners = hasListeners(session);
+		byte[] data = serialize(session); // outside the lock, the expensive part
+		List<Removed> removedSessions = new ArrayList<>();
+		synchronized (this) {
+			if (!session.getId().equals(session.getOriginalId())) {
+				Entry renamed = index.remove(session.getOriginalId()); // changeSessionId
+				if (renamed != null) {
+					release(session.getOriginalId(), renamed);
+				}
+			}
+			Entry previous = index.remove(session.getId());
+			Timer timer;
+			if (previous != null) {
+				release(session.getId(), previous);
+				timer = previous.timer(); // touch: moved in the wheel, not re-created
+			} else {
+				timer = new Timer(session.getId());
+			}
+			int blocks = arena.blocksFor(data.length);
+			if (data.length <= maxSessionBytes) {
+				evictUntilFree(blocks, removedSessions);
+			}
+			if (data.length > maxSessionBytes || arena.freeBlocks() < blocks) {
+				// not stored, so the session is gone: destroyed from its latest state (the one just serialized),
+				// not the older stored copy, so each listener is called once
+				if (listeners) {
+					removedSessions.add(new Removed(session.getId(), data));
+				}
+				rejected++;
+			} else {
+				int firstBlock = arena.write(data);
+				long lastAccessed = session.getLastAccessedTime().toEpochMilli();
+				long maxInactive = session.getMaxInactiveInterval().toMillis();
+				index.put(session.getId(), new Entry(firstBlock, data.length, lastAccessed, maxInactive, listeners, timer));
+				if (maxInactive >= 0) {
+					wheel.schedule(timer, lastAccessed + maxInactive);
+				}
+				storedBytes += data.length;
+				saves++;
+			}
+		}
+		destroy(removedSessions);
+	}
+
+	@Override
+	public MapSession findById(String id) {
+		byte[] data;
+		List<Removed> removed = new ArrayList<>();
+		synchronized (this) {
+			Entry entry = index.get(id);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.isExpired(System.currentTimeMillis())) {
+				// due, but the wheel has not reached its tick yet
+				remove(id, removed);
+				expired++;
+				data = null;
+			} else {
+				data = read(id, entry);
+				index.remove(id);
+				index.put(id, entry); // now the most recently used
+			}
+		}
+		if (data == null) {
+			destroy(removed);
+			return null;
+		}
+		return deserialize(id, data);
+	}
+
+	// HttpSession.invalidate(): the listeners run on the calling thread, as with the container
+	@Override
+	public void deleteById(String id) {
+		List<Removed> removed = new ArrayList<>();
+		synchronized (this) {
+			remove(id, removed);
+		}
+		destroy(removed);
+	}
+
+	// Serialized size of a stored session in bytes, -1 if it is not stored
+	public synchronized int sizeOf(String id) {
+		Entry entry = index.get(id);
+		return entry != null ? entry.length() : -1;
+	}
+
+	public synchronized int size() {
+		return index.size();
+	}
+
+	public synchronized Map<String, Object> stats() {
+		int largest = 0;
+		long total = 0; // including restored sessions still in the snapshot
+		for (Entry entry : index.values()) {
+			largest = Math.max(largest, entry.length());
+			total += entry.length();
+		}
+		long usedBlocks = arena.totalBlocks() - arena.freeBlocks();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("sessions", index.size());
+		stats.put("arenaBytes", arena.capacity());
+		stats.put("usedBytes", usedBlocks * arena.blockSize()); // whole blocks
+		stats.put("storedBytes", storedBytes); // serialized payload in the arena
+		stats.put("freeBytes", (long) arena.freeBlocks() * arena.blockSize());
+		stats.put("blockSize", arena.blockSize());
+		stats.put("avgSessionBytes", index.isEmpty() ? 0 : total / index.size());
+		stats.put("largestSessionBytes", largest);
+		stats.put("maxSessionBytes", maxSessionBytes);
+		stats.put("saves", saves);
+		stats.put("evicted", evicted);
+		stats.put("expired", expired);
+		stats.put("rejected", rejected);
+		stats.put("destroyed", destroyed); // sessions whose listeners were called
+		stats.put("expiryTickMillis", wheel.tickMillis());
+		stats.put("scheduledExpiries", wheel.scheduled());
+		stats.put("expiryBatches", expiryBatches);
+		stats.put("maxExpiryBatch", maxExpiryBatch);
+		stats.put("notYetRestored", unloaded.size());
+		stats.put("restore", lastRestore);
+		return stats;
+	}
+
+	// Stops expiry; with a snapshot file the sessions are kept for the next start instead of being destroyed
+	@Override
+	public void close() {
+		expiryScheduler.shutdownNow();
+		synchronized (this) {
+			if (snapshotFile == null) {
+				return;
+			}
+			List<Record> records = new ArrayList<>(index.size());
+			for (Map.Entry<String, Entry> next : index.entrySet()) { // least recently used first
+				Entry entry = next.getValue();
+				records.add(new Record(next.getKey(), entry.lastAccessedMillis(), entry.maxInactiveMillis(),
+						entry.listeners(), entry.length(), -1));
+			}
+			try {
+				SessionSnapshot.write(snapshotFile, records, record -> read(record.id(), index.get(record.id())));
+				System.out.println("Sessions saved: " + records.size() + " to " + snapshotFile);
+			} catch (IOException e) {
+				System.err.println("Saving sessions to " + snapshotFile + " failed: " + e);
+			}
+		}
+	}
+
+	// A session's bytes from the arena, or from the snapshot if it has not been requested since the restart
+	private byte[] read(String id, Entry entry) {
+		return entry.firstBlock() == NOT_LOADED ? snapshot.read(unloaded.get(id)) : arena.read(entry.firstBlock(), entry.length());
+	}
+
+	// Removes a session; if it holds listeners its bytes are copied out first, for destroy()
+	private void remove(String id, List<Removed> removed) {
+		Entry entry = index.remove(id);
+		if (entry != null) {
+			if (entry.listeners()) {
+				removed.add(new Removed(id, read(id, entry)));
+			}
+			release(id, entry);
+		}
+	}
+
+	private void release(String id, Entry entry) {
+		wheel.cancel(entry.timer());
+		if (entry.firstBlock() == NOT_LOADED) {
+			unloaded.remove(id);
+			if (unloaded.isEmpty()) {
+				snapshot = null; // every restored session is loaded or gone: the mapping can be unmapped
+			}
+		} else {
+			arena.free(entry.firstBlock());
+			storedBytes -= entry.length();
+		}
+	}
+
+	// Drops the least recently used sessions until the arena has the blocks; max session size <= arena size, so it ends
+	private void evictUntilFree(int blocks, List<Removed> removed) {
+		long now = System.currentTimeMillis();
+		Iterator<Map.Entry<String, Entry>> eldest = index.entrySet().iterator();
+		while (arena.freeBlocks() < blocks && eldest.hasNext()) {
+			Map.Entry<String, Entry> next = eldest.next();
+			Entry entry = next.getValue();
+			if (entry.firstBlock() == NOT_LOADED) {
+				continue; // holds no arena blocks
+			}
+			eldest.remove();
+			if (entry.listeners()) {
+				removed.add(new Removed(next.getKey(), read(next.getKey(), entry)));
+			}
+			release(next.getKey(), entry);
+			if (entry.isExpired(now)) {
+				expired++;
+			} else {
+				evicted++;
+			}
+		}
+	}
+
+	// Outside the lock: a listener may be slow or touch other beans
+	private void destroy(List<Removed> removed) {
+		for (Removed session : removed) {
+			try {
+				DestroyedHttpSession httpSession = new DestroyedHttpSession(deserialize(session.id(), session.data()));
+				for (String name : List.copyOf(httpSession.getSession().getAttributeNames())) {
+					if (httpSession.getAttribute(name) instanceof HttpSessionBindingListener listener) {
+						listener.valueUnbound(new HttpSessionBindingEvent(httpSession, name, listener));
+					}
+				}
+			} catch (RuntimeException e) {
+				// one failing bean must not keep the other sessions from being destroyed
+				System.err.println("Destroying session " + session.id() + " failed: " + e);
+			}
+		}
+		if (!removed.isEmpty()) {
+			synchronized (this) {
+				destroyed += removed.size();
+			}
+		}
+	}
+
+	private static boolean hasListeners(MapSession session) {
+		for (String name : session.getAttributeNames()) {
+			if (session.getAttribute(name) instanceof HttpSessionBindingListener) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * [long creationTime][long lastAccessedTime][long maxInactiveMillis][int count] count x ([UTF name][object])
+	 * One ObjectOutputStream for all attributes, so a class descriptor is written once per session.
+	 */
+	private static byte[] serialize(MapSession session) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+		String name = null;
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeLong(session.getCreationTime().toEpochMilli());
+			out.writeLong(session.getLastAccessedTime().toEpochMilli());
+			out.writeLong(session.getMaxInactiveInterval().toMillis());
+			out.writeInt(session.getAttributeNames().size());
+			for (String attribute : session.getAttributeNames()) {
+				name = attribute;
+				out.writeUTF(attribute);
+				out.writeObject(session.getAttribute(attribute));
+			}
+		} catch (IOException e) {
+			throw new SerializationFailedException("Cannot serialize attribute '" + name + "' of session " + session.getId(), e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private MapSession deserialize(String id, byte[] data) {
+		try (ObjectInputStream in = new ConfigurableObjectInputStream(new ByteArrayInputStream(data), classLoader)) {
+			MapSession session = new MapSession(id);
+			session.setCreationTime(Instant.ofEpochMilli(in.readLong()));
+			session.setLastAccessedTime(Instant.ofEpochMilli(in.readLong()));
+			session.setMaxInactiveInterval(Duration.ofMillis(in.readLong()));
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				session.setAttribute(in.readUTF(), in.readObject());
+			}
+			return session;
+		} catch (IOException | ClassNotFoundException e) {
+			throw new SerializationFailedException("Cannot deserialize session " + id, e);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package net.projectsync.springboot.common.session;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size off-heap arena for serialized sessions.
+ *
+ * One direct buffer, allocated up front and cut into equal blocks. A session is stored as a chain of blocks:
+ * every block starts with the index of the next one (-1 ends the chain), the rest is payload. Free blocks sit on
+ * an int stack, so allocating and freeing never fragments the arena and the memory used never exceeds the
+ * size it was created with.
+ *
+ * Not thread-safe, OffHeapSessionRepository guards it with its own lock.
+ */
+final class SessionArena {
+
+	private static final int NO_BLOCK = -1;
+	private static final int HEADER_BYTES = Integer.BYTES; // next block index
+
+	private final ByteBuffer memory;
+	private final int blockSize;
+	private final int payloadPerBlock;
+	private final int[] freeBlocks;
+	private int freeCount;
+
+	SessionArena(long capacityBytes, int blockSize) {
+		if (blockSize <= HEADER_BYTES * 2) {
+			throw new IllegalArgumentException("block size must be greater than " + HEADER_BYTES * 2 + " bytes: " + blockSize);
+		}
+		long blocks = capacityBytes / blockSize;
+		if (blocks < 1 || blocks * blockSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("arena must hold between 1 block and 2GB: " + capacityBytes + " bytes");
+		}
+		this.memory = ByteBuffer.allocateDirect((int) (blocks * blockSize));
+		this.blockSize = blockSize;
+		this.payloadPerBlock = blockSize - HEADER_BYTES;
+		this.freeBlocks = new int[(int) blocks];
+		// pushed in reverse so the first allocations use the start of the buffer
+		for (int i = 0; i < freeBlocks.length; i++) {
+			freeBlocks[i] = freeBlocks.length - 1 - i;
+		}
+		this.freeCount = freeBlocks.length;
+	}
+
+	int blocksFor(int length) {
+		return Math.max(1, (length + payloadPerBlock - 1) / payloadPerBlock);
+	}
+
+	int freeBlocks() {
+		return freeCount;
+	}
+
+	int totalBlocks() {
+		return freeBlocks.length;
+	}
+
+	int blockSize() {
+		return blockSize;
+	}
+
+	long capacity() {
+		return memory.capacity();
+	}
+
+	// Caller checks freeBlocks() >= blocksFor(data.length) first; returns the first block of the chain
+	int write(byte[] data) {
+		int blocks = blocksFor(data.length);
+		if (blocks > freeCount) {
+			// checked before the free stack is touched, so the arena stays usable
+			throw new IllegalStateException(blocks + " blocks needed, " + freeCount + " free");
+		}
+		int first = freeBlocks[--freeCount];
+		int current = first;
+		int offset = 0;
+		for (int i = 0; i < blocks; i++) {
+			int next = i + 1 < blocks ? freeBlocks[--freeCount] : NO_BLOCK;
+			int base = current * blockSize;
+			int chunk = Math.min(payloadPerBlock, data.length - offset);
+			memory.putInt(base, next);
+			memory.put(base + HEADER_BYTES, data, offset, chunk);
+			offset += chunk;
+			current = next;
+		}
+		return first;
+	}
+
+	byte[] read(int firstBlock, int length) {
+		byte[] data = new byte[length];
+		int current = firstBlock;
+		int offset = 0;
+		while (offset < length) {
+			int base = current * blockSize;
+			int chunk = Math.min(payloadPerBlock, length - offset);
+			memory.get(base + HEADER_BYTES, data, offset, chunk);
+			offset += chunk;
+			current = memory.getInt(base);
+		}
+		return data;
+	}
+
+	void free(int firstBlock) {
+		for (int current = firstBlock; current != NO_BLOCK; current = memory.getInt(current * blockSize)) {
+			freeBlocks[freeCount++] = current;
+		}
+	}
+}
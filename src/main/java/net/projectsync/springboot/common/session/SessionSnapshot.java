@@ -0,0 +1,132 @@
+package net.projectsync.springboot.common.session;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Memory-mapped file with the sessions of OffHeapSessionRepository, written on shutdown and read on startup.
+ *
+ * Opening only walks the record headers (id, timestamps, offset of the payload); the payloads stay in the
+ * mapping, i.e. in the page cache, until a session is asked for. So a restart does not deserialize every
+ * session at once, each one is restored on its first request.
+ *
+ * 	file:   [long magic][int count] count x record
+ * 	record: [short length][id UTF-8][long lastAccessedTime][long maxInactiveMillis][byte listeners][int length][payload]
+ *
+ * Records are in least recently used order, so the restored repository evicts in the same order as before.
+ */
+final class SessionSnapshot {
+
+	private static final long MAGIC = 0x53455353494f4e31L; // "SESSION1"
+	private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+
+	record Record(String id, long lastAccessedMillis, long maxInactiveMillis, boolean listeners, int length, long offset) {
+	}
+
+	private final MappedByteBuffer buffer;
+	private final List<Record> records;
+
+	private SessionSnapshot(MappedByteBuffer buffer, List<Record> records) {
+		this.buffer = buffer;
+		this.records = records;
+	}
+
+	/**
+	 * Maps the file and reads the record headers. The file is deleted once it is mapped: the mapping stays valid,
+	 * and a crash before the next shutdown does not bring back these sessions a second time.
+	 */
+	static SessionSnapshot open(Path file) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Session snapshot larger than 2GB: " + file);
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			Files.delete(file);
+		} catch (IOException e) {
+			// some platforms do not delete mapped files; it is replaced on the next shutdown anyway
+		}
+		try {
+			if (buffer.limit() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+				throw new IOException("Not a session snapshot: " + file);
+			}
+			int count = buffer.getInt(Long.BYTES);
+			List<Record> records = new ArrayList<>(count);
+			int position = HEADER_BYTES;
+			for (int i = 0; i < count; i++) {
+				byte[] id = new byte[Short.toUnsignedInt(buffer.getShort(position))];
+				buffer.get(position + Short.BYTES, id);
+				position += Short.BYTES + id.length;
+				long lastAccessed = buffer.getLong(position);
+				long maxInactive = buffer.getLong(position + 8);
+				boolean listeners = buffer.get(position + 16) != 0;
+				int length = buffer.getInt(position + 17);
+				position += 21;
+				if (length < 0 || position + (long) length > buffer.limit()) {
+					throw new IOException("Truncated session snapshot: " + file);
+				}
+				records.add(new Record(new String(id, StandardCharsets.UTF_8), lastAccessed, maxInactive, listeners, length, position));
+				position += length;
+			}
+			return new SessionSnapshot(buffer, records);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Truncated session snapshot: " + file, e);
+		}
+	}
+
+	List<Record> records() {
+		return records;
+	}
+
+	byte[] read(Record record) {
+		byte[] data = new byte[record.length()];
+		buffer.get((int) record.offset(), data);
+		return data;
+	}
+
+	/**
+	 * Writes records (offset unused) with the payloads from the function through a mapping of a temp file,
+	 * forces it and moves it over file, so a crash leaves the old snapshot or the new one.
+	 */
+	static void write(Path file, List<Record> records, Function<Record, byte[]> payload) throws IOException {
+		long size = HEADER_BYTES;
+		List<byte[]> ids = new ArrayList<>(records.size());
+		for (Record record : records) {
+			byte[] id = record.id().getBytes(StandardCharsets.UTF_8);
+			ids.add(id);
+			size += Short.BYTES + id.length + 21 + record.length();
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Session snapshot larger than 2GB: " + size + " bytes");
+		}
+		Path parent = file.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path temp = parent.resolve(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putLong(MAGIC).putInt(records.size());
+			for (int i = 0; i < records.size(); i++) {
+				Record record = records.get(i);
+				byte[] id = ids.get(i);
+				buffer.putShort((short) id.length).put(id);
+				buffer.putLong(record.lastAccessedMillis()).putLong(record.maxInactiveMillis());
+				buffer.put((byte) (record.listeners() ? 1 : 0)).putInt(record.length());
+				buffer.put(payload.apply(record));
+			}
+			buffer.force();
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
@@ -0,0 +1,141 @@
+package net.projectsync.springboot.common.session;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for session expiry: schedule, reschedule (touch) and cancel are O(1), and a tick only
+ * looks at the sessions that are due, instead of scanning every session like the container's periodic cleanup.
+ *
+ * 4 levels of 64 slots. Level 0 holds sessions due within 64 ticks, one slot per tick; level n holds sessions due
+ * within 64^(n+1) ticks, one slot per 64^n ticks. Whenever the lower levels have gone round once, the next slot of
+ * the level above is cascaded down, so a session moves at most 3 times before it expires. With 1s ticks the wheel
+ * reaches 194 days; later deadlines wait in the top level and are placed again when their slot comes round.
+ *
+ * Every slot is a doubly linked list of Timer nodes, so a node is unlinked without searching for it.
+ * Not thread-safe, OffHeapSessionRepository guards it with its own lock.
+ */
+final class SessionTimingWheel {
+
+	private static final int LEVELS = 4;
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS); // ticks
+
+	static final class Timer {
+
+		final String sessionId;
+		long deadlineTick;
+		Timer prev;
+		Timer next;
+
+		Timer(String sessionId) {
+			this.sessionId = sessionId;
+		}
+
+		boolean isScheduled() {
+			return prev != null;
+		}
+	}
+
+	private final long tickMillis;
+	private final Timer[][] slots = new Timer[LEVELS][SLOTS]; // sentinel heads
+	private long currentTick;
+	private int scheduled;
+
+	SessionTimingWheel(long tickMillis, long nowMillis) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("tick must be positive: " + tickMillis + "ms");
+		}
+		this.tickMillis = tickMillis;
+		this.currentTick = nowMillis / tickMillis;
+		for (Timer[] level : slots) {
+			for (int i = 0; i < SLOTS; i++) {
+				Timer head = new Timer(null);
+				head.prev = head;
+				head.next = head;
+				level[i] = head;
+			}
+		}
+	}
+
+	long tickMillis() {
+		return tickMillis;
+	}
+
+	int scheduled() {
+		return scheduled;
+	}
+
+	// Also used to touch a session: a scheduled timer is moved, not added twice
+	void schedule(Timer timer, long deadlineMillis) {
+		cancel(timer);
+		// round up: a session never expires before its deadline
+		timer.deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+		place(timer, currentTick + 1);
+		scheduled++;
+	}
+
+	void cancel(Timer timer) {
+		if (timer.isScheduled()) {
+			timer.prev.next = timer.next;
+			timer.next.prev = timer.prev;
+			timer.prev = null;
+			timer.next = null;
+			scheduled--;
+		}
+	}
+
+	// Runs every tick up to nowMillis, handing each expired session id to the consumer; returns how many expired
+	int advance(long nowMillis, Consumer<String> expired) {
+		long targetTick = nowMillis / tickMillis;
+		int count = 0;
+		while (currentTick < targetTick) {
+			currentTick++;
+			// cascade from the highest level whose lower levels just wrapped, so sessions land in already-cascaded slots
+			for (int level = LEVELS - 1; level > 0; level--) {
+				if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+					cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+				}
+			}
+			Timer head = slots[0][(int) (currentTick & SLOT_MASK)];
+			while (head.next != head) {
+				Timer timer = head.next;
+				cancel(timer);
+				if (timer.deadlineTick > currentTick) {
+					place(timer, currentTick + 1); // parked beyond the wheel's span
+					scheduled++;
+				} else {
+					expired.accept(timer.sessionId);
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	private void cascade(int level, int slot) {
+		Timer head = slots[level][slot];
+		while (head.next != head) {
+			Timer timer = head.next;
+			cancel(timer);
+			place(timer, currentTick); // level 0 of the current tick is processed right after the cascade
+			scheduled++;
+		}
+	}
+
+	private void place(Timer timer, long earliestTick) {
+		// already due: the earliest slot still to be processed; beyond the span: the furthest slot, placed again from there
+		long tick = Math.min(Math.max(timer.deadlineTick, earliestTick), currentTick + MAX_SPAN - 1);
+		long delta = tick - currentTick;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+			level++;
+		}
+		Timer head = slots[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+		timer.prev = head.prev;
+		timer.next = head;
+		head.prev.next = timer;
+		head.prev = timer;
+	}
+}
@@ -0,0 +1,39 @@
+package net.projectsync.springboot.common.web;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/*
+ * CBOR and Smile next to JSON: the same typed responses, picked by the Accept header.
+ * 	curl -H 'Accept: application/cbor' localhost:8080/prototype
+ * 	curl -H 'Accept: application/x-jackson-smile' localhost:8080/singleton
+ *
+ * Both are binary JSON (same data model, no schema): numbers are not written as text and, with Smile,
+ * repeated field names are back-references. Boot adds HttpMessageConverter beans in front of its defaults.
+ * The ObjectMapperBuilder is Boot's (a new one per injection), so the binary mappers get the same modules and
+ * spring.jackson.* settings as the JSON one.
+ *
+ * Shared by both demo applications via @Import(BinaryMessageConvertersConfig.class)
+ */
+@Configuration
+public class BinaryMessageConvertersConfig {
+
+	// for @GetMapping(produces = ...); MediaType has a constant for CBOR but not for Smile
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
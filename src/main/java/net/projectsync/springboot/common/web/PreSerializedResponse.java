@@ -0,0 +1,160 @@
+package net.projectsync.springboot.common.web;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * A response body that never changes for the life of the context, serialized once per media type.
+ *
+ * writeTo() copies the bytes straight to the servlet output stream, no Map, no Jackson, no message converter
+ * per request. Every media type (JSON, CBOR, Smile, one per converter) is serialized the first time a client
+ * asks for it and has its own strong ETag, a hash of its bytes, so a client that sends it back in
+ * If-None-Match gets 304 Not Modified without a body.
+ *
+ * 	GET /singleton                                  -> 200, ETag: "3f1c...", {"scope":"singleton",...}
+ * 	GET /singleton  If-None-Match: "3f1c..."        -> 304
+ * 	GET /singleton  Accept: application/cbor        -> 200, ETag: "9a0e...", CBOR bytes
+ *
+ * The media type is chosen from the Accept header like Spring MVC does (quality, then order; the first
+ * converter for * / * or no header). Pollers send the same header every time, so the choice is cached per
+ * header value and the header is not parsed again.
+ */
+public final class PreSerializedResponse {
+
+	private static final int NOT_ACCEPTABLE = -1;
+	private static final int MAX_CACHED_ACCEPT_HEADERS = 64;
+
+	private record Variant(String contentType, byte[] body, String etag) {
+	}
+
+	private final Object value;
+	private final List<AbstractJackson2HttpMessageConverter> converters;
+	private final AtomicReferenceArray<Variant> variants;
+	private final Map<String, Integer> variantByAccept = new ConcurrentHashMap<>();
+
+	// converters: the first one is the default (JSON)
+	public PreSerializedResponse(Object value, List<? extends AbstractJackson2HttpMessageConverter> converters) {
+		if (converters.isEmpty()) {
+			throw new IllegalArgumentException("at least one converter is required");
+		}
+		this.value = value;
+		this.converters = List.copyOf(converters);
+		this.variants = new AtomicReferenceArray<>(converters.size());
+	}
+
+	public String getEtag(MediaType mediaType) {
+		for (int i = 0; i < converters.size(); i++) {
+			if (mediaTypeOf(i).equalsTypeAndSubtype(mediaType)) {
+				return variant(i).etag();
+			}
+		}
+		throw new IllegalArgumentException("No converter for " + mediaType);
+	}
+
+	public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		int index = select(request.getHeader(HttpHeaders.ACCEPT));
+		if (index == NOT_ACCEPTABLE) {
+			response.setStatus(HttpServletResponse.SC_NOT_ACCEPTABLE);
+			return;
+		}
+		Variant variant = variant(index);
+		response.setHeader(HttpHeaders.ETAG, variant.etag());
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), variant.etag())) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+		response.setContentType(variant.contentType());
+		response.setContentLength(variant.body().length);
+		response.getOutputStream().write(variant.body());
+	}
+
+	// Serialized on first use; a race only serializes twice, with equal bytes
+	private Variant variant(int index) {
+		Variant variant = variants.get(index);
+		if (variant == null) {
+			try {
+				byte[] body = converters.get(index).getObjectMapper().writeValueAsBytes(value);
+				variant = new Variant(mediaTypeOf(index).toString(), body, etagOf(body));
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot serialize " + value, e);
+			}
+			variants.set(index, variant);
+		}
+		return variant;
+	}
+
+	private MediaType mediaTypeOf(int index) {
+		return converters.get(index).getSupportedMediaTypes().get(0);
+	}
+
+	private int select(String accept) {
+		if (accept == null) {
+			return 0;
+		}
+		Integer cached = variantByAccept.get(accept);
+		if (cached != null) {
+			return cached;
+		}
+		int index = negotiate(accept);
+		if (variantByAccept.size() < MAX_CACHED_ACCEPT_HEADERS) {
+			variantByAccept.put(accept, index);
+		}
+		return index;
+	}
+
+	private int negotiate(String accept) {
+		List<MediaType> accepted;
+		try {
+			accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+		} catch (InvalidMediaTypeException e) {
+			return 0; // like no header
+		}
+		accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()); // stable: header order within a quality
+		for (MediaType mediaType : accepted) {
+			if (mediaType.getQualityValue() == 0) {
+				continue;
+			}
+			for (int i = 0; i < converters.size(); i++) {
+				if (mediaType.includes(mediaTypeOf(i))) {
+					return i;
+				}
+			}
+		}
+		return NOT_ACCEPTABLE;
+	}
+
+	// If-None-Match: "a", W/"b" or *. Weak comparison is what RFC 9110 asks for here, so W/"<etag>" matches too
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		return ifNoneMatch.equals(etag) || ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag);
+	}
+
+	private static String etagOf(byte[] body) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+			return '"' + HexFormat.of().formatHex(hash, 0, 16) + '"';
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -1,9 +1,68 @@
 package net.projectsync.springboot.conditionalbeans;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.util.unit.DataSize;
+
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+
+/*
+ * Beans picked by the machine instead of by properties (see HardwareAwareConfig). Run it as is, then pretend
+ * to be a small container:
+ * 	--hardware.available-processors=2 --hardware.max-heap=512MB
+ * or start the JVM with -XX:ActiveProcessorCount=2 -Xmx512m, which is what the conditions really look at.
+ */
 public class ConditionalBeans {
 
-	// TODO: https://chatgpt.com/share/68f76bc4-0270-8004-918c-ad31a7d39f3d
-	public static void main(String[] args) {
+	private static final int TASKS = 8;
+
+	public static void main(String[] args) throws InterruptedException {
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		context.register(HardwareAwareConfig.class);
+		context.refresh();
+
+		System.out.println("\n--- Hardware seen by the conditions ---");
+		System.out.println("Available processors: " + Hardware.availableProcessors(context.getEnvironment()));
+		System.out.println("Max heap: " + Hardware.maxHeap(context.getEnvironment()).toMegabytes() + "MB");
+		System.out.println("Virtual threads: " + Hardware.virtualThreads(context.getEnvironment()));
+
+		System.out.println("\n--- Beans picked ---");
+		for (Class<?> type : new Class<?>[] { DataSize.class, AuditSink.class, ExecutorService.class }) {
+			for (String beanName : context.getBeanNamesForType(type)) {
+				System.out.println(type.getSimpleName() + " -> " + beanName + ": " + describe(context.getBean(beanName)));
+			}
+		}
+
+		System.out.println("\n--- " + TASKS + " tasks writing to the audit sink ---");
+		AuditSink auditSink = context.getBean(AuditSink.class);
+		ExecutorService workers = context.getBean(ExecutorService.class);
+		for (int i = 0; i < TASKS; i++) {
+			int task = i;
+			workers.execute(() -> auditSink.write("task " + task + " on " + Thread.currentThread().getName()));
+		}
+		workers.shutdown();
+		workers.awaitTermination(10, TimeUnit.SECONDS);
+		auditSink.flush();
+
+		context.close();
+	}
 
+	private static String describe(Object bean) {
+		if (bean instanceof DataSize size) {
+			return size.toKilobytes() + "KB";
+		}
+		if (bean instanceof StripedAuditSink striped) {
+			return "StripedAuditSink, " + striped.stripes() + " stripes";
+		}
+		if (bean instanceof ThreadPoolExecutor pool) {
+			return "fixed pool, " + pool.getCorePoolSize() + " threads";
+		}
+		return bean.getClass().getSimpleName();
 	}
 }
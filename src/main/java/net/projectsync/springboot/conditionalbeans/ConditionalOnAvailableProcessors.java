@@ -0,0 +1,26 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * Matches when the JVM has between min and max processors (both inclusive), see Hardware.availableProcessors.
+ * Two beans with min = n and max = n - 1 never both match and never both miss:
+ * 	@ConditionalOnAvailableProcessors(min = 4)    striped implementation
+ * 	@ConditionalOnAvailableProcessors(max = 3)    single lock
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Documented
+@Conditional(OnAvailableProcessorsCondition.class)
+public @interface ConditionalOnAvailableProcessors {
+
+	int min() default 1;
+
+	int max() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,27 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * Matches when the maximum heap (Hardware.maxHeap) is at least min and below max, sizes as in
+ * application.properties ("512MB", "2GB"). Two beans with min = "1GB" and max = "1GB" never both match and
+ * never both miss.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Documented
+@Conditional(OnMaxHeapCondition.class)
+public @interface ConditionalOnMaxHeap {
+
+	// inclusive, "" = no lower bound
+	String min() default "";
+
+	// exclusive, "" = no upper bound
+	String max() default "";
+}
@@ -0,0 +1,22 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.context.annotation.Conditional;
+
+/**
+ * Matches when virtual threads are available (Java 21+, not turned off with hardware.virtual-threads=false),
+ * or, with value = false, when they are not.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Documented
+@Conditional(OnVirtualThreadsCondition.class)
+public @interface ConditionalOnVirtualThreads {
+
+	boolean value() default true;
+}
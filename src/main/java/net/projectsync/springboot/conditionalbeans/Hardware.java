@@ -0,0 +1,43 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * What the @ConditionalOn... annotations of this package see: the JVM the context runs in, as the container
+ * limits it (availableProcessors() and maxMemory() honour cgroup CPU and memory limits, so a 2-core pod reports
+ * 2 even on a 64-core host).
+ *
+ * Each value can be overridden with a property, to try a configuration without the hardware:
+ * 	hardware.available-processors=2
+ * 	hardware.max-heap=512MB
+ * 	hardware.virtual-threads=false     (can only turn them off: they need Java 21)
+ */
+public final class Hardware {
+
+	public static final String AVAILABLE_PROCESSORS = "hardware.available-processors";
+	public static final String MAX_HEAP = "hardware.max-heap";
+	public static final String VIRTUAL_THREADS = "hardware.virtual-threads";
+
+	private Hardware() {
+	}
+
+	public static int availableProcessors(Environment environment) {
+		return environment.getProperty(AVAILABLE_PROCESSORS, Integer.class, Runtime.getRuntime().availableProcessors());
+	}
+
+	// -Xmx, or the JVM's default share of the container memory
+	public static DataSize maxHeap(Environment environment) {
+		String maxHeap = environment.getProperty(MAX_HEAP);
+		return maxHeap != null ? DataSize.parse(maxHeap) : DataSize.ofBytes(Runtime.getRuntime().maxMemory());
+	}
+
+	// Executors.newVirtualThreadPerTaskExecutor() exists from Java 21 on; this project compiles for Java 17
+	public static boolean virtualThreads(Environment environment) {
+		return ClassUtils.hasMethod(Executors.class, "newVirtualThreadPerTaskExecutor")
+				&& environment.getProperty(VIRTUAL_THREADS, Boolean.class, true);
+	}
+}
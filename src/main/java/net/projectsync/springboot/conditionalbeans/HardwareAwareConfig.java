@@ -0,0 +1,59 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+
+/*
+ * One jar, the implementation picked from the machine it starts on, no per-environment property file:
+ * 	auditBufferSize   heap >= 1GB: 256KB per buffer     smaller heap: 16KB
+ * 	auditSink         >= 4 cores: StripedAuditSink       fewer: SingleLockAuditSink
+ * 	workers           Java 21+: a virtual thread per task, otherwise a fixed pool of one thread per core
+ * Every pair is complementary, so exactly one bean of each type exists.
+ */
+@Configuration
+public class HardwareAwareConfig {
+
+	@Bean
+	@ConditionalOnMaxHeap(min = "1GB")
+	public DataSize largeAuditBuffer() {
+		return DataSize.ofKilobytes(256);
+	}
+
+	@Bean
+	@ConditionalOnMaxHeap(max = "1GB")
+	public DataSize smallAuditBuffer() {
+		return DataSize.ofKilobytes(16);
+	}
+
+	// With a few cores a stripe per core costs more (memory, flushing every buffer) than the lock it saves
+	@Bean
+	@ConditionalOnAvailableProcessors(min = 4)
+	public StripedAuditSink stripedAuditSink(DataSize auditBufferSize, Environment environment) {
+		return new StripedAuditSink(System.out, (int) auditBufferSize.toBytes(), Hardware.availableProcessors(environment));
+	}
+
+	@Bean
+	@ConditionalOnAvailableProcessors(max = 3)
+	public SingleLockAuditSink singleLockAuditSink(DataSize auditBufferSize) {
+		return new SingleLockAuditSink(System.out, (int) auditBufferSize.toBytes());
+	}
+
+	// Called reflectively: the method is not there to compile against on Java 17.
+	// shutdown() is the inferred destroy method of both executors
+	@Bean
+	@ConditionalOnVirtualThreads
+	public ExecutorService virtualThreadWorkers() throws ReflectiveOperationException {
+		return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+	}
+
+	@Bean
+	@ConditionalOnVirtualThreads(false)
+	public ExecutorService platformThreadWorkers(Environment environment) {
+		return Executors.newFixedThreadPool(Hardware.availableProcessors(environment));
+	}
+}
@@ -0,0 +1,26 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+// A SpringBootCondition: the outcome and its message appear in the conditions report (--debug)
+class OnAvailableProcessorsCondition extends SpringBootCondition {
+
+	@Override
+	public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+		Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnAvailableProcessors.class.getName());
+		int min = (int) attributes.get("min");
+		int max = (int) attributes.get("max");
+		int processors = Hardware.availableProcessors(context.getEnvironment());
+		ConditionMessage.Builder message = ConditionMessage.forCondition(ConditionalOnAvailableProcessors.class,
+				"min " + min + ", max " + max);
+		return processors >= min && processors <= max
+				? ConditionOutcome.match(message.because(processors + " processors"))
+				: ConditionOutcome.noMatch(message.because(processors + " processors"));
+	}
+}
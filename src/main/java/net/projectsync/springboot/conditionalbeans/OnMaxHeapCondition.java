@@ -0,0 +1,27 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.unit.DataSize;
+
+class OnMaxHeapCondition extends SpringBootCondition {
+
+	@Override
+	public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+		Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnMaxHeap.class.getName());
+		String min = (String) attributes.get("min");
+		String max = (String) attributes.get("max");
+		DataSize maxHeap = Hardware.maxHeap(context.getEnvironment());
+		boolean match = (min.isEmpty() || maxHeap.compareTo(DataSize.parse(min)) >= 0)
+				&& (max.isEmpty() || maxHeap.compareTo(DataSize.parse(max)) < 0);
+		ConditionMessage.Builder message = ConditionMessage.forCondition(ConditionalOnMaxHeap.class,
+				"min " + (min.isEmpty() ? "-" : min) + ", max " + (max.isEmpty() ? "-" : max));
+		String heap = "max heap " + maxHeap.toMegabytes() + "MB";
+		return match ? ConditionOutcome.match(message.because(heap)) : ConditionOutcome.noMatch(message.because(heap));
+	}
+}
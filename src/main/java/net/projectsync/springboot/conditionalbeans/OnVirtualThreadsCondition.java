@@ -0,0 +1,22 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+class OnVirtualThreadsCondition extends SpringBootCondition {
+
+	@Override
+	public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+		Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnVirtualThreads.class.getName());
+		boolean required = (boolean) attributes.get("value");
+		boolean available = Hardware.virtualThreads(context.getEnvironment());
+		ConditionMessage.Builder message = ConditionMessage.forCondition(ConditionalOnVirtualThreads.class, required ? "" : "(false)");
+		String reason = "virtual threads " + (available ? "available" : "not available") + " on Java " + Runtime.version().feature();
+		return available == required ? ConditionOutcome.match(message.because(reason)) : ConditionOutcome.noMatch(message.because(reason));
+	}
+}
@@ -0,0 +1,43 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.io.PrintStream;
+
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+
+// Thread-safe sink for few cores: one buffer behind one lock, records stay in the order they were written.
+// Printed when the buffer reaches flushThreshold characters, and on flush().
+public class SingleLockAuditSink implements AuditSink {
+
+	private final PrintStream out;
+	private final int flushThreshold;
+	private final StringBuilder buffer;
+	private long records;
+
+	public SingleLockAuditSink(PrintStream out, int flushThreshold) {
+		this.out = out;
+		this.flushThreshold = flushThreshold;
+		this.buffer = new StringBuilder(flushThreshold);
+	}
+
+	@Override
+	public synchronized void write(CharSequence record) {
+		buffer.append("AUDIT: ").append(record).append(System.lineSeparator());
+		records++;
+		if (buffer.length() >= flushThreshold) {
+			flush();
+		}
+	}
+
+	@Override
+	public synchronized void flush() {
+		if (buffer.length() > 0) {
+			out.print(buffer);
+			out.flush();
+			buffer.setLength(0);
+		}
+	}
+
+	public synchronized long records() {
+		return records;
+	}
+}
@@ -0,0 +1,85 @@
+package net.projectsync.springboot.conditionalbeans;
+
+import java.io.PrintStream;
+
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+
+/**
+ * Thread-safe sink for many cores: one buffer and lock per stripe, the stripe picked from the writing thread,
+ * so threads on different cores rarely wait for each other. Stripes are printed one after another: records of
+ * one thread stay in order, records of different threads are not interleaved as they were written.
+ */
+public class StripedAuditSink implements AuditSink {
+
+	private final PrintStream out;
+	private final int flushThreshold;
+	private final Stripe[] stripes;
+	private final int mask;
+
+	// Buffer and counter of one stripe, also its lock
+	private static final class Stripe {
+
+		final StringBuilder buffer;
+		long records;
+
+		Stripe(int capacity) {
+			buffer = new StringBuilder(capacity);
+		}
+	}
+
+	// stripes is rounded up to a power of two
+	public StripedAuditSink(PrintStream out, int flushThreshold, int stripes) {
+		int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+		this.out = out;
+		this.flushThreshold = flushThreshold;
+		this.stripes = new Stripe[count];
+		this.mask = count - 1;
+		for (int i = 0; i < count; i++) {
+			this.stripes[i] = new Stripe(flushThreshold);
+		}
+	}
+
+	@Override
+	public void write(CharSequence record) {
+		// thread ids are handed out in sequence: consecutive threads get different stripes
+		Stripe stripe = stripes[(int) Thread.currentThread().getId() & mask];
+		synchronized (stripe) {
+			stripe.buffer.append("AUDIT: ").append(record).append(System.lineSeparator());
+			stripe.records++;
+			if (stripe.buffer.length() >= flushThreshold) {
+				print(stripe);
+			}
+		}
+	}
+
+	@Override
+	public void flush() {
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				print(stripe);
+			}
+		}
+	}
+
+	private void print(Stripe stripe) {
+		if (stripe.buffer.length() > 0) {
+			out.print(stripe.buffer);
+			out.flush();
+			stripe.buffer.setLength(0);
+		}
+	}
+
+	public int stripes() {
+		return stripes.length;
+	}
+
+	public long records() {
+		long records = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				records += stripe.records;
+			}
+		}
+		return records;
+	}
+}
@@ -15,6 +15,18 @@ class AppConfig {
 	public static MyBeanPostProcessor beanPostProcessor() {
 		return new MyBeanPostProcessor();
 	}
+
+	// Times the steps below for every bean created at startup (see StartupProfiler); also static, for the same reason
+	@Bean
+	public static StartupProfiler startupProfiler() {
+		return new StartupProfiler();
+	}
+
+	// Tracks prototypes that have destroy callbacks, destroys them through a PrototypeLease (see PrototypeLifecycleManager)
+	@Bean
+	public static PrototypeLifecycleManager prototypeLifecycleManager() {
+		return new PrototypeLifecycleManager();
+	}
 	
 	// Scope: singleton (default in Spring) → Spring creates one instance per container
 	// Lifecycle hooks:
@@ -30,7 +42,8 @@ class AppConfig {
 	// Important: 
 	// 		- Spring does not manage the full lifecycle of prototype beans. 
 	//		- initMethod is called, but destroyMethod is not called automatically; the caller is responsible for cleanup.
-	@Bean
+	//		- destroyMethod is still declared: PrototypeLease.close() runs it, with @PreDestroy and DisposableBean.destroy
+	@Bean(destroyMethod = "customDestroy")
 	@Scope("prototype")
 	public MyBean prototypeBean() {
 		return new MyBean();
@@ -42,4 +55,7 @@ class AppConfig {
 | --------- | ------------------ | ----------------------- | -------------------------- |
 | Singleton | Yes (`customInit`) | Yes (`customDestroy`)   | Yes (before & after init)  |
 | Prototype | Yes (`customInit`) | No (caller responsible) | Yes (before & after init)  |
+
+With PrototypeLifecycleManager the caller's part is closing a PrototypeLease (steps 8 to 10, like a singleton);
+a prototype that is only dropped is noticed by the GC and counted as leaked.
 */
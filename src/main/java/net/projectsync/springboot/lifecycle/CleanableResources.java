@@ -0,0 +1,22 @@
+package net.projectsync.springboot.lifecycle;
+
+/**
+ * A prototype whose resources (file handles, connections, off-heap memory) can be released without the bean
+ * itself. PrototypeLifecycleManager runs the action once the bean has become unreachable and was never
+ * destroyed through a PrototypeLease.
+ *
+ * The action must not refer to the bean (no lambda or inner class using "this"): a bean reachable from its
+ * own cleanup action is never collected. Hand it the resources instead:
+ *
+ * 	private final FileChannel channel = FileChannel.open(...);
+ *
+ * 	public Runnable cleanupAction() {
+ * 		FileChannel channel = this.channel;
+ * 		return () -> closeQuietly(channel);
+ * 	}
+ */
+public interface CleanableResources {
+
+	// Called once, after the bean's init methods
+	Runnable cleanupAction();
+}
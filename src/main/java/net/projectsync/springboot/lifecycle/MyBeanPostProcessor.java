@@ -2,7 +2,10 @@ package net.projectsync.springboot.lifecycle;
 
 import org.springframework.beans.factory.config.BeanPostProcessor;
 
-class MyBeanPostProcessor implements BeanPostProcessor {
+import net.projectsync.springboot.common.scope.SkipForCompiledPrototypes;
+
+// Only prints for MyBean, which is no @CompiledPrototype
+class MyBeanPostProcessor implements BeanPostProcessor, SkipForCompiledPrototypes {
 
 	@Override
 	public Object postProcessBeforeInitialization(Object bean, String beanName) {
@@ -0,0 +1,22 @@
+package net.projectsync.springboot.lifecycle;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/*
+ * startup.parallel-init.enabled=true: independent groups of singletons are created in parallel at startup
+ * (see ParallelSingletonInitializer). With startup.profiler.enabled=true, the "thread" of every bean in
+ * GET /stats/startup shows where it was created.
+ */
+@Configuration
+@ConditionalOnProperty(name = "startup.parallel-init.enabled", havingValue = "true")
+public class ParallelSingletonInitConfig {
+
+	// static: a BeanFactoryPostProcessor, created before @Value processing, so the Environment is read directly
+	@Bean
+	public static ParallelSingletonInitializer parallelSingletonInitializer(Environment environment) {
+		return new ParallelSingletonInitializer(environment.getProperty("startup.parallel-init.parallelism", Integer.class, 0));
+	}
+}
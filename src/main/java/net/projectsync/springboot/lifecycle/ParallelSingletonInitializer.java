@@ -0,0 +1,354 @@
+package net.projectsync.springboot.lifecycle;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.SimpleAliasRegistry;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Opt-in parallel startup: independent groups of singletons are created on a ForkJoinPool instead of one after
+ * another on the main thread (see SpringBeanLifecycleDemo: AppConfig.singletonBean walks steps 1 to 7 on "main").
+ *
+ * Before any bean is created, the bean definitions are turned into a dependency graph and split into its
+ * connected components. Every bean of a component that can run in the background gets
+ * AbstractBeanDefinition.setBackgroundInit(true) (Spring 6.2), and the pool is registered as the "bootstrapExecutor":
+ * 	component 1: ledger ← paymentService ← paymentController     → one thread
+ * 	component 2: idGenerator                                     → another thread
+ * 	component 3: dataSource ← jdbcTemplate                       → another thread
+ * preInstantiateSingletons() then hands one task per background bean to the executor and waits for all of them
+ * before SmartInitializingSingleton callbacks and ContextRefreshedEvent, so "context ready" still means everything
+ * exists. Spring gives up (BeanCurrentlyInCreationException) when a background thread needs a bean another
+ * background thread is creating, so the executor runs the tasks of one component one after another, in their own
+ * lane: components run in parallel, the beans inside a component do not. The executor only receives Runnables; it
+ * knows which bean a task is for because Spring submits them in bean definition order.
+ *
+ * Ordering guarantees:
+ * 	- dependent beans: a bean and everything it depends on are in the same component, i.e. the same lane;
+ * 	  Spring creates a dependency before the bean that needs it, as on the main thread
+ * 	- BeanPostProcessors (and their dependencies) are created and registered before any singleton, as always;
+ * 	  they are left on the main thread and every background bean goes through all of them
+ * 	- a component stays on the main thread if it has a lazy-init or infrastructure bean
+ *
+ * Dependencies are found from depends-on, factory beans, bean references, constructor / @Bean method parameters
+ * and @Autowired / @Inject / @Resource fields and methods, by type, over-approximated (an ObjectProvider counts,
+ * a @Qualifier does not narrow). A dependency Spring cannot see in advance, e.g. getBean() in an init method,
+ * fails the startup with "Bean marked for mainline initialization but requested in background thread";
+ * declare it with @DependsOn.
+ */
+public class ParallelSingletonInitializer implements BeanFactoryPostProcessor, PriorityOrdered,
+		ApplicationListener<ContextRefreshedEvent>, AutoCloseable {
+
+	private final int parallelism;
+	private final Map<String, String> componentOf = new HashMap<>();
+	private ForkJoinPool pool;
+	private final Map<String, Object> stats = new LinkedHashMap<>();
+
+	// parallelism: threads of the pool, 0 = one per core
+	public ParallelSingletonInitializer(int parallelism) {
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+	}
+
+	// First, so it registers "bootstrapExecutor" before Boot would alias its applicationTaskExecutor to that name
+	@Override
+	public int getOrder() {
+		return HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		Map<String, String> components = new HashMap<>();
+		List<String> candidates = new ArrayList<>();
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			if (!beanFactory.containsSingleton(beanName)) {
+				components.put(beanName, beanName);
+				candidates.add(beanName);
+			}
+		}
+		for (String beanName : candidates) {
+			for (String dependency : dependenciesOf(beanName, beanFactory)) {
+				if (components.containsKey(dependency)) {
+					union(components, beanName, dependency);
+				}
+			}
+		}
+
+		Map<String, List<String>> byComponent = new LinkedHashMap<>();
+		for (String beanName : candidates) {
+			byComponent.computeIfAbsent(find(components, beanName), root -> new ArrayList<>()).add(beanName);
+		}
+		int background = 0;
+		int backgroundComponents = 0;
+		for (List<String> component : byComponent.values()) {
+			if (component.stream().allMatch(beanName -> canRunInBackground(beanName, beanFactory))) {
+				for (String beanName : component) {
+					((AbstractBeanDefinition) beanFactory.getBeanDefinition(beanName)).setBackgroundInit(true);
+					componentOf.put(beanName, component.get(0));
+				}
+				background += component.size();
+				backgroundComponents++;
+			}
+		}
+
+		if (background > 0 && !beanFactory.containsBean(ConfigurableApplicationContext.BOOTSTRAP_EXECUTOR_BEAN_NAME)) {
+			ClassLoader classLoader = beanFactory.getBeanClassLoader();
+			AtomicInteger threads = new AtomicInteger();
+			pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+				thread.setName("bean-init-" + threads.getAndIncrement());
+				thread.setContextClassLoader(classLoader); // the default is the system class loader, not the application's
+				return thread;
+			}, null, false);
+			beanFactory.registerSingleton(ConfigurableApplicationContext.BOOTSTRAP_EXECUTOR_BEAN_NAME, new ComponentLanes(beanFactory));
+		}
+		stats.put("parallelism", parallelism);
+		stats.put("components", byComponent.size());
+		stats.put("backgroundComponents", backgroundComponents);
+		stats.put("backgroundBeans", background);
+		stats.put("mainThreadBeans", candidates.size() - background);
+		System.out.println("Parallel singleton init: " + stats);
+	}
+
+	public Map<String, Object> stats() {
+		return stats;
+	}
+
+	// Background beans are all created once preInstantiateSingletons() returns
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		close();
+	}
+
+	@Override
+	public void close() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * The bootstrap executor: one lane (a chain of CompletableFutures on the pool) per component.
+	 * Task n is for the n-th bean preInstantiateSingletons() starts in the background: the background singletons
+	 * in bean definition order, the order of that loop. Anything else (there is nothing else in Spring 6.2) just
+	 * runs on the pool. Spring does not document that order; ParallelSingletonInitializerTest pins it, so a Spring
+	 * upgrade that changes it fails the build instead of putting dependent beans into different lanes.
+	 */
+	private final class ComponentLanes implements Executor {
+
+		private final ConfigurableListableBeanFactory beanFactory;
+		private final Map<String, CompletableFuture<Void>> lanes = new HashMap<>();
+		private List<String> submissionOrder;
+		private int submitted;
+
+		ComponentLanes(ConfigurableListableBeanFactory beanFactory) {
+			this.beanFactory = beanFactory;
+		}
+
+		@Override
+		public synchronized void execute(Runnable task) {
+			if (submissionOrder == null) {
+				submissionOrder = new ArrayList<>();
+				for (String beanName : beanFactory.getBeanDefinitionNames()) {
+					BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+					if (definition instanceof AbstractBeanDefinition bean && bean.isBackgroundInit() && !bean.isAbstract() && bean.isSingleton()) {
+						submissionOrder.add(beanName);
+					}
+				}
+			}
+			String component = submitted < submissionOrder.size() ? componentOf.get(submissionOrder.get(submitted++)) : null;
+			if (component == null) {
+				pool.execute(task);
+				return;
+			}
+			// Spring's task completes its own future, also on failure, so the lane always moves on
+			lanes.put(component, lanes.getOrDefault(component, CompletableFuture.completedFuture(null)).thenRunAsync(task, pool));
+		}
+	}
+
+	private static boolean canRunInBackground(String beanName, ConfigurableListableBeanFactory beanFactory) {
+		BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+		if (definition.isAbstract() || definition.isLazyInit() || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE
+				|| !(beanFactory.getBeanDefinition(beanName) instanceof AbstractBeanDefinition)) {
+			return false;
+		}
+		Class<?> type = instanceTypeOf(beanName, beanFactory);
+		return type != null && !BeanPostProcessor.class.isAssignableFrom(type) && !BeanFactoryPostProcessor.class.isAssignableFrom(type);
+	}
+
+	// Everything creating beanName may ask the bean factory for, by name; more is fine, less is not
+	private static Set<String> dependenciesOf(String beanName, ConfigurableListableBeanFactory beanFactory) {
+		BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+		Set<String> names = new LinkedHashSet<>();
+		if (definition.getDependsOn() != null) {
+			names.addAll(List.of(definition.getDependsOn()));
+		}
+		if (definition.getFactoryBeanName() != null) {
+			names.add(definition.getFactoryBeanName());
+		}
+		for (ValueHolder value : definition.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+			addReference(value.getValue(), names);
+		}
+		for (ValueHolder value : definition.getConstructorArgumentValues().getGenericArgumentValues()) {
+			addReference(value.getValue(), names);
+		}
+		for (PropertyValue value : definition.getPropertyValues().getPropertyValues()) {
+			addReference(value.getValue(), names);
+		}
+
+		List<ResolvableType> injected = new ArrayList<>();
+		try {
+			for (Method factoryMethod : factoryMethodsOf(definition, beanFactory)) {
+				for (int i = 0; i < factoryMethod.getParameterCount(); i++) {
+					injected.add(ResolvableType.forMethodParameter(new MethodParameter(factoryMethod, i)));
+				}
+			}
+			if (definition.getFactoryMethodName() == null && definition.getBeanClassName() != null) {
+				for (Constructor<?> constructor : beanClassOf(definition, beanFactory).getDeclaredConstructors()) {
+					for (int i = 0; i < constructor.getParameterCount(); i++) {
+						injected.add(ResolvableType.forConstructorParameter(constructor, i));
+					}
+				}
+			}
+			Class<?> type = instanceTypeOf(beanName, beanFactory);
+			for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+				for (Field field : current.getDeclaredFields()) {
+					if (isInjectionPoint(MergedAnnotations.from(field))) {
+						injected.add(ResolvableType.forField(field));
+						names.add(field.getName()); // @Resource falls back to the field name
+					}
+				}
+				for (Method method : current.getDeclaredMethods()) {
+					if (isInjectionPoint(MergedAnnotations.from(method))) {
+						for (int i = 0; i < method.getParameterCount(); i++) {
+							injected.add(ResolvableType.forMethodParameter(new MethodParameter(method, i)));
+						}
+					}
+				}
+			}
+		} catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+			names.addAll(List.of(beanFactory.getBeanDefinitionNames())); // cannot tell: keep it with everything
+		}
+		for (ResolvableType type : injected) {
+			names.addAll(List.of(beanFactory.getBeanNamesForType(beanTypeOf(type), true, false)));
+		}
+
+		Set<String> canonical = new LinkedHashSet<>();
+		for (String name : names) {
+			canonical.add(beanFactory instanceof SimpleAliasRegistry aliases ? aliases.canonicalName(name) : name);
+		}
+		canonical.remove(beanName);
+		return canonical;
+	}
+
+	// The class that gets instantiated: for a FactoryBean the factory, not the object it makes
+	private static Class<?> instanceTypeOf(String beanName, ConfigurableListableBeanFactory beanFactory) {
+		return beanFactory.isFactoryBean(beanName)
+				? beanFactory.getType(BeanFactory.FACTORY_BEAN_PREFIX + beanName, false)
+				: beanFactory.getType(beanName, false);
+	}
+
+	private static boolean isInjectionPoint(MergedAnnotations annotations) {
+		return annotations.isPresent("org.springframework.beans.factory.annotation.Autowired")
+				|| annotations.isPresent("jakarta.inject.Inject")
+				|| annotations.isPresent("jakarta.annotation.Resource");
+	}
+
+	private static void addReference(Object value, Set<String> names) {
+		if (value instanceof RuntimeBeanReference reference) {
+			names.add(reference.getBeanName());
+		}
+	}
+
+	private static List<Method> factoryMethodsOf(BeanDefinition definition, ConfigurableListableBeanFactory beanFactory)
+			throws ClassNotFoundException {
+		String factoryMethodName = definition.getFactoryMethodName();
+		if (factoryMethodName == null) {
+			return List.of();
+		}
+		Class<?> factoryClass = definition.getFactoryBeanName() != null
+				? beanFactory.getType(definition.getFactoryBeanName(), false)
+				: beanClassOf(definition, beanFactory);
+		List<Method> methods = new ArrayList<>();
+		if (factoryClass != null) {
+			for (Method method : ClassUtils.getUserClass(factoryClass).getDeclaredMethods()) {
+				if (method.getName().equals(factoryMethodName)) {
+					methods.add(method); // every overload: Spring picks one only while creating the bean
+				}
+			}
+		}
+		return methods;
+	}
+
+	private static Class<?> beanClassOf(BeanDefinition definition, ConfigurableListableBeanFactory beanFactory)
+			throws ClassNotFoundException {
+		return ClassUtils.forName(definition.getBeanClassName(), beanFactory.getBeanClassLoader());
+	}
+
+	// ObjectProvider<Ledger>, Optional<Ledger>, List<Ledger>, Map<String, Ledger>, Ledger[] → Ledger
+	private static ResolvableType beanTypeOf(ResolvableType type) {
+		if (type == ResolvableType.NONE) {
+			return ResolvableType.forClass(Object.class); // unknown generic: could be any bean
+		}
+		Class<?> raw = type.resolve(Object.class);
+		if (ObjectFactory.class.isAssignableFrom(raw) || raw == Optional.class || Collection.class.isAssignableFrom(raw)
+				|| raw.getName().equals("jakarta.inject.Provider")) {
+			return beanTypeOf(type.getGeneric(0));
+		}
+		if (Map.class.isAssignableFrom(raw)) {
+			return beanTypeOf(type.getGeneric(1));
+		}
+		if (type.isArray()) {
+			return beanTypeOf(type.getComponentType());
+		}
+		return type;
+	}
+
+	private static String find(Map<String, String> parents, String beanName) {
+		String root = beanName;
+		while (!parents.get(root).equals(root)) {
+			root = parents.get(root);
+		}
+		parents.put(beanName, root);
+		return root;
+	}
+
+	private static void union(Map<String, String> parents, String a, String b) {
+		String rootA = find(parents, a);
+		String rootB = find(parents, b);
+		if (!rootA.equals(rootB)) {
+			parents.put(rootB, rootA);
+		}
+	}
+}
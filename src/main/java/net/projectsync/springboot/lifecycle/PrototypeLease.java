@@ -0,0 +1,35 @@
+package net.projectsync.springboot.lifecycle;
+
+/**
+ * A prototype bean that is destroyed when the lease is closed: @PreDestroy, DisposableBean.destroy() and the
+ * destroy method, the steps 8 to 10 the container never runs for prototypes.
+ *
+ * 	try (PrototypeLease<MyBean> lease = prototypeLifecycleManager.lease("prototypeBean", MyBean.class)) {
+ * 		lease.get().doWork();
+ * 	}
+ *
+ * The bean must not be used after close(). Closing twice destroys it once.
+ */
+public final class PrototypeLease<T> implements AutoCloseable {
+
+	private final T bean;
+	private final Runnable release;
+	private boolean closed;
+
+	PrototypeLease(T bean, Runnable release) {
+		this.bean = bean;
+		this.release = release;
+	}
+
+	public T get() {
+		return bean;
+	}
+
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			release.run();
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package net.projectsync.springboot.lifecycle;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * prototype.lifecycle.enabled=true: tracks prototypes with destroy callbacks (see PrototypeLifecycleManager),
+ * counters served by the importing application, e.g. GET /stats/prototypes in SpringbootConceptsApplication.
+ */
+@Configuration
+@ConditionalOnProperty(name = "prototype.lifecycle.enabled", havingValue = "true")
+public class PrototypeLifecycleConfig {
+
+	// static: created with the other BeanPostProcessors, before the prototypes it tracks
+	@Bean
+	public static PrototypeLifecycleManager prototypeLifecycleManager() {
+		return new PrototypeLifecycleManager();
+	}
+}
@@ -0,0 +1,206 @@
+package net.projectsync.springboot.lifecycle;
+
+import java.lang.ref.Cleaner;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanFactory;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+import net.projectsync.springboot.common.scope.SkipForCompiledPrototypes;
+
+/**
+ * Destruction for prototype beans, which the container creates and then forgets (see AppConfig.prototypeBean):
+ * every prototype with something to destroy (@PreDestroy, DisposableBean, AutoCloseable, a destroy method) is
+ * tracked from the moment it is initialized, in one of two ways out:
+ * 	- explicitly, through a PrototypeLease (try-with-resources): the bean factory runs steps 8 to 10,
+ * 	  exactly as for a singleton on shutdown
+ * 	- when the GC finds the bean unreachable (java.lang.ref.Cleaner): the bean is gone by then, so its destroy
+ * 	  methods cannot run; what runs is the cleanup action of a CleanableResources bean, which holds the
+ * 	  resources but not the bean. A bean without one is counted as "leaked": it was never destroyed.
+ * Either way the tracking entry goes away with the bean, so sustained prototype churn keeps memory flat;
+ * stats() shows the counts (live should level off, leaked should stay 0).
+ *
+ * Runs after the other BeanPostProcessors, so it tracks the object callers actually get (e.g. an AOP proxy).
+ * Only afterInitialization does anything, so the factories of @CompiledPrototype beans skip it (SkipForCompiledPrototypes).
+ * Declare it with a static @Bean method, like MyBeanPostProcessor.
+ */
+public class PrototypeLifecycleManager implements BeanPostProcessor, BeanFactoryAware, Ordered, SkipForCompiledPrototypes {
+
+	private static final Cleaner CLEANER = Cleaner.create(); // one daemon thread for all managers
+
+	private ConfigurableListableBeanFactory beanFactory;
+
+	// Set while lease() creates a bean on this thread: the tracking entries of the beans it creates
+	private final ThreadLocal<Map<Object, Tracked>> leasing = new ThreadLocal<>();
+
+	private final LongAdder tracked = new LongAdder();
+	private final LongAdder live = new LongAdder();
+	private final LongAdder destroyed = new LongAdder();
+	private final LongAdder cleaned = new LongAdder();
+	private final LongAdder leaked = new LongAdder();
+	private final LongAdder cleanupFailures = new LongAdder();
+
+	// One tracked prototype. Must not refer to the bean: the Cleaner keeps it reachable until the bean is collected
+	private final class Tracked implements Runnable {
+
+		final String beanName;
+		final Runnable cleanupAction; // null: nothing can be done without the bean
+		final AtomicBoolean done = new AtomicBoolean();
+		Cleaner.Cleanable cleanable;
+
+		Tracked(String beanName, Runnable cleanupAction) {
+			this.beanName = beanName;
+			this.cleanupAction = cleanupAction;
+		}
+
+		// Cleaner thread, the bean is unreachable; or clean() after destroy(), then it does nothing
+		@Override
+		public void run() {
+			if (!done.compareAndSet(false, true)) {
+				return;
+			}
+			live.decrement();
+			if (cleanupAction == null) {
+				leaked.increment();
+				return;
+			}
+			try {
+				cleanupAction.run();
+				cleaned.increment();
+			} catch (RuntimeException e) {
+				cleanupFailures.increment();
+				System.err.println("Cleanup of an unreachable " + beanName + " failed: " + e);
+			}
+		}
+
+		void destroy(Object bean) {
+			if (done.compareAndSet(false, true)) {
+				live.decrement();
+				beanFactory.destroyBean(beanName, bean);
+				destroyed.increment();
+				cleanable.clean(); // unregisters it from the Cleaner
+			}
+		}
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!beanFactory.containsBeanDefinition(beanName)) {
+			return bean; // registered singleton, or an inner bean
+		}
+		BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+		if (!definition.isPrototype() || !requiresDestruction(bean, definition)) {
+			return bean;
+		}
+		Tracked entry = new Tracked(beanName, bean instanceof CleanableResources resources ? resources.cleanupAction() : null);
+		entry.cleanable = CLEANER.register(bean, entry);
+		tracked.increment();
+		live.increment();
+		Map<Object, Tracked> leased = leasing.get();
+		if (leased != null) {
+			leased.put(bean, entry);
+		}
+		return bean;
+	}
+
+	// What DisposableBeanAdapter would call when destroying the bean
+	private boolean requiresDestruction(Object bean, BeanDefinition definition) {
+		if (bean instanceof DisposableBean || bean instanceof AutoCloseable) {
+			return true;
+		}
+		if (definition instanceof AbstractBeanDefinition abstractDefinition && abstractDefinition.getDestroyMethodNames() != null) {
+			for (String destroyMethodName : abstractDefinition.getDestroyMethodNames()) {
+				if (AbstractBeanDefinition.INFER_METHOD.equals(destroyMethodName)
+						? ClassUtils.hasMethod(bean.getClass(), "close") || ClassUtils.hasMethod(bean.getClass(), "shutdown")
+						: !destroyMethodName.isEmpty()) {
+					return true;
+				}
+			}
+		}
+		if (beanFactory instanceof AbstractBeanFactory abstractBeanFactory) {
+			// @PreDestroy (CommonAnnotationBeanPostProcessor) and other destruction-aware processors
+			for (BeanPostProcessor processor : abstractBeanFactory.getBeanPostProcessors()) {
+				if (processor instanceof DestructionAwareBeanPostProcessor destructionAware && destructionAware.requiresDestruction(bean)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public <T> PrototypeLease<T> lease(Class<T> type) {
+		String[] beanNames = beanFactory.getBeanNamesForType(type);
+		if (beanNames.length == 0) {
+			throw new NoSuchBeanDefinitionException(type);
+		}
+		if (beanNames.length > 1) {
+			throw new NoUniqueBeanDefinitionException(type, beanNames);
+		}
+		return lease(beanNames[0], type);
+	}
+
+	// A new instance of the prototype beanName, destroyed when the lease is closed
+	public <T> PrototypeLease<T> lease(String beanName, Class<T> type) {
+		if (!beanFactory.isPrototype(beanName)) {
+			throw new IllegalArgumentException("Not a prototype bean: " + beanName);
+		}
+		Map<Object, Tracked> previous = leasing.get();
+		Map<Object, Tracked> created = new IdentityHashMap<>();
+		leasing.set(created);
+		T bean;
+		try {
+			bean = beanFactory.getBean(beanName, type);
+		} finally {
+			leasing.set(previous);
+		}
+		Tracked entry = created.get(bean);
+		if (entry == null) {
+			return new PrototypeLease<>(bean, () -> { }); // nothing to destroy
+		}
+		return new PrototypeLease<>(bean, () -> entry.destroy(bean));
+	}
+
+	/**
+	 * Counts since startup:
+	 * 	tracked     prototypes with destroy callbacks created
+	 * 	live        tracked, not yet destroyed or collected
+	 * 	destroyed   destroyed through a PrototypeLease
+	 * 	cleaned     collected, cleanup action of CleanableResources run
+	 * 	leaked      collected without ever being destroyed
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("tracked", tracked.sum());
+		stats.put("live", live.sum());
+		stats.put("destroyed", destroyed.sum());
+		stats.put("cleaned", cleaned.sum());
+		stats.put("leaked", leaked.sum());
+		stats.put("cleanupFailures", cleanupFailures.sum());
+		return stats;
+	}
+}
@@ -1,22 +1,37 @@
 package net.projectsync.springboot.lifecycle;
 
+import java.util.Map;
+
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.support.AbstractApplicationContext;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 public class SpringBeanLifecycleDemo {
 	
-	public static void main(String[] args) {
+	public static void main(String[] args) throws JsonProcessingException, InterruptedException {
 		
 		AbstractApplicationContext context = new AnnotationConfigApplicationContext(AppConfig.class);
 
+		printStartupReport(context);
 		accessSingletonBeans(context);
 		accessPrototypeBeans(context);
+		printPrototypeStats(context);
 		
 		System.out.println("\n--- Closing context: singleton beans will be destroyed automatically ---");
 		System.out.println("Note: Singleton bean being destroyed: " + context.getBean("singletonBean", MyBean.class).hashCode());
 		context.close(); // triggers destruction of singleton beans only. steps 8 to 10 called once during application termination
 	}
 
+	// Steps 1 to 7 of singletonBean (and of every other startup bean) timed by StartupProfiler
+	private static void printStartupReport(AbstractApplicationContext context) throws JsonProcessingException {
+
+		System.out.println("\n--- Startup profile ---");
+		Map<String, Object> report = context.getBean(StartupProfiler.class).report();
+		System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+	}
+
 	private static void accessSingletonBeans(AbstractApplicationContext context) {
 
 		System.out.println("\n--- Accessing Singleton Bean starts ---"); // steps 1 to 7 called only once during application startup. It doesn't matter how many times we request for bean
@@ -36,32 +51,51 @@ public class SpringBeanLifecycleDemo {
 
 	private static void accessPrototypeBeans(AbstractApplicationContext context) {
 
+		PrototypeLifecycleManager prototypeLifecycleManager = context.getBean(PrototypeLifecycleManager.class);
+
 		System.out.println("\n--- Accessing Prototype Beans starts ---"); // steps 1 to 6 called each time we request for bean. It is not called during application start-up. Here it is called twice
 		System.out.println("Note: PrototypeBean created on request");
-		MyBean prototypeBean1 = (MyBean) context.getBean("prototypeBean");
-		System.out.println();
-		MyBean prototypeBean2 = (MyBean) context.getBean("prototypeBean");
-		System.out.println("--- Accessing Prototype Beans ends ---");
-
-		System.out.println("\n--- Prototype Beans ready to use starts ---");
-		System.out.println("prototypeBean1 hashCode: " + prototypeBean1.hashCode());
-		System.out.println("prototypeBean2 hashCode: " + prototypeBean2.hashCode());
-		System.out.println("--- Prototype Beans ready to use ends ---");
-		
-		System.out.println("\n--- PrototypeBean destruction (Manual) for prototypeBean1 ---");
-		destroyPrototypeBean(prototypeBean1);
-		
-		System.out.println("\n--- PrototypeBean destruction (Manual) for prototypeBean1 ---");
-		destroyPrototypeBean(prototypeBean2);		
+		// prototypeBean1 through a lease: closing it runs steps 8 to 10 through the bean factory
+		try (PrototypeLease<MyBean> lease = prototypeLifecycleManager.lease("prototypeBean", MyBean.class)) {
+			MyBean prototypeBean1 = lease.get();
+			System.out.println();
+			MyBean prototypeBean2 = (MyBean) context.getBean("prototypeBean");
+			System.out.println("--- Accessing Prototype Beans ends ---");
+
+			System.out.println("\n--- Prototype Beans ready to use starts ---");
+			System.out.println("prototypeBean1 hashCode: " + prototypeBean1.hashCode());
+			System.out.println("prototypeBean2 hashCode: " + prototypeBean2.hashCode());
+			System.out.println("--- Prototype Beans ready to use ends ---");
+
+			System.out.println("\n--- PrototypeBean destruction (Lease) for prototypeBean1 ---");
+			System.out.println("Note: Prototype bean being destroyed: " + prototypeBean1.hashCode());
+			lease.close(); // the end of the try block would close it too; closing twice destroys once
+
+			System.out.println("\n--- PrototypeBean destruction (Manual) for prototypeBean2 ---");
+			destroyPrototypeBean(prototypeBean2);
+		}
 	}
-	
+
+	// Without a lease: the caller runs steps 8 to 10 itself. PrototypeLifecycleManager does not see this,
+	// so once the bean is collected it counts it as leaked
 	private static void destroyPrototypeBean(MyBean bean) {
 
 		System.out.println("Note: Prototype bean being destroyed: " + bean.hashCode());
 		bean.preDestroy();
 	    bean.destroy();
 	    bean.customDestroy();
-	}	
+	}
+
+	// Called once accessPrototypeBeans has returned: nothing refers to prototypeBean2 any more
+	private static void printPrototypeStats(AbstractApplicationContext context) throws InterruptedException {
+
+		PrototypeLifecycleManager prototypeLifecycleManager = context.getBean(PrototypeLifecycleManager.class);
+		for (int i = 0; i < 10 && (long) prototypeLifecycleManager.stats().get("live") > 0; i++) {
+			System.gc(); // the Cleaner notices it once the GC has collected it
+			Thread.sleep(50);
+		}
+		System.out.println("\nPrototype lifecycle: " + prototypeLifecycleManager.stats());
+	}
 }
 
 /* 
@@ -77,6 +111,9 @@ public class SpringBeanLifecycleDemo {
 7. Custom init-method called
    [BPP] afterInitialization
 
+--- Startup profile ---
+{ ... per-bean timings, see StartupProfiler ... }
+
 --- Accessing Singleton Bean starts ---
 Note: singletonBean already created during start up
 --- Accessing Singleton Bean ends ---
@@ -118,18 +155,20 @@ prototypeBean1 hashCode: 423583818
 prototypeBean2 hashCode: 552936351
 --- Prototype Beans ready to use ends ---
 
---- PrototypeBean destruction (Manual) for prototypeBean1 ---
+--- PrototypeBean destruction (Lease) for prototypeBean1 ---
 Note: Prototype bean being destroyed: 423583818
 8. @PreDestroy called
 9. DisposableBean.destroy called
 10. Custom destroy-method called
 
---- PrototypeBean destruction (Manual) for prototypeBean1 ---
+--- PrototypeBean destruction (Manual) for prototypeBean2 ---
 Note: Prototype bean being destroyed: 552936351
 8. @PreDestroy called
 9. DisposableBean.destroy called
 10. Custom destroy-method called
 
+Prototype lifecycle: {tracked=2, live=0, destroyed=1, cleaned=0, leaked=1, cleanupFailures=0}
+
 --- Closing context: singleton beans will be destroyed automatically ---
 Note: Singleton bean being destroyed: 1620948027
 8. @PreDestroy called
@@ -151,14 +190,16 @@ Note: Singleton bean being destroyed: 1620948027
 | 5    | `@PostConstruct` `postConstruct()`                  | Spring container after dependencies are injected             | Singleton & Prototype | Called after all injections; used for setup that depends on injected properties                  | Prints current `data` and `randomValue`            |               |
 | 6    | `afterPropertiesSet()`                              | Spring container (`InitializingBean`)                        | Singleton & Prototype | Provides callback for initialization logic or validation after properties are set                | Validates `randomValue`, warns if invalid          |               |
 | 7    | Custom init method `customInit()`                   | Spring container if defined via `@Bean(initMethod="...")`    | Singleton & Prototype | Final initialization step; any setup required before bean is ready                               | Updates `data` to `"...                            | initialized"` |
-| 8    | `@PreDestroy` `preDestroy()`                        | Spring container on `context.close()`                        | Singleton only        | Cleanup before destruction; resource release                                                     | Logs cleanup message                               |               |
-| 9    | `destroy()`                                         | Spring container (`DisposableBean`)                          | Singleton only        | Interface-based destruction; cleanup logic                                                       | Releases resources like connections                |               |
-| 10   | Custom destroy method `customDestroy()`             | Spring container if defined via `@Bean(destroyMethod="...")` | Singleton only        | Last destruction step; can perform additional cleanup                                            | Final cleanup message                              |               |
+| 8    | `@PreDestroy` `preDestroy()`                        | Spring container on `context.close()` / `PrototypeLease.close()` | Singleton (+ leased prototype) | Cleanup before destruction; resource release                                                     | Logs cleanup message                               |               |
+| 9    | `destroy()`                                         | Spring container (`DisposableBean`)                          | Singleton (+ leased prototype) | Interface-based destruction; cleanup logic                                                       | Releases resources like connections                |               |
+| 10   | Custom destroy method `customDestroy()`             | Spring container if defined via `@Bean(destroyMethod="...")` | Singleton (+ leased prototype) | Last destruction step; can perform additional cleanup                                            | Final cleanup message                              |               |
 
 
 Notes:
  - Singleton beans: All steps (1–10) are executed automatically by Spring.
- - Prototype beans: Steps 8–10 are not automatic; you need to call preDestroy(), destroy(), and customDestroy() manually if cleanup is needed.
+ - Prototype beans: Steps 8–10 are not automatic. Either get the bean through PrototypeLifecycleManager.lease() and close the
+   lease (the bean factory runs steps 8–10, as for prototypeBean1), or call preDestroy(), destroy() and customDestroy()
+   manually (prototypeBean2). A manually destroyed or simply dropped prototype is counted as "leaked" once it is collected.
  - Step order is exactly the Spring bean lifecycle sequence.
  - The data / randomValue examples show how bean state can change at each lifecycle stage.
 */
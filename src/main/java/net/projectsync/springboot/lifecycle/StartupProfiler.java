@@ -0,0 +1,319 @@
+package net.projectsync.springboot.lifecycle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import net.projectsync.springboot.common.scope.SkipForCompiledPrototypes;
+
+/**
+ * Times every step of SpringBeanLifecycleDemo's walk (constructor, Aware callbacks, @PostConstruct, init methods)
+ * for every singleton created until the context is refreshed, then reports the dependency chain that decides
+ * how long startup takes.
+ *
+ * A BeanPostProcessor only sees the bean at fixed points, so the phases are the gaps between them. Two
+ * processors give the marks: this one runs after all others (Spring moves the @Autowired / @PostConstruct
+ * processors to the end of the list, this one sorts after them), a second one is added in front of them:
+ * 	[first] beforeInstantiation ─ instantiation ─ [first] afterInstantiation
+ * 	        ─ injection ─     [last] postProcessProperties      (@Autowired / @Value / @Resource done)
+ * 	        ─ aware ─         [first] beforeInitialization      (BeanNameAware, BeanFactoryAware, ApplicationContextAware done)
+ * 	        ─ postConstruct ─ [last] beforeInitialization       (@PostConstruct done, via CommonAnnotationBeanPostProcessor)
+ * 	        ─ initMethods ─   [first] afterInitialization       (afterPropertiesSet + custom init method: Spring calls
+ * 	                                                             them back to back, no callback in between)
+ * 	        ─ postProcess ─   [last] afterInitialization        (other processors' after hooks, e.g. AOP proxies)
+ * A bean created while another is being created (constructor or @Autowired dependency) is timed on its own and
+ * subtracted from the phase of the outer bean it happened in, so self times add up to the time spent.
+ *
+ * The critical path is the chain of dependencies (BeanFactory.getDependenciesForBean) with the largest sum of
+ * self times: the startup time that would remain if independent beans were created in parallel. Beans on it
+ * are the ones worth making lazy or faster; the rest only cost time because singletons are created one by one.
+ *
+ * A @CompiledPrototype bean is created by its generated factory in one step, without the beforeInitialization
+ * marks (SkipForCompiledPrototypes, there are no Aware / @PostConstruct steps to separate): its time is all in one phase.
+ *
+ * Beans created before this processor (BeanFactoryPostProcessors, other PriorityOrdered BeanPostProcessors)
+ * are not seen. Declare it with a static @Bean method, like MyBeanPostProcessor.
+ */
+public class StartupProfiler implements InstantiationAwareBeanPostProcessor, MergedBeanDefinitionPostProcessor,
+		PriorityOrdered, BeanFactoryAware, ApplicationListener<ContextRefreshedEvent>, SkipForCompiledPrototypes {
+
+	private static final String[] PHASES = { "instantiation", "injection", "aware", "postConstruct", "initMethods", "postProcess" };
+
+	private static final int SLOWEST_BEANS = 10;
+
+	private final long startNanos = System.nanoTime();
+	private final Map<String, Timing> timings = new ConcurrentHashMap<>();
+	private final ThreadLocal<Deque<Timing>> inCreation = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private ConfigurableBeanFactory beanFactory;
+	private volatile long readyNanos;
+
+	// One bean: PHASES.length + 1 marks, and the time nested beans took inside each phase
+	private static final class Timing {
+
+		final String beanName;
+		final String type;
+		final String thread = Thread.currentThread().getName();
+		final long[] marks = new long[PHASES.length + 1];
+		final long[] nested = new long[PHASES.length];
+		int reached;
+
+		Timing(String beanName, Class<?> type, long now) {
+			this.beanName = beanName;
+			this.type = type.getName();
+			this.marks[0] = now;
+		}
+
+		void mark(int index, long now) {
+			if (index > reached) {
+				for (int i = reached + 1; i < index; i++) {
+					marks[i] = now; // a skipped hook (e.g. no injection step for this bean) is an empty phase
+				}
+				marks[index] = now;
+				reached = index;
+			}
+		}
+
+		long total() {
+			return marks[reached] - marks[0];
+		}
+
+		long self() {
+			long self = total();
+			for (long nestedNanos : nested) {
+				self -= nestedNanos;
+			}
+			return self;
+		}
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.beanFactory = (ConfigurableBeanFactory) beanFactory;
+		this.beanFactory.addBeanPostProcessor(new FirstMarks());
+	}
+
+	// After CommonAnnotationBeanPostProcessor and AutowiredAnnotationBeanPostProcessor (both LOWEST_PRECEDENCE - n)
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	@Override
+	public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
+		// only implemented to be registered with the @Autowired / @PostConstruct processors, at the end of the list
+	}
+
+	@Override
+	public PropertyValues postProcessProperties(PropertyValues pvs, Object bean, String beanName) {
+		mark(beanName, 2);
+		return pvs;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		mark(beanName, 4);
+		return bean;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		Deque<Timing> stack = inCreation.get();
+		Timing timing = find(stack, beanName);
+		if (timing == null) {
+			return bean; // not profiled, or an object returned by a FactoryBean (after-init hook only)
+		}
+		timing.mark(6, System.nanoTime());
+		while (stack.pop() != timing) {
+			// beans above it whose creation failed
+		}
+		Timing outer = stack.peek();
+		if (outer != null) {
+			outer.nested[Math.min(outer.reached, PHASES.length - 1)] += timing.total();
+		}
+		if (readyNanos == 0) {
+			timings.put(beanName, timing);
+		}
+		return bean;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (readyNanos == 0 && event.getApplicationContext().getAutowireCapableBeanFactory() == beanFactory) {
+			readyNanos = System.nanoTime(); // later beans (prototypes, lazy singletons) are not startup
+		}
+	}
+
+	private void mark(String beanName, int index) {
+		Timing timing = find(inCreation.get(), beanName);
+		if (timing != null) {
+			timing.mark(index, System.nanoTime());
+		}
+	}
+
+	private static Timing find(Deque<Timing> stack, String beanName) {
+		for (Timing timing : stack) {
+			if (timing.beanName.equals(beanName)) {
+				return timing;
+			}
+		}
+		return null;
+	}
+
+	// Added in front of the other processors by setBeanFactory
+	private final class FirstMarks implements InstantiationAwareBeanPostProcessor, SkipForCompiledPrototypes {
+
+		@Override
+		public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+			if (readyNanos == 0) {
+				inCreation.get().push(new Timing(beanName, beanClass, System.nanoTime()));
+			}
+			return null;
+		}
+
+		@Override
+		public boolean postProcessAfterInstantiation(Object bean, String beanName) {
+			mark(beanName, 1);
+			return true;
+		}
+
+		@Override
+		public Object postProcessBeforeInitialization(Object bean, String beanName) {
+			mark(beanName, 3);
+			return bean;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			mark(beanName, 5);
+			return bean;
+		}
+	}
+
+	// Entry of criticalPath and slowestBeans
+	public record BeanTime(String bean, long selfMicros) {
+	}
+
+	/**
+	 * Report as nested maps (rendered as JSON by Jackson), times in microseconds:
+	 * 	contextReadyMicros, profiledBeans, selfMicrosTotal,
+	 * 	criticalPath {micros, beans [{bean, selfMicros}]}, slowestBeans [...], beans {name → timing}
+	 */
+	public Map<String, Object> report() {
+		Map<String, Timing> snapshot = new HashMap<>(timings);
+		Map<String, List<String>> dependencies = new HashMap<>();
+		for (String beanName : snapshot.keySet()) {
+			List<String> profiled = new ArrayList<>();
+			for (String dependency : beanFactory.getDependenciesForBean(beanName)) {
+				if (snapshot.containsKey(dependency)) {
+					profiled.add(dependency);
+				}
+			}
+			dependencies.put(beanName, profiled);
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		long ready = readyNanos;
+		report.put("contextReadyMicros", ready == 0 ? null : micros(ready - startNanos));
+		report.put("profiledBeans", snapshot.size());
+		report.put("selfMicrosTotal", micros(snapshot.values().stream().mapToLong(Timing::self).sum()));
+		report.put("criticalPath", criticalPath(snapshot, dependencies));
+		report.put("slowestBeans", snapshot.values().stream()
+				.sorted(Comparator.comparingLong(Timing::self).reversed())
+				.limit(SLOWEST_BEANS)
+				.map(timing -> new BeanTime(timing.beanName, micros(timing.self())))
+				.toList());
+		Map<String, Object> beans = new LinkedHashMap<>();
+		snapshot.values().stream()
+				.sorted(Comparator.comparingLong(timing -> timing.marks[0]))
+				.forEach(timing -> beans.put(timing.beanName, describe(timing, dependencies.get(timing.beanName))));
+		report.put("beans", beans);
+		return report;
+	}
+
+	private Map<String, Object> describe(Timing timing, List<String> dependencies) {
+		Map<String, Object> bean = new LinkedHashMap<>();
+		bean.put("type", timing.type);
+		bean.put("thread", timing.thread);
+		bean.put("startMicros", micros(timing.marks[0] - startNanos));
+		bean.put("totalMicros", micros(timing.total()));
+		bean.put("selfMicros", micros(timing.self()));
+		Map<String, Long> phases = new LinkedHashMap<>();
+		for (int i = 0; i < PHASES.length; i++) {
+			phases.put(PHASES[i], micros(timing.marks[i + 1] - timing.marks[i] - timing.nested[i]));
+		}
+		bean.put("phases", phases);
+		bean.put("dependencies", dependencies);
+		return bean;
+	}
+
+	// Longest chain by self time; a cycle (circular setter injection) is cut where it is found
+	private static Map<String, Object> criticalPath(Map<String, Timing> timings, Map<String, List<String>> dependencies) {
+		Map<String, Long> costs = new HashMap<>();
+		Map<String, String> next = new HashMap<>();
+		Set<String> visiting = new HashSet<>();
+		String head = null;
+		for (String beanName : timings.keySet()) {
+			long cost = cost(beanName, timings, dependencies, costs, next, visiting);
+			if (head == null || cost > costs.get(head)) {
+				head = beanName;
+			}
+		}
+		List<BeanTime> path = new ArrayList<>();
+		for (String beanName = head; beanName != null; beanName = next.get(beanName)) {
+			path.add(new BeanTime(beanName, micros(timings.get(beanName).self())));
+		}
+		Map<String, Object> criticalPath = new LinkedHashMap<>();
+		criticalPath.put("micros", head == null ? 0 : micros(costs.get(head)));
+		criticalPath.put("beans", path);
+		return criticalPath;
+	}
+
+	private static long cost(String beanName, Map<String, Timing> timings, Map<String, List<String>> dependencies,
+			Map<String, Long> costs, Map<String, String> next, Set<String> visiting) {
+		Long known = costs.get(beanName);
+		if (known != null) {
+			return known;
+		}
+		if (!visiting.add(beanName)) {
+			return 0;
+		}
+		long longest = 0;
+		for (String dependency : dependencies.get(beanName)) {
+			long cost = cost(dependency, timings, dependencies, costs, next, visiting);
+			if (cost > longest) {
+				longest = cost;
+				next.put(beanName, dependency);
+			}
+		}
+		visiting.remove(beanName);
+		long cost = timings.get(beanName).self() + longest;
+		costs.put(beanName, cost);
+		return cost;
+	}
+
+	private static long micros(long nanos) {
+		return nanos / 1_000;
+	}
+}
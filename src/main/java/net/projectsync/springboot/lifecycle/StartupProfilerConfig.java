@@ -0,0 +1,20 @@
+package net.projectsync.springboot.lifecycle;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * startup.profiler.enabled=true: per-bean startup timings and the critical path (see StartupProfiler),
+ * served by the importing application, e.g. GET /stats/startup in SpringbootConceptsApplication.
+ */
+@Configuration
+@ConditionalOnProperty(name = "startup.profiler.enabled", havingValue = "true")
+public class StartupProfilerConfig {
+
+	// static: created with the other BeanPostProcessors, before the beans it times
+	@Bean
+	public static StartupProfiler startupProfiler() {
+		return new StartupProfiler();
+	}
+}
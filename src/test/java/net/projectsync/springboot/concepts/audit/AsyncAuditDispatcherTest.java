@@ -0,0 +1,115 @@
+package net.projectsync.springboot.concepts.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import net.projectsync.springboot.beanscopes.audit.AsyncAuditDispatcher;
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+import net.projectsync.springboot.beanscopes.audit.OverflowPolicy;
+
+class AsyncAuditDispatcherTest {
+
+    @Test
+    @DisplayName("All records from concurrent producers reach the sink")
+    void deliversAllRecords() throws Exception {
+        RecordingSink sink = new RecordingSink(null);
+        AsyncAuditDispatcher dispatcher = new AsyncAuditDispatcher(sink, 64, OverflowPolicy.BLOCK, 16);
+
+        int producers = 4;
+        int perProducer = 5_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    dispatcher.publish("p" + id + "-" + i);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        dispatcher.close();
+
+        assertThat(sink.records).hasSize(producers * perProducer);
+        assertThat(dispatcher.getDroppedCount()).isZero();
+        assertThat(dispatcher.getBatchCount()).isLessThanOrEqualTo(producers * perProducer);
+    }
+
+    @Test
+    @DisplayName("DROP_NEWEST keeps queued records and rejects new ones when full")
+    void dropNewest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        AsyncAuditDispatcher dispatcher = new AsyncAuditDispatcher(sink, 4, OverflowPolicy.DROP_NEWEST, 1);
+
+        dispatcher.publish("first");       // taken by the drain thread, which then blocks in the sink
+        sink.awaitFirstWrite();
+        for (int i = 0; i < 10; i++) {
+            dispatcher.publish("m" + i);   // only 4 fit
+        }
+        release.countDown();
+        dispatcher.close();
+
+        assertThat(sink.records).containsExactly("first", "m0", "m1", "m2", "m3");
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST evicts queued records in favour of new ones when full")
+    void dropOldest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        AsyncAuditDispatcher dispatcher = new AsyncAuditDispatcher(sink, 4, OverflowPolicy.DROP_OLDEST, 1);
+
+        dispatcher.publish("first");
+        sink.awaitFirstWrite();
+        for (int i = 0; i < 10; i++) {
+            dispatcher.publish("m" + i);
+        }
+        release.countDown();
+        dispatcher.close();
+
+        assertThat(sink.records).containsExactly("first", "m6", "m7", "m8", "m9");
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(6);
+    }
+
+    // Copies records (the dispatcher reuses its buffers); optionally blocks on the first write
+    private static class RecordingSink implements AuditSink {
+
+        final List<String> records = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch release;
+        private final CountDownLatch firstWrite = new CountDownLatch(1);
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void write(CharSequence record) {
+            records.add(record.toString());
+            firstWrite.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        void awaitFirstWrite() throws InterruptedException {
+            firstWrite.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package net.projectsync.springboot.concepts.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.projectsync.springboot.beanscopes.audit.AuditJournal;
+import net.projectsync.springboot.beanscopes.audit.AuditJournalReader;
+import net.projectsync.springboot.beanscopes.audit.FsyncPolicy;
+
+class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Records roll over segments and are read back in append order")
+    void rollsSegmentsAndReadsBackInOrder() {
+        List<String> written = new ArrayList<>();
+        AuditJournal journal = new AuditJournal(directory, 1024, FsyncPolicy.SEGMENT, Duration.ofSeconds(1));
+        for (int i = 0; i < 200; i++) {
+            String record = "Processing transaction: " + i + " from ACC1 to ACC2 ✓";
+            journal.write(record);
+            written.add(record);
+        }
+        journal.close();
+
+        assertThat(journal.getSegmentIndex()).isGreaterThan(0);
+        assertThat(readAll()).containsExactlyElementsOf(written);
+    }
+
+    @Test
+    @DisplayName("Reopening a journal appends after the last complete record")
+    void reopenContinuesAfterLastRecord() {
+        AuditJournal first = new AuditJournal(directory, 4096, FsyncPolicy.INTERVAL, Duration.ZERO);
+        first.write("one");
+        first.write("two");
+        first.flush();
+        first.close();
+
+        AuditJournal second = new AuditJournal(directory, 4096, FsyncPolicy.INTERVAL, Duration.ZERO);
+        second.write("three");
+        second.close();
+
+        assertThat(readAll()).containsExactly("one", "two", "three");
+    }
+
+    @Test
+    @DisplayName("Bytes of a torn record are cleared on reopen, so a shorter record written over them reads back alone")
+    void reopenClearsTornRecord() throws Exception {
+        AuditJournal first = new AuditJournal(directory, 4096, FsyncPolicy.SEGMENT, Duration.ofSeconds(1));
+        first.write("one");
+        first.close();
+        // a crash after the payload was copied but before its length: length stays 0, the bytes are there.
+        // Behind a 1-byte record they would read as a 5-byte record "stale".
+        Path segment;
+        try (var files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { '?', 0, 0, 0, 5, 's', 't', 'a', 'l', 'e' }), 4 + 3 + 4);
+        }
+
+        AuditJournal second = new AuditJournal(directory, 4096, FsyncPolicy.SEGMENT, Duration.ofSeconds(1));
+        second.write("x");
+        second.close();
+
+        assertThat(readAll()).containsExactly("one", "x");
+    }
+
+    @Test
+    @DisplayName("A record larger than a segment is truncated to fit instead of failing the caller")
+    void truncatesOversizedRecords() {
+        AuditJournal journal = new AuditJournal(directory, 1024, FsyncPolicy.SEGMENT, Duration.ofSeconds(1));
+        journal.write("before");
+        journal.write("x".repeat(5000));
+        journal.write("after");
+        journal.close();
+
+        List<String> records = readAll();
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0)).isEqualTo("before");
+        assertThat(records.get(1)).hasSize((1024 - 2 * Integer.BYTES) / 3).matches("x+");
+        assertThat(records.get(2)).isEqualTo("after");
+        assertThat(journal.getTruncatedCount()).isEqualTo(1);
+    }
+
+    private List<String> readAll() {
+        List<String> records = new ArrayList<>();
+        try (AuditJournalReader reader = new AuditJournalReader(directory)) {
+            reader.forEachRemaining(records::add);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,98 @@
+package net.projectsync.springboot.concepts.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import net.projectsync.springboot.beanscopes.audit.AuditLevel;
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+import net.projectsync.springboot.beanscopes.model.AuditLogger;
+
+class AuditLoggerTest {
+
+    private final List<String> records = new ArrayList<>();
+    private final AuditLogger auditLogger = new AuditLogger();
+    private volatile int flushes; // also written by the audit-batch-flusher thread
+
+    @BeforeEach
+    void setUp() {
+        AuditSink sink = new AuditSink() {
+            @Override
+            public void write(CharSequence record) {
+                records.add(record.toString());
+            }
+
+            @Override
+            public void flush() {
+                flushes++;
+            }
+        };
+        ReflectionTestUtils.setField(auditLogger, "auditSink", sink);
+        ReflectionTestUtils.setField(auditLogger, "threshold", AuditLevel.INFO);
+        ReflectionTestUtils.setField(auditLogger, "batchMaxRecords", 3);
+        ReflectionTestUtils.setField(auditLogger, "batchMaxDelay", Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Placeholders are filled in order with primitive and object arguments")
+    void formatsPlaceholders() {
+        auditLogger.log(AuditLevel.INFO, "Processing transaction: {} from {} to {}", 1000.0, "ACC1", "ACC2");
+        auditLogger.log(AuditLevel.INFO, "Request bean real hashCode: {}", 42);
+        auditLogger.log(AuditLevel.INFO, "{} and {}", "a", null);
+
+        assertThat(records).containsExactly(
+                "Processing transaction: 1000.0 from ACC1 to ACC2",
+                "Request bean real hashCode: 42",
+                "a and null");
+    }
+
+    @Test
+    @DisplayName("An open batch defers flushes, but only up to audit.batch.max-records")
+    void openBatchFlushesAtMaxRecords() {
+        AuditLogger.Batch outer = auditLogger.beginBatch();
+        try (AuditLogger.Batch inner = auditLogger.beginBatch()) {
+            auditLogger.log("one");
+            auditLogger.log("two");
+            assertThat(flushes).isZero();
+            auditLogger.log("three"); // max-records reached while both batches are open
+            assertThat(flushes).isEqualTo(1);
+        }
+        assertThat(flushes).isEqualTo(1); // the outer batch is still open
+        outer.close();
+        assertThat(flushes).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Records held back by an open batch are flushed after audit.batch.max-delay without further writes")
+    void openBatchFlushesAtMaxDelay() throws Exception {
+        ReflectionTestUtils.setField(auditLogger, "batchMaxDelay", Duration.ofMillis(20));
+        ReflectionTestUtils.invokeMethod(auditLogger, "start");
+        try (AuditLogger.Batch batch = auditLogger.beginBatch()) {
+            auditLogger.log("one");
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (flushes == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(flushes).isEqualTo(1); // the batch is still open
+        } finally {
+            ReflectionTestUtils.invokeMethod(auditLogger, "stop");
+        }
+    }
+
+    @Test
+    @DisplayName("Records below the threshold are skipped")
+    void skipsRecordsBelowThreshold() {
+        auditLogger.log(AuditLevel.DEBUG, "Singleton Bean hash code: {}", 7);
+        auditLogger.log("plain message");
+
+        assertThat(auditLogger.isEnabled(AuditLevel.DEBUG)).isFalse();
+        assertThat(records).containsExactly("plain message");
+    }
+}
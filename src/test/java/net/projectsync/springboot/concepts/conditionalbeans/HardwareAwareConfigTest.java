@@ -0,0 +1,54 @@
+package net.projectsync.springboot.concepts.conditionalbeans;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.unit.DataSize;
+
+import net.projectsync.springboot.beanscopes.audit.AuditSink;
+import net.projectsync.springboot.conditionalbeans.HardwareAwareConfig;
+import net.projectsync.springboot.conditionalbeans.SingleLockAuditSink;
+import net.projectsync.springboot.conditionalbeans.StripedAuditSink;
+
+class HardwareAwareConfigTest {
+
+	@Test
+	@DisplayName("A small container gets the single-lock sink, small buffers and a pool of one thread per core")
+	void smallContainer() {
+		try (AnnotationConfigApplicationContext context = start(Map.of("hardware.available-processors", 2, "hardware.max-heap", "512MB",
+				"hardware.virtual-threads", false))) {
+			assertThat(context.getBean(AuditSink.class)).isInstanceOf(SingleLockAuditSink.class);
+			assertThat(context.getBean(DataSize.class)).isEqualTo(DataSize.ofKilobytes(16));
+			assertThat(context.getBean(ExecutorService.class)).isInstanceOfSatisfying(ThreadPoolExecutor.class,
+					pool -> assertThat(pool.getCorePoolSize()).isEqualTo(2));
+		}
+	}
+
+	@Test
+	@DisplayName("A large box gets a stripe per core, large buffers and a pool of one thread per core")
+	void largeBox() {
+		try (AnnotationConfigApplicationContext context = start(Map.of("hardware.available-processors", 64, "hardware.max-heap", "16GB",
+				"hardware.virtual-threads", false))) {
+			assertThat(context.getBean(AuditSink.class)).isInstanceOfSatisfying(StripedAuditSink.class,
+					sink -> assertThat(sink.stripes()).isEqualTo(64));
+			assertThat(context.getBean(DataSize.class)).isEqualTo(DataSize.ofKilobytes(256));
+			assertThat(context.getBean(ExecutorService.class)).isInstanceOfSatisfying(ThreadPoolExecutor.class,
+					pool -> assertThat(pool.getCorePoolSize()).isEqualTo(64));
+		}
+	}
+
+	private static AnnotationConfigApplicationContext start(Map<String, Object> hardware) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("hardware", hardware));
+		context.register(HardwareAwareConfig.class);
+		context.refresh();
+		return context;
+	}
+}
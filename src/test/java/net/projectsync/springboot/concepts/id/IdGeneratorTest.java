@@ -0,0 +1,89 @@
+package net.projectsync.springboot.concepts.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import net.projectsync.springboot.common.id.IdGenerator;
+import net.projectsync.springboot.common.id.SnowflakeIdGenerator;
+import net.projectsync.springboot.common.id.ThreadLocalRandomIdGenerator;
+import net.projectsync.springboot.common.id.UuidV7IdGenerator;
+
+class IdGeneratorTest {
+
+	@Test
+	@DisplayName("UUIDv7 ids are strictly increasing and render as valid version 7 UUIDs")
+	void uuidV7IsMonotonicAndWellFormed() {
+		IdGenerator generator = new UuidV7IdGenerator();
+		long previous = generator.nextId();
+		for (int i = 0; i < 100_000; i++) {
+			long next = generator.nextId();
+			assertThat(Long.compareUnsigned(next, previous)).isPositive();
+			previous = next;
+		}
+
+		long lowBits = generator.nextLowBits();
+		UUID uuid = UUID.fromString(generator.render(previous, lowBits));
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+		assertThat(uuid.getMostSignificantBits()).isEqualTo(previous);
+		assertThat(uuid.getLeastSignificantBits()).isEqualTo(lowBits);
+	}
+
+	@Test
+	@DisplayName("UUIDv7 lower halves are random: the same upper half still renders distinct UUIDs")
+	void uuidV7LowerHalfIsRandom() {
+		IdGenerator generator = new UuidV7IdGenerator();
+		long id = generator.nextId();
+		Set<String> rendered = new HashSet<>();
+		for (int i = 0; i < 1_000; i++) {
+			rendered.add(generator.render(id, generator.nextLowBits()));
+		}
+
+		assertThat(rendered).hasSize(1_000);
+		assertThat(rendered).allSatisfy(uuid -> assertThat(UUID.fromString(uuid).variant()).isEqualTo(2));
+	}
+
+	@Test
+	@DisplayName("Snowflake ids are unique across threads and carry the node id")
+	void snowflakeIsUniqueAcrossThreads() throws Exception {
+		IdGenerator generator = new SnowflakeIdGenerator(42);
+		Set<Long> ids = generateConcurrently(generator, 4, 50_000);
+
+		assertThat(ids).hasSize(4 * 50_000);
+		assertThat(ids).allSatisfy(id -> assertThat((id >>> 12) & 0x3FF).isEqualTo(42L));
+	}
+
+	@Test
+	@DisplayName("Thread-local random ids render as 16 hex digits")
+	void threadLocalRandomRendersHex() {
+		IdGenerator generator = new ThreadLocalRandomIdGenerator();
+
+		assertThat(generator.render(generator.nextId(), generator.nextLowBits())).matches("[0-9a-f]{16}");
+		assertThat(generator.render(0xABCL, 0L)).isEqualTo("0000000000000abc");
+	}
+
+	private static Set<Long> generateConcurrently(IdGenerator generator, int threads, int perThread) throws Exception {
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		for (int t = 0; t < threads; t++) {
+			pool.execute(() -> {
+				for (int i = 0; i < perThread; i++) {
+					ids.add(generator.nextId());
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(30, TimeUnit.SECONDS);
+		return ids;
+	}
+}
@@ -0,0 +1,101 @@
+package net.projectsync.springboot.concepts.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.projectsync.springboot.beanscopes.ledger.BalanceStore;
+import net.projectsync.springboot.beanscopes.ledger.HeapBalanceStore;
+import net.projectsync.springboot.beanscopes.ledger.MappedBalanceStore;
+
+class BalanceStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Mapped store: balances and accounts survive a reopen without being loaded")
+    void mappedStoreReopens() {
+        Path file = dir.resolve("balances.dat");
+        try (MappedBalanceStore store = new MappedBalanceStore(file, 1024)) {
+            store.set(store.slot("ACC1"), 100_000);
+            store.set(store.slot("KONTO-Ü"), -5); // non-ASCII id
+            store.add(store.slot("ACC1"), 1);
+        }
+
+        try (MappedBalanceStore store = new MappedBalanceStore(file, 64)) {
+            assertThat(store.capacity()).isEqualTo(1024); // fixed at creation
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get(store.find("ACC1"))).isEqualTo(100_001);
+            assertThat(store.get(store.find("KONTO-Ü"))).isEqualTo(-5);
+            assertThat(store.find("ACC2")).isEqualTo(-1);
+
+            Map<String, Long> all = new HashMap<>();
+            store.forEach(all::put);
+            assertThat(all).containsOnly(Map.entry("ACC1", 100_001L), Map.entry("KONTO-Ü", -5L));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent slot() calls for the same accounts agree on one slot per account")
+    void concurrentInsertsAgree() throws Exception {
+        try (MappedBalanceStore mapped = new MappedBalanceStore(dir.resolve("concurrent.dat"), 1 << 14)) {
+            assertConcurrentInsertsAgree(mapped);
+        }
+        assertConcurrentInsertsAgree(new HeapBalanceStore());
+    }
+
+    @Test
+    @DisplayName("add() is atomic and rejects overflow without changing the balance")
+    void addIsAtomicAndChecked() {
+        BalanceStore store = new HeapBalanceStore();
+        int slot = store.slot("ACC1");
+        store.set(slot, Long.MAX_VALUE - 1);
+
+        assertThat(store.add(slot, 1)).isEqualTo(Long.MAX_VALUE);
+        assertThatExceptionOfType(ArithmeticException.class).isThrownBy(() -> store.add(slot, 1));
+        assertThat(store.get(slot)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Mapped store: ids longer than a slot's key area are rejected")
+    void rejectsLongIds() {
+        try (MappedBalanceStore store = new MappedBalanceStore(dir.resolve("long.dat"), 64)) {
+            assertThatIllegalArgumentException().isThrownBy(() -> store.slot("X".repeat(49)));
+        }
+    }
+
+    private static void assertConcurrentInsertsAgree(BalanceStore store) throws Exception {
+        int accounts = 5_000;
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Future<?>[] futures = new Future<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            futures[t] = pool.submit(() -> {
+                for (int i = 0; i < accounts; i++) {
+                    store.add(store.slot("ACC" + i), 1);
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertThat(store.size()).isEqualTo(accounts);
+        for (int i = 0; i < accounts; i++) {
+            assertThat(store.get(store.find("ACC" + i))).isEqualTo(threads);
+        }
+    }
+}
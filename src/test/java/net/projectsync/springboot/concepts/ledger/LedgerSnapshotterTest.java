@@ -0,0 +1,84 @@
+package net.projectsync.springboot.concepts.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.projectsync.springboot.beanscopes.ledger.BalanceStore;
+import net.projectsync.springboot.beanscopes.ledger.HeapBalanceStore;
+import net.projectsync.springboot.beanscopes.ledger.LedgerSnapshotter;
+import net.projectsync.springboot.beanscopes.ledger.MappedBalanceStore;
+import net.projectsync.springboot.beanscopes.ledger.WriteAheadLog;
+
+class LedgerSnapshotterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Snapshot compacts sealed segments; recovery = snapshot + tail gives the exact balances")
+    void snapshotCompactsAndRecoveryRestoresBalances() throws Exception {
+        Path walDir = dir.resolve("wal");
+        Path snapshotDir = dir.resolve("snapshots");
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        LedgerSnapshotter snapshotter = new LedgerSnapshotter(snapshotDir, walDir, Duration.ofHours(1));
+        try (WriteAheadLog wal = new WriteAheadLog(walDir, 16 * 1024, 64)) {
+            appendRandom(wal, expected, random, 3_000); // several 16KB segments
+            long snapshotLsn = snapshotter.snapshot();
+
+            assertThat(snapshotLsn).isBetween(1L, 3_000L);
+            assertThat(WriteAheadLog.listSegments(walDir)).hasSize(1); // only the active segment is left
+            assertThat(files(snapshotDir)).isEqualTo(1);
+
+            appendRandom(wal, expected, random, 500); // the tail
+        }
+
+        BalanceStore store = new HeapBalanceStore();
+        Map<String, Object> recovery = new LedgerSnapshotter(snapshotDir, walDir, Duration.ofHours(1)).recover(store);
+
+        assertThat(recovery).containsEntry("performed", true).containsEntry("lastLsn", 3_500L);
+        assertThat((long) recovery.get("replayedRecords")).isLessThan(3_500L);
+        Map<String, Long> recovered = new HashMap<>();
+        store.forEach(recovered::put);
+        assertThat(recovered).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Recovery refuses a mapped balance store: its pages are not in step with the WAL")
+    void recoveryRefusesMappedStore() {
+        try (MappedBalanceStore store = new MappedBalanceStore(dir.resolve("balances.dat"), 1024)) {
+            LedgerSnapshotter snapshotter = new LedgerSnapshotter(dir.resolve("snapshots"), dir.resolve("wal"), Duration.ofHours(1));
+            assertThatThrownBy(() -> snapshotter.recover(store)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static void appendRandom(WriteAheadLog wal, Map<String, Long> expected, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            String from = "ACC" + random.nextInt(50);
+            String to = "ACC" + random.nextInt(50);
+            long amount = 1 + random.nextInt(10_000);
+            wal.append(from, to, amount);
+            expected.merge(from, -amount, Long::sum);
+            expected.merge(to, amount, Long::sum);
+        }
+    }
+
+    private static long files(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
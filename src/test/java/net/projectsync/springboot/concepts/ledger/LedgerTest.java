@@ -0,0 +1,137 @@
+package net.projectsync.springboot.concepts.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import net.projectsync.springboot.beanscopes.ledger.InsufficientFundsException;
+import net.projectsync.springboot.beanscopes.ledger.Ledger;
+import net.projectsync.springboot.beanscopes.ledger.ShardedLedger;
+import net.projectsync.springboot.beanscopes.ledger.StripedLedger;
+
+class LedgerTest {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int THREADS = 4;
+    private static final int TRANSFERS_PER_THREAD = 10_000;
+
+    @Test
+    @DisplayName("Amounts are converted to minor units without floating point drift")
+    void convertsToMinorUnits() {
+        Ledger ledger = new StripedLedger(0, false);
+
+        ledger.transfer("ACC1", "ACC2", Ledger.toMinorUnits(0.1));
+        ledger.transfer("ACC1", "ACC2", Ledger.toMinorUnits(0.2));
+
+        assertThat(ledger.balance("ACC2")).isEqualTo(30);
+        assertThat(ledger.balance("ACC1")).isEqualTo(-30);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = { "striped", "sharded" })
+    @DisplayName("With enforce-funds a transfer may not overdraw the source account")
+    void enforcesFunds(String engine) {
+        Ledger ledger = ledger(engine, true);
+        ledger.deposit("ACC1", 500);
+
+        ledger.transfer("ACC1", "ACC2", 500);
+
+        assertThatExceptionOfType(InsufficientFundsException.class).isThrownBy(() -> ledger.transfer("ACC1", "ACC2", 1));
+        assertThat(ledger.balance("ACC1")).isZero();
+        assertThat(ledger.balance("ACC2")).isEqualTo(500);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = { "striped", "sharded" })
+    @DisplayName("A transfer from an account to itself is rejected and creates no money")
+    void rejectsSelfTransfer(String engine) {
+        Ledger ledger = ledger(engine, false);
+        ledger.transfer("A", "B", 100);
+
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> ledger.transfer("A", "A", 50));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> ledger.reverse("A", "A", 50));
+
+        assertThat(ledger.balance("A")).isEqualTo(-100);
+        assertThat(ledger.totalBalance()).isZero();
+        if (ledger instanceof ShardedLedger sharded) {
+            sharded.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Sharded: a failed cross-shard credit is compensated on the source shard")
+    void compensatesFailedCredit() {
+        ShardedLedger ledger = new ShardedLedger(2, false);
+        String from = "ACC1";
+        String to = "ACC2";
+        for (int i = 3; ledger.shardOf(to) == ledger.shardOf(from); i++) {
+            to = "ACC" + i;
+        }
+        ledger.deposit(from, 100);
+        ledger.deposit(to, Long.MAX_VALUE);
+
+        String target = to;
+        assertThatExceptionOfType(ArithmeticException.class).isThrownBy(() -> ledger.transfer(from, target, 1));
+
+        assertThat(ledger.balance(from)).isEqualTo(100);
+        assertThat(ledger.balance(to)).isEqualTo(Long.MAX_VALUE);
+        assertThat(ledger.stats()).containsEntry("compensations", 1L);
+        ledger.close();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = { "striped", "sharded" })
+    @DisplayName("Concurrent random transfers (both directions) conserve money and don't deadlock")
+    void concurrentTransfersConserveMoney(String engine) throws Exception {
+        Ledger ledger = ledger(engine, false);
+        runTransfers(ledger, THREADS);
+
+        // every transfer debits and credits the same amount: the total never changes
+        assertThat(ledger.totalBalance()).isZero();
+        assertThat(ledger.stats()).containsEntry("transfers", (long) THREADS * TRANSFERS_PER_THREAD);
+        if (ledger instanceof ShardedLedger sharded) {
+            sharded.close();
+        }
+    }
+
+    private static Ledger ledger(String engine, boolean enforceFunds) {
+        return "sharded".equals(engine) ? new ShardedLedger(0, enforceFunds) : new StripedLedger(0, enforceFunds);
+    }
+
+    private static void runTransfers(Ledger ledger, int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                awaitQuietly(start);
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    ledger.transfer("ACC" + from, "ACC" + to, 1 + random.nextInt(10_000));
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).as("no deadlock").isTrue();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package net.projectsync.springboot.concepts.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.projectsync.springboot.beanscopes.ledger.WriteAheadLog;
+import net.projectsync.springboot.beanscopes.ledger.WriteAheadLog.WalRecord;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Concurrent appends are group-committed: unique LSNs, fewer fsyncs than records")
+    void groupCommitsConcurrentAppends() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        Set<Long> lsns = ConcurrentHashMap.newKeySet();
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 64 * 1024, 1024)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        lsns.add(wal.append("ACC" + thread, "ACC" + (thread + 1), i + 1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            pool.shutdown();
+
+            assertThat(wal.getDurableLsn()).isEqualTo(threads * perThread);
+            assertThat((long) wal.stats().get("batches")).isLessThan(threads * perThread);
+        }
+
+        assertThat(lsns).hasSize(threads * perThread);
+        assertThat(WriteAheadLog.listSegments(dir)).hasSizeGreaterThan(1); // rolled at 64KB
+        assertThat(readAll(dir)).extracting(WalRecord::lsn).hasSize(threads * perThread).isSorted();
+    }
+
+    @Test
+    @DisplayName("A torn record at the end is dropped on reopen and LSNs continue after the last good one")
+    void truncatesTornTailOnReopen() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 16)) {
+            wal.append("ACC1", "ACC2", 100);
+            wal.append("ACC2", "ACC3", 50);
+        }
+        Path segment = WriteAheadLog.listSegments(dir).get(0);
+        Files.write(segment, new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND); // half a record
+
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 16)) {
+            assertThat(wal.append("ACC3", "ACC1", 25)).isEqualTo(3);
+        }
+
+        assertThat(readAll(dir)).containsExactly(
+                new WalRecord(1, "ACC1", "ACC2", 100),
+                new WalRecord(2, "ACC2", "ACC3", 50),
+                new WalRecord(3, "ACC3", "ACC1", 25));
+    }
+
+    @Test
+    @DisplayName("A record whose CRC matches but whose string lengths overrun it is treated as the torn tail")
+    void rejectsRecordWithOverrunningStringLength() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 16)) {
+            wal.append("ACC1", "ACC2", 100);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(24).putLong(2).putShort((short) 1000) // "from" claims 1000 bytes
+                .put("AB".getBytes(StandardCharsets.UTF_8)).putShort((short) 2)
+                .put("CD".getBytes(StandardCharsets.UTF_8)).putLong(7).flip();
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(32).putInt(24).put(payload).putInt((int) crc.getValue());
+        Path segment = WriteAheadLog.listSegments(dir).get(0);
+        Files.write(segment, record.array(), StandardOpenOption.APPEND);
+
+        assertThat(readAll(dir)).containsExactly(new WalRecord(1, "ACC1", "ACC2", 100));
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 16)) {
+            assertThat(wal.append("ACC2", "ACC1", 25)).isEqualTo(2);
+        }
+        assertThat(readAll(dir)).extracting(WalRecord::lsn).containsExactly(1L, 2L);
+    }
+
+    private static List<WalRecord> readAll(Path dir) throws Exception {
+        List<WalRecord> records = new ArrayList<>();
+        for (Path segment : WriteAheadLog.listSegments(dir)) {
+            WriteAheadLog.scanSegment(segment, records::add);
+        }
+        return records;
+    }
+}
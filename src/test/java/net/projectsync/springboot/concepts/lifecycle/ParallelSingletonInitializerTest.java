@@ -0,0 +1,143 @@
+package net.projectsync.springboot.concepts.lifecycle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import jakarta.annotation.PostConstruct;
+import net.projectsync.springboot.lifecycle.ParallelSingletonInitializer;
+
+class ParallelSingletonInitializerTest {
+
+	private static final Map<String, String> THREADS = new ConcurrentHashMap<>();
+	private static final Map<String, Long> INIT_STARTED = new ConcurrentHashMap<>();
+	private static final Map<String, Long> INIT_ENDED = new ConcurrentHashMap<>();
+
+	@Test
+	@DisplayName("Independent slow beans are initialized at the same time, dependencies first; groups with a lazy bean stay on main")
+	void createsIndependentBeansInParallel() {
+		THREADS.clear();
+		INIT_STARTED.clear();
+		INIT_ENDED.clear();
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean("parallelSingletonInitializer", ParallelSingletonInitializer.class, () -> new ParallelSingletonInitializer(4));
+			context.registerBean("first", First.class);
+			context.registerBean("second", Second.class);
+			context.registerBean("third", Third.class);
+			context.registerBean("dependent", Dependent.class);
+			context.registerBean("lazyDependency", Lazy.class, bd -> bd.setLazyInit(true));
+			context.registerBean("mainline", Mainline.class);
+			context.refresh();
+
+			assertThat(context.getBean(Dependent.class).firstReady).isTrue();
+			assertThat(context.getBean(ParallelSingletonInitializer.class).stats())
+					.containsEntry("backgroundComponents", 3) // first + dependent, second, third
+					.containsEntry("backgroundBeans", 4);
+		}
+		assertThat(THREADS.get("first")).startsWith("bean-init-");
+		assertThat(THREADS.get("second")).startsWith("bean-init-").isNotEqualTo(THREADS.get("third"));
+		assertThat(THREADS.get("lazyDependency")).isEqualTo("main");
+		// one after another, each init would start after the previous one ended
+		assertThat(INIT_STARTED.get("second")).isLessThan(INIT_ENDED.get("third"));
+		assertThat(INIT_STARTED.get("third")).isLessThan(INIT_ENDED.get("second"));
+		assertThat(INIT_STARTED.get("lazyDependency")).isLessThan(INIT_ENDED.get("second"));
+	}
+
+	// ComponentLanes relies on this: the executor only gets Runnables, task n is taken to be the n-th background bean
+	@Test
+	@DisplayName("Spring hands the bootstrap executor one task per background singleton, in bean definition order")
+	void springSubmitsBackgroundBeansInDefinitionOrder() {
+		THREADS.clear();
+		AtomicInteger submitted = new AtomicInteger();
+		Executor inOrder = task -> {
+			Thread thread = new Thread(task, "task-" + submitted.getAndIncrement());
+			thread.start();
+			try {
+				thread.join(); // one at a time, so the n-th task is the n-th Runnable Spring submitted
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(ConfigurableApplicationContext.BOOTSTRAP_EXECUTOR_BEAN_NAME, Executor.class, () -> inOrder);
+			context.registerBean("third", Recorded.class, bd -> ((AbstractBeanDefinition) bd).setBackgroundInit(true));
+			context.registerBean("mainline", Recorded.class);
+			context.registerBean("first", Recorded.class, bd -> ((AbstractBeanDefinition) bd).setBackgroundInit(true));
+			context.registerBean("lazy", Recorded.class, bd -> {
+				bd.setLazyInit(true);
+				((AbstractBeanDefinition) bd).setBackgroundInit(true);
+			});
+			context.registerBean("second", Recorded.class, bd -> ((AbstractBeanDefinition) bd).setBackgroundInit(true));
+			context.refresh();
+		}
+		// the same filter as ComponentLanes: not abstract, singleton, background init; lazy-init does not matter
+		assertThat(submitted).hasValue(4);
+		assertThat(THREADS).containsEntry("third", "task-0").containsEntry("first", "task-1").containsEntry("lazy", "task-2")
+				.containsEntry("second", "task-3").containsEntry("mainline", "main");
+	}
+
+	static class Recorded implements BeanNameAware {
+
+		@Override
+		public void setBeanName(String beanName) {
+			THREADS.put(beanName, Thread.currentThread().getName());
+		}
+	}
+
+	static class Slow implements BeanNameAware {
+
+		private String beanName;
+		boolean ready;
+
+		@Override
+		public void setBeanName(String beanName) {
+			this.beanName = beanName;
+		}
+
+		@PostConstruct
+		void init() throws InterruptedException {
+			INIT_STARTED.put(beanName, System.nanoTime());
+			Thread.sleep(150);
+			INIT_ENDED.put(beanName, System.nanoTime());
+			THREADS.put(beanName, Thread.currentThread().getName());
+			ready = true;
+		}
+	}
+
+	static class First extends Slow {
+	}
+
+	static class Second extends Slow {
+	}
+
+	static class Third extends Slow {
+	}
+
+	static class Lazy extends Slow {
+	}
+
+	static class Dependent {
+
+		final boolean firstReady;
+
+		Dependent(First first) {
+			this.firstReady = first.ready;
+		}
+	}
+
+	static class Mainline {
+
+		Mainline(Lazy lazyDependency) {
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package net.projectsync.springboot.concepts.lifecycle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import jakarta.annotation.PreDestroy;
+import net.projectsync.springboot.lifecycle.CleanableResources;
+import net.projectsync.springboot.lifecycle.PrototypeLease;
+import net.projectsync.springboot.lifecycle.PrototypeLifecycleManager;
+
+class PrototypeLifecycleManagerTest {
+
+	@Test
+	@DisplayName("Closing a lease runs @PreDestroy, DisposableBean.destroy and the destroy method of the prototype")
+	void leaseDestroysPrototype() {
+		try (AnnotationConfigApplicationContext context = start()) {
+			PrototypeLifecycleManager manager = context.getBean(PrototypeLifecycleManager.class);
+			Connection connection;
+			try (PrototypeLease<Connection> lease = manager.lease(Connection.class)) {
+				connection = lease.get();
+				assertThat(manager.stats()).containsEntry("live", 1L);
+			}
+			assertThat(connection.destroyed).containsExactly("preDestroy", "destroy", "customDestroy");
+			assertThat(manager.stats()).containsEntry("live", 0L).containsEntry("destroyed", 1L);
+		}
+	}
+
+	@Test
+	@DisplayName("Prototypes dropped without a lease have their resources cleaned once collected")
+	void cleansUnreachablePrototypes() throws InterruptedException {
+		try (AnnotationConfigApplicationContext context = start()) {
+			PrototypeLifecycleManager manager = context.getBean(PrototypeLifecycleManager.class);
+			createAndDrop(context, 1_000);
+			for (int i = 0; i < 100 && (long) manager.stats().get("live") > 0; i++) {
+				System.gc();
+				Thread.sleep(20);
+			}
+			assertThat(manager.stats()).containsEntry("tracked", 1_000L).containsEntry("live", 0L)
+					.containsEntry("cleaned", 1_000L).containsEntry("leaked", 0L);
+			assertThat(Connection.CLOSED_SOCKETS).hasValue(1_000);
+		}
+	}
+
+	private static void createAndDrop(AnnotationConfigApplicationContext context, int count) {
+		List<Connection> connections = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			connections.add(context.getBean(Connection.class));
+		}
+		connections.clear();
+	}
+
+	private static AnnotationConfigApplicationContext start() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean("prototypeLifecycleManager", PrototypeLifecycleManager.class);
+		context.registerBean("connection", Connection.class, bd -> {
+			bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			bd.setDestroyMethodName("customDestroy");
+		});
+		context.refresh();
+		return context;
+	}
+
+	static class Connection implements DisposableBean, CleanableResources {
+
+		static final AtomicInteger CLOSED_SOCKETS = new AtomicInteger();
+
+		final List<String> destroyed = new ArrayList<>();
+
+		@PreDestroy
+		void preDestroy() {
+			destroyed.add("preDestroy");
+		}
+
+		@Override
+		public void destroy() {
+			destroyed.add("destroy");
+		}
+
+		void customDestroy() {
+			destroyed.add("customDestroy");
+		}
+
+		// the socket, not the connection
+		@Override
+		public Runnable cleanupAction() {
+			return CLOSED_SOCKETS::incrementAndGet;
+		}
+	}
+}
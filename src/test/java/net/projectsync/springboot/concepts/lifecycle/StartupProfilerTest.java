@@ -0,0 +1,73 @@
+package net.projectsync.springboot.concepts.lifecycle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import jakarta.annotation.PostConstruct;
+import net.projectsync.springboot.lifecycle.StartupProfiler;
+import net.projectsync.springboot.lifecycle.StartupProfiler.BeanTime;
+
+class StartupProfilerTest {
+
+	@Test
+	@DisplayName("Times each lifecycle phase per bean, excluding nested beans, and finds the slowest dependency chain")
+	@SuppressWarnings("unchecked")
+	void profilesStartup() {
+		Map<String, Object> report;
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean("startupProfiler", StartupProfiler.class);
+			context.registerBean("independent", Independent.class);
+			context.registerBean("client", Client.class, bd -> bd.setInitMethodName("init"));
+			context.registerBean("slow", Slow.class);
+			context.refresh();
+			report = context.getBean(StartupProfiler.class).report();
+		}
+
+		Map<String, Map<String, Object>> beans = (Map<String, Map<String, Object>>) report.get("beans");
+		Map<String, Long> slow = (Map<String, Long>) beans.get("slow").get("phases");
+		Map<String, Long> client = (Map<String, Long>) beans.get("client").get("phases");
+		assertThat(slow.get("postConstruct")).isGreaterThanOrEqualTo(30_000);
+		assertThat(client.get("initMethods")).isGreaterThanOrEqualTo(20_000);
+		// slow was created inside client's instantiation, but is not counted in client's self time
+		assertThat((long) beans.get("client").get("selfMicros"))
+				.isLessThanOrEqualTo((long) beans.get("client").get("totalMicros") - (long) beans.get("slow").get("totalMicros"));
+		assertThat(client.get("instantiation")).isLessThanOrEqualTo((long) beans.get("client").get("selfMicros"));
+		assertThat(beans.get("client").get("dependencies")).isEqualTo(List.of("slow"));
+
+		Map<String, Object> criticalPath = (Map<String, Object>) report.get("criticalPath");
+		assertThat((List<BeanTime>) criticalPath.get("beans")).extracting(BeanTime::bean).containsExactly("client", "slow");
+		assertThat((long) criticalPath.get("micros")).isGreaterThanOrEqualTo(50_000);
+		assertThat(report.get("contextReadyMicros")).isNotNull();
+	}
+
+	static class Slow {
+
+		@PostConstruct
+		void warmUp() throws InterruptedException {
+			Thread.sleep(30);
+		}
+	}
+
+	static class Client {
+
+		Client(Slow slow) {
+		}
+
+		void init() throws InterruptedException {
+			Thread.sleep(20);
+		}
+	}
+
+	static class Independent {
+
+		Independent() throws InterruptedException {
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package net.projectsync.springboot.concepts.scope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.support.SimpleThreadScope;
+import org.springframework.core.env.MapPropertySource;
+
+import jakarta.annotation.PostConstruct;
+import net.projectsync.springboot.common.scope.CompiledPrototype;
+import net.projectsync.springboot.common.scope.CompiledPrototypeProcessor;
+import net.projectsync.springboot.common.scope.SkipForCompiledPrototypes;
+
+class CompiledPrototypeProcessorTest {
+
+	@Test
+	@DisplayName("Creates a prototype with constructor and field injection, and only the post-processors that apply")
+	void createsPrototypeWithoutReflectivePath() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", Map.of("greeting", "hello")));
+			context.registerBean(CompiledPrototypeProcessor.class);
+			context.registerBean("recording", Recording.class);
+			context.registerBean("skipping", Skipping.class);
+			context.registerBean("clock", Clock.class);
+			context.registerBean("registry", Registry.class);
+			context.registerBean("task", Task.class, bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+			context.refresh();
+
+			ObjectProvider<Task> tasks = context.getBeanProvider(Task.class);
+			Task first = tasks.getObject();
+			Task second = tasks.getObject();
+
+			assertThat(first).isNotSameAs(second);
+			assertThat(first.clock).isSameAs(context.getBean(Clock.class));
+			assertThat(first.registry).isSameAs(context.getBean(Registry.class));
+			assertThat(first.greeting).isEqualTo("hello");
+			assertThat(context.getBean("recording", Recording.class).seen).containsExactly("before task", "after task", "before task", "after task");
+			assertThat(context.getBean(Skipping.class).seen).containsExactly("after task", "after task");
+			assertThat(context.getBean(CompiledPrototypeProcessor.class).stats()).containsEntry("task", 2L);
+
+			// Straight from the generated factory: same instances, only afterInitialization added by the supplier
+			Task third = context.getBean(CompiledPrototypeProcessor.class).supplier("task", Task.class).get();
+			assertThat(third.registry).isSameAs(first.registry);
+			assertThat(context.getBean(Skipping.class).seen).containsExactly("after task", "after task", "after task");
+			assertThat(context.getBean(CompiledPrototypeProcessor.class).stats()).containsEntry("task", 3L);
+		}
+	}
+
+	@Test
+	@DisplayName("Calls a @CompiledPrototype @Bean method directly, and refuses one on a CGLIB-proxied configuration")
+	void callsFactoryMethods() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(CompiledPrototypeProcessor.class);
+			context.register(LiteConfig.class);
+			context.refresh();
+
+			assertThat(context.getBean("labelled", Labelled.class).label).isEqualTo("lite");
+			assertThat(context.getBean(CompiledPrototypeProcessor.class).stats()).containsEntry("labelled", 1L);
+		}
+
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(CompiledPrototypeProcessor.class);
+			context.register(ProxiedConfig.class);
+			assertThatThrownBy(context::refresh).hasMessageContaining("proxyBeanMethods = false");
+		}
+	}
+
+	@Test
+	@DisplayName("Fails the startup for a prototype that is not simple enough")
+	void rejectsInitCallbacks() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(CompiledPrototypeProcessor.class);
+			context.registerBean("initialized", Initialized.class, bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+			assertThatThrownBy(context::refresh).hasMessageContaining("@PostConstruct method init()").hasMessageContaining("not simple enough");
+		}
+	}
+
+	@Test
+	@DisplayName("Fails the startup for a scoped bean with a destruction callback, which the scope would never get")
+	void rejectsDestructionCallbacksOutsidePrototypeScope() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.getBeanFactory().registerScope("thread", new SimpleThreadScope());
+			context.registerBean(CompiledPrototypeProcessor.class);
+			context.registerBean("disposable", Disposable.class, bd -> bd.setScope("thread"));
+			assertThatThrownBy(context::refresh).hasMessageContaining("DisposableBean").hasMessageContaining("scope 'thread'");
+		}
+
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(CompiledPrototypeProcessor.class);
+			context.registerBean("disposable", Disposable.class, bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+			context.refresh(); // prototypes are not destroyed by the container in any case
+
+			assertThat(context.getBean("disposable")).isInstanceOf(Disposable.class);
+		}
+	}
+
+	@CompiledPrototype
+	static class Disposable implements DisposableBean {
+
+		@Override
+		public void destroy() {
+		}
+	}
+
+	static class Clock {
+	}
+
+	static class Registry {
+	}
+
+	@CompiledPrototype
+	static class Task {
+
+		final Clock clock;
+
+		@Autowired
+		Registry registry;
+
+		@Value("${greeting}")
+		String greeting;
+
+		Task(Clock clock) {
+			this.clock = clock;
+		}
+	}
+
+	static class Recording implements BeanPostProcessor {
+
+		final List<String> seen = new ArrayList<>();
+
+		@Override
+		public Object postProcessBeforeInitialization(Object bean, String beanName) {
+			if (bean instanceof Task) {
+				seen.add("before " + beanName);
+			}
+			return bean;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (bean instanceof Task) {
+				seen.add("after " + beanName);
+			}
+			return bean;
+		}
+	}
+
+	static class Skipping extends Recording implements SkipForCompiledPrototypes {
+	}
+
+	static class Labelled {
+
+		final String label;
+
+		Labelled(String label) {
+			this.label = label;
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	static class LiteConfig {
+
+		@Bean
+		@Scope(BeanDefinition.SCOPE_PROTOTYPE)
+		@CompiledPrototype
+		Labelled labelled() {
+			return new Labelled("lite");
+		}
+	}
+
+	@Configuration
+	static class ProxiedConfig {
+
+		@Bean
+		@Scope(BeanDefinition.SCOPE_PROTOTYPE)
+		@CompiledPrototype
+		Labelled labelled() {
+			return new Labelled("proxied");
+		}
+	}
+
+	@CompiledPrototype
+	static class Initialized {
+
+		@PostConstruct
+		void init() {
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package net.projectsync.springboot.concepts.scope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import net.projectsync.springboot.beanscopes.scope.Poolable;
+import net.projectsync.springboot.beanscopes.scope.PooledScope;
+
+class PooledScopeTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final ObjectFactory<Worker> factory = () -> {
+        created.incrementAndGet();
+        return new Worker();
+    };
+
+    @Test
+    @DisplayName("Released instances are reset and handed out again instead of being re-created")
+    void recyclesReleasedInstances() {
+        PooledScope scope = scope(true, 0);
+
+        Worker first = (Worker) scope.get("worker", factory);
+        first.state = "dirty";
+        scope.release(first);
+        Worker second = (Worker) scope.get("worker", factory);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.state).isNull();
+        assertThat(created).hasValue(1);
+        assertThat(scope.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L).containsEntry("creations", 1L);
+    }
+
+    @Test
+    @DisplayName("A second release of the same instance, or of an instance never handed out, is ignored")
+    void ignoresInvalidReleases() {
+        PooledScope scope = scope(true, 0);
+
+        Worker first = (Worker) scope.get("worker", factory);
+        scope.release(first);
+        scope.release(first);
+        scope.release(new Worker());
+        Worker second = (Worker) scope.get("worker", factory);
+        Worker third = (Worker) scope.get("worker", factory);
+
+        assertThat(second).isSameAs(first);
+        assertThat(third).isNotSameAs(first);
+        assertThat(created).hasValue(2);
+        assertThat(scope.stats()).containsEntry("releases", 1L).containsEntry("invalidReleases", 2L).containsEntry("checkedOut", 2);
+    }
+
+    @Test
+    @DisplayName("Instances handed out while singletons are created are injected, not checked out")
+    void doesNotTrackInjectedInstances() {
+        PooledScope scope = new PooledScope();
+        scope.setEnvironment(new MockEnvironment().withProperty("scope.pooled.enabled", "true"));
+
+        Worker injected = (Worker) scope.get("worker", factory); // e.g. an @Autowired field of a singleton
+        scope.afterSingletonsInstantiated();
+        Worker used = (Worker) scope.get("worker", factory);
+
+        assertThat(scope.stats()).containsEntry("injected", 1L).containsEntry("checkedOut", 1);
+        scope.release(used);
+        scope.release(injected);
+        assertThat(scope.stats()).containsEntry("checkedOut", 0).containsEntry("releases", 1L).containsEntry("invalidReleases", 1L);
+    }
+
+    @Test
+    @DisplayName("Pre-built instances are created on first use of a bean")
+    void prewarmsStripes() {
+        PooledScope scope = scope(true, 2);
+
+        scope.get("worker", factory);
+
+        assertThat(scope.stats()).containsEntry("hits", 1L).containsEntry("misses", 0L);
+        assertThat(created.get()).isEqualTo(2 * (int) scope.stats().get("stripes"));
+    }
+
+    @Test
+    @DisplayName("When disabled the scope behaves like prototype")
+    void disabledBehavesLikePrototype() {
+        PooledScope scope = scope(false, 2);
+
+        Worker first = (Worker) scope.get("worker", factory);
+        scope.release(first);
+        Worker second = (Worker) scope.get("worker", factory);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(created).hasValue(2);
+    }
+
+    private PooledScope scope(boolean enabled, int prewarm) {
+        PooledScope scope = new PooledScope();
+        scope.setEnvironment(new MockEnvironment()
+                .withProperty("scope.pooled.enabled", String.valueOf(enabled))
+                .withProperty("scope.pooled.prewarm-per-stripe", String.valueOf(prewarm)));
+        scope.afterSingletonsInstantiated();
+        return scope;
+    }
+
+    static class Worker extends Poolable {
+
+        String state;
+
+        @Override
+        public void reset() {
+            state = null;
+        }
+    }
+}
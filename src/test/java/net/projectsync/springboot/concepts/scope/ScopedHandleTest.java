@@ -0,0 +1,80 @@
+package net.projectsync.springboot.concepts.scope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import net.projectsync.springboot.common.scope.ScopedHandle;
+
+class ScopedHandleTest {
+
+	private static final AtomicInteger CREATED = new AtomicInteger();
+
+	private GenericApplicationContext context;
+
+	@BeforeEach
+	void setUp() {
+		CREATED.set(0);
+		context = new GenericApplicationContext();
+		context.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+		context.registerBean("tracker", Tracker.class, bd -> bd.setScope(WebApplicationContext.SCOPE_REQUEST));
+		context.refresh();
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		context.close();
+	}
+
+	@Test
+	@DisplayName("Same target within a request, a new one for the next request")
+	void cachesTargetPerRequest() {
+		ScopedHandle<Tracker> handle = ScopedHandle.of(context, "tracker", Tracker.class);
+
+		ServletRequestAttributes first = startRequest();
+		Tracker a = handle.get();
+		Tracker b = handle.get();
+		first.requestCompleted();
+
+		startRequest();
+		Tracker c = handle.get();
+
+		assertThat(b).isSameAs(a);
+		assertThat(c).isNotSameAs(a);
+		assertThat(CREATED).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("Outside of a request the handle fails like the scoped proxy would")
+	void failsOutsideRequest() {
+		ScopedHandle<Tracker> handle = ScopedHandle.of(context, "tracker", Tracker.class);
+
+		assertThatIllegalStateException().isThrownBy(handle::get);
+	}
+
+	private static ServletRequestAttributes startRequest() {
+		ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestContextHolder.setRequestAttributes(attributes);
+		return attributes;
+	}
+
+	static class Tracker {
+
+		Tracker() {
+			CREATED.incrementAndGet();
+		}
+	}
+}
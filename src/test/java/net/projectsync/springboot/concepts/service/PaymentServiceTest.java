@@ -1,20 +1,31 @@
 package net.projectsync.springboot.concepts.service;
 
+import java.nio.file.Path;
+
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import net.projectsync.springboot.beanscopes.audit.AuditLevel;
+import net.projectsync.springboot.beanscopes.ledger.InsufficientFundsException;
+import net.projectsync.springboot.beanscopes.ledger.Ledger;
+import net.projectsync.springboot.beanscopes.ledger.StripedLedger;
+import net.projectsync.springboot.beanscopes.ledger.WriteAheadLog;
 import net.projectsync.springboot.beanscopes.model.AuditLogger;
 import net.projectsync.springboot.beanscopes.model.PrototypeScope;
 import net.projectsync.springboot.beanscopes.model.RequestScope;
 import net.projectsync.springboot.beanscopes.model.SessionScope;
+import net.projectsync.springboot.beanscopes.scope.PooledScope;
 import net.projectsync.springboot.beanscopes.service.PaymentService;
+import net.projectsync.springboot.common.scope.ScopedHandle;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceTest {
@@ -28,12 +39,24 @@ class PaymentServiceTest {
     @Mock
     private PrototypeScope prototypeScope;
 
+    @Mock
+    private PooledScope pooledScope;
+
+    @Mock
+    private Ledger ledger;
+
     @Mock
     private RequestScope requestScope;
 
     @Mock
     private SessionScope sessionScope;
 
+    @Mock
+    private ScopedHandle<RequestScope> requestScopeHandle;
+
+    @Mock
+    private ScopedHandle<SessionScope> sessionScopeHandle;
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -50,12 +73,54 @@ class PaymentServiceTest {
         // Verify factory called twice, process called twice
         Mockito.verify(PrototypeFactory, Mockito.times(2)).getObject();
         Mockito.verify(prototypeScope, Mockito.times(2)).process(Mockito.anyString(), Mockito.anyString(), Mockito.anyDouble());
+
+        // Each instance is handed back to the pooled scope after use
+        Mockito.verify(pooledScope, Mockito.times(2)).release(prototypeScope);
+
+        // Amounts reach the ledger in minor units
+        Mockito.verify(ledger).transfer("A", "B", 10_000L);
+        Mockito.verify(ledger).transfer("C", "D", 20_000L);
+    }
+
+    @Test
+    @DisplayName("Rejected transfer: audited as failed, never as processed")
+    void rejectedTransferIsAuditedAsFailed() {
+        Mockito.when(PrototypeFactory.getObject()).thenReturn(prototypeScope);
+        Mockito.doThrow(new InsufficientFundsException("A", 0, 10_000L)).when(ledger).transfer("A", "B", 10_000L);
+
+        Assertions.assertThatThrownBy(() -> paymentService.transfer("A", "B", 100))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        Mockito.verify(prototypeScope, Mockito.never()).process(Mockito.anyString(), Mockito.anyString(), Mockito.anyDouble());
+        Mockito.verify(auditLogger).log(AuditLevel.INFO, "Transaction failed: {} from {} to {}", 100.0, "A", "B");
+        Mockito.verify(pooledScope).release(prototypeScope);
+    }
+
+    @Test
+    @DisplayName("Write-ahead log append fails: the transfer is undone, balances are unchanged")
+    void failedAppendLeavesBalancesUnchanged(@TempDir Path walDirectory) {
+        Mockito.when(PrototypeFactory.getObject()).thenReturn(prototypeScope);
+        StripedLedger realLedger = new StripedLedger(16, true);
+        realLedger.deposit("A", 10_000L);
+        WriteAheadLog closedLog = new WriteAheadLog(walDirectory, 1 << 20, 64);
+        closedLog.close(); // every append fails from now on
+        ReflectionTestUtils.setField(paymentService, "ledger", realLedger);
+        ReflectionTestUtils.setField(paymentService, "writeAheadLog", closedLog);
+
+        Assertions.assertThatThrownBy(() -> paymentService.transfer("A", "B", 50))
+                .isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(realLedger.balance("A")).isEqualTo(10_000L);
+        Assertions.assertThat(realLedger.balance("B")).isZero();
+        Assertions.assertThat(realLedger.stats()).containsEntry("reversed", 1L);
+        Mockito.verify(pooledScope).release(prototypeScope);
     }
 
     @Test
     @DisplayName("Request scope: each request should get a different RequestTracker")
     void requestScopeTest() {
         // Stub RequestTracker to simulate two different requests
+        Mockito.when(requestScopeHandle.get()).thenReturn(requestScope);
         Mockito.when(requestScope.getRequestUUID())
                 .thenReturn("request-id-1")
                 .thenReturn("request-id-2");
@@ -70,6 +135,7 @@ class PaymentServiceTest {
     @DisplayName("Session scope: same session should return same SessionTracker")
     void sessionScopeSameSessionTest() {
         // Stub SessionTracker to simulate same session
+        Mockito.when(sessionScopeHandle.get()).thenReturn(sessionScope);
         Mockito.when(sessionScope.getSessionUUID()).thenReturn("same-session-id");
 
         String id1 = paymentService.getSessionUUID();
@@ -82,6 +148,7 @@ class PaymentServiceTest {
     @DisplayName("Session scope: different sessions should return different SessionTracker")
     void sessionScopeDifferentSessionsTest() {
         // Stub SessionTracker to simulate two different sessions
+        Mockito.when(sessionScopeHandle.get()).thenReturn(sessionScope);
         Mockito.when(sessionScope.getSessionUUID())
                 .thenReturn("session-id-1")
                 .thenReturn("session-id-2");
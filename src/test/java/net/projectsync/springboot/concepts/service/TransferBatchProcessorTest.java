@@ -0,0 +1,196 @@
+package net.projectsync.springboot.concepts.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.projectsync.springboot.beanscopes.dto.BatchTransferResponse;
+import net.projectsync.springboot.beanscopes.dto.TransferRequest;
+import net.projectsync.springboot.beanscopes.dto.TransferResult.Status;
+import net.projectsync.springboot.beanscopes.model.AuditLogger;
+import net.projectsync.springboot.beanscopes.service.PaymentService;
+import net.projectsync.springboot.beanscopes.service.TransferBatchProcessor;
+
+@ExtendWith(MockitoExtension.class)
+class TransferBatchProcessorTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private AuditLogger auditLogger;
+
+    private TransferBatchProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new TransferBatchProcessor();
+        ReflectionTestUtils.setField(processor, "paymentService", paymentService);
+        ReflectionTestUtils.setField(processor, "auditLogger", auditLogger);
+        ReflectionTestUtils.setField(processor, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(processor, "parallelism", 4);
+        ReflectionTestUtils.setField(processor, "window", 8);
+        ReflectionTestUtils.setField(processor, "auditBatchMaxDuration", Duration.ofHours(1));
+        ReflectionTestUtils.invokeMethod(processor, "start");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(processor, "stop");
+    }
+
+    @Test
+    @DisplayName("Results come back in input order with invalid and failing transfers reported per item")
+    void reportsPerItemResultsInInputOrder() {
+        // lenient: the other (non-matching) transfers must not trip strict stubbing
+        lenient().doThrow(new IllegalStateException("boom")).when(paymentService).transfer(eq("ACC5"), anyString(), anyDouble());
+
+        BatchTransferResponse response = processor.process(List.of(
+                new TransferRequest("ACC1", "ACC2", 1000),
+                new TransferRequest("ACC3", "ACC3", 10),
+                new TransferRequest("ACC5", "ACC6", 20),
+                new TransferRequest("ACC7", "ACC8", -1)));
+
+        assertThat(response.results()).extracting(r -> r.index()).containsExactly(0, 1, 2, 3);
+        assertThat(response.results()).extracting(r -> r.status())
+                .containsExactly(Status.COMPLETED, Status.REJECTED, Status.FAILED, Status.REJECTED);
+        assertThat(response.completed()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(1);
+        verify(paymentService, never()).transfer(eq("ACC7"), anyString(), anyDouble());
+        verify(auditLogger).beginBatch();
+    }
+
+    @Test
+    @DisplayName("Transfers touching the same account run in input order even when the batch runs in parallel")
+    void keepsOrderPerAccount() {
+        List<Double> hubAmounts = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            if ("HUB".equals(invocation.getArgument(0)) || "HUB".equals(invocation.getArgument(1))) {
+                hubAmounts.add(invocation.getArgument(2));
+            }
+            return null;
+        }).when(paymentService).transfer(anyString(), anyString(), anyDouble());
+
+        List<TransferRequest> transfers = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            // every 4th transfer goes through HUB (alternating direction), the rest are independent pairs
+            transfers.add(i % 4 == 0
+                    ? (i % 8 == 0 ? new TransferRequest("HUB", "A" + i, i) : new TransferRequest("B" + i, "HUB", i))
+                    : new TransferRequest("X" + i, "Y" + i, i));
+        }
+
+        BatchTransferResponse response = processor.process(transfers);
+
+        assertThat(response.completed()).isEqualTo(2000);
+        assertThat(hubAmounts).hasSize(500).isSorted();
+    }
+
+    @Test
+    @DisplayName("NDJSON stream: one result line per input line, in order, with a small in-flight window")
+    void streamsResultsInInputOrder() throws Exception {
+        when(auditLogger.beginBatch()).thenReturn(mock(AuditLogger.Batch.class));
+        List<Double> hubAmounts = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            if ("HUB".equals(invocation.getArgument(0))) {
+                hubAmounts.add(invocation.getArgument(2));
+            }
+            return null;
+        }).when(paymentService).transfer(anyString(), anyString(), anyDouble());
+
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 100; i++) {
+            input.append(i % 2 == 0 ? "{\"fromAccount\":\"HUB\",\"toAccount\":\"A" + i + "\",\"amount\":" + i + "}"
+                    : "{\"fromAccount\":\"X" + i + "\",\"toAccount\":\"Y" + i + "\",\"amount\":" + i + "}").append('\n');
+        }
+        input.append("\n").append("not json\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = processor.processStream(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(101);
+        assertThat(lines).hasSize(101);
+        for (int i = 0; i < 100; i++) {
+            assertThat(lines[i]).startsWith("{\"index\":" + i + ",\"status\":\"COMPLETED\"");
+        }
+        assertThat(lines[100]).contains("\"status\":\"REJECTED\"");
+        assertThat(hubAmounts).hasSize(50).isSorted();
+    }
+
+    @Test
+    @DisplayName("A stream window below 1 is refused at startup")
+    void rejectsEmptyWindow() {
+        TransferBatchProcessor misconfigured = new TransferBatchProcessor();
+        ReflectionTestUtils.setField(misconfigured, "window", 0);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> ReflectionTestUtils.invokeMethod(misconfigured, "start"))
+                .withMessageContaining("transfers.stream.window");
+    }
+
+    @Test
+    @DisplayName("NDJSON stream: the audit batch is closed while waiting for a slow client")
+    void closesAuditBatchWhileWaitingForClient() throws Exception {
+        AuditLogger.Batch batch = mock(AuditLogger.Batch.class);
+        when(auditLogger.beginBatch()).thenReturn(batch);
+        String[] lines = {
+                "{\"fromAccount\":\"A\",\"toAccount\":\"B\",\"amount\":1}\n",
+                "{\"fromAccount\":\"C\",\"toAccount\":\"D\",\"amount\":2}\n",
+                "{\"fromAccount\":\"E\",\"toAccount\":\"F\",\"amount\":3}\n" };
+        // one line per read and nothing available in between, like a client uploading slowly
+        InputStream slow = new InputStream() {
+            private int next;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (next == lines.length) {
+                    return -1;
+                }
+                byte[] line = lines[next++].getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(line, 0, buffer, offset, line.length);
+                return line.length;
+            }
+        };
+
+        int count = processor.processStream(slow, new ByteArrayOutputStream());
+
+        assertThat(count).isEqualTo(3);
+        verify(auditLogger, times(3)).beginBatch();
+        verify(batch, times(3)).close();
+    }
+}
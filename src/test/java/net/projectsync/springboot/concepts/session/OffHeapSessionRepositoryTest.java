@@ -0,0 +1,161 @@
+package net.projectsync.springboot.concepts.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.session.MapSession;
+
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionBindingListener;
+import net.projectsync.springboot.common.session.OffHeapSessionRepository;
+
+class OffHeapSessionRepositoryTest {
+
+    @Test
+    @DisplayName("Sessions round-trip through the arena, including attributes spanning several blocks")
+    void roundTrip() {
+        OffHeapSessionRepository repository = new OffHeapSessionRepository(64 * 1024, 128, 8 * 1024, Duration.ofMinutes(30));
+        MapSession session = repository.createSession();
+        session.setAttribute("user", "alice");
+        session.setAttribute("cart", "x".repeat(1_000));
+        repository.save(session);
+
+        MapSession found = repository.findById(session.getId());
+
+        assertThat(found.<String>getAttribute("user")).isEqualTo("alice");
+        assertThat(found.<String>getAttribute("cart")).hasSize(1_000);
+        assertThat(found.getMaxInactiveInterval()).isEqualTo(Duration.ofMinutes(30));
+        assertThat(repository.sizeOf(session.getId())).isGreaterThan(1_000);
+    }
+
+    @Test
+    @DisplayName("A full arena evicts the least recently used sessions; oversized and expired sessions are dropped")
+    void capsMemory() {
+        OffHeapSessionRepository repository = new OffHeapSessionRepository(8 * 1024, 256, 2 * 1024, Duration.ofMinutes(30));
+        MapSession first = save(repository, 1_500);
+        MapSession second = save(repository, 1_500);
+        repository.findById(first.getId()); // first is now more recent than second
+        assertThat(repository.sizeOf(second.getId())).isGreaterThan(1_500); // not an access: second stays the eldest
+        for (int i = 0; i < 3; i++) {
+            save(repository, 1_500);
+        }
+
+        assertThat(repository.findById(second.getId())).isNull();
+        assertThat(repository.findById(first.getId())).isNotNull();
+        assertThat((long) repository.stats().get("usedBytes")).isLessThanOrEqualTo(8 * 1024);
+
+        MapSession oversized = save(repository, 4_000);
+        assertThat(repository.sizeOf(oversized.getId())).isEqualTo(-1);
+
+        MapSession idle = repository.createSession();
+        idle.setLastAccessedTime(Instant.now().minus(Duration.ofHours(1)));
+        repository.save(idle);
+        assertThat(repository.findById(idle.getId())).isNull();
+        assertThat(repository.stats()).containsEntry("rejected", 1L).containsEntry("expired", 1L);
+    }
+
+    @Test
+    @DisplayName("The max session size is checked against the payload the arena's blocks hold, not its raw size")
+    void maxSessionSizeFitsTheBlocks() {
+        // 4 blocks of 256 bytes carry 4 x 252 bytes of payload: 1024 bytes would need a fifth block
+        assertThatIllegalArgumentException().isThrownBy(() -> new OffHeapSessionRepository(1024, 256, 1024, Duration.ofMinutes(30)));
+
+        OffHeapSessionRepository repository = new OffHeapSessionRepository(1024, 256, 4 * 252, Duration.ofMinutes(30));
+        MapSession large = save(repository, 900);
+        MapSession small = save(repository, 10);
+        assertThat(repository.findById(large.getId())).isNull(); // evicted for the small one, the arena is intact
+        assertThat(repository.findById(small.getId())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("The timing wheel expires idle sessions in the background and runs their unbind callbacks")
+    void expiresThroughTimingWheel() throws Exception {
+        UNBOUND.set(0);
+        try (OffHeapSessionRepository repository = new OffHeapSessionRepository(64 * 1024, 128, 8 * 1024,
+                Duration.ofMinutes(30), Duration.ofMillis(1))) {
+            MapSession shortLived = repository.createSession();
+            shortLived.setMaxInactiveInterval(Duration.ofMillis(20));
+            shortLived.setAttribute("bean", new CountingListener());
+            repository.save(shortLived);
+            MapSession cascaded = repository.createSession();
+            cascaded.setMaxInactiveInterval(Duration.ofMillis(150)); // starts in level 1 of the wheel
+            repository.save(cascaded);
+            MapSession active = repository.createSession();
+            repository.save(active);
+
+            Thread.sleep(250);
+
+            assertThat(repository.expireSessions()).isEqualTo(2);
+            assertThat(UNBOUND).hasValue(1);
+            assertThat(repository.size()).isEqualTo(1);
+            assertThat(repository.findById(active.getId())).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("A session that grows past the max session size is dropped and its unbind callbacks run once")
+    void destroysOversizedSession() {
+        UNBOUND.set(0);
+        OffHeapSessionRepository repository = new OffHeapSessionRepository(64 * 1024, 128, 2 * 1024, Duration.ofMinutes(30));
+        MapSession session = repository.createSession();
+        session.setAttribute("bean", new CountingListener());
+        repository.save(session);
+
+        session.setAttribute("payload", "p".repeat(4_000));
+        repository.save(session);
+
+        assertThat(repository.findById(session.getId())).isNull();
+        assertThat(UNBOUND).hasValue(1);
+        assertThat(repository.stats()).containsEntry("rejected", 1L).containsEntry("destroyed", 1L).containsEntry("storedBytes", 0L);
+    }
+
+    @Test
+    @DisplayName("Sessions written on close are restored lazily from the snapshot by the next repository")
+    void restoresFromSnapshot(@TempDir Path dir) {
+        Path file = dir.resolve("sessions.snap");
+        OffHeapSessionRepository before = new OffHeapSessionRepository(64 * 1024, 128, 8 * 1024, Duration.ofMinutes(30));
+        before.setSnapshotFile(file);
+        MapSession first = save(before, 500);
+        MapSession second = save(before, 10);
+        before.close();
+
+        OffHeapSessionRepository after = new OffHeapSessionRepository(64 * 1024, 128, 8 * 1024, Duration.ofMinutes(30));
+        after.setSnapshotFile(file);
+        assertThat(after.restore()).containsEntry("performed", true).containsEntry("sessions", 2);
+        assertThat(after.stats()).containsEntry("notYetRestored", 2).containsEntry("storedBytes", 0L);
+
+        MapSession restored = after.findById(first.getId());
+        after.save(restored); // what the request does at its end: now in the arena
+        assertThat(restored.<String>getAttribute("payload")).hasSize(500);
+        assertThat(restored.getCreationTime().toEpochMilli()).isEqualTo(first.getCreationTime().toEpochMilli()); // stored in millis
+        assertThat(after.stats()).containsEntry("notYetRestored", 1);
+        assertThat(after.findById(second.getId()).<String>getAttribute("payload")).hasSize(10);
+    }
+
+    private static final AtomicInteger UNBOUND = new AtomicInteger();
+
+    // Stands in for Spring's DestructionCallbackBindingListener; runs on a deserialized copy
+    private static class CountingListener implements HttpSessionBindingListener, Serializable {
+
+        @Override
+        public void valueUnbound(HttpSessionBindingEvent event) {
+            UNBOUND.incrementAndGet();
+        }
+    }
+
+    private static MapSession save(OffHeapSessionRepository repository, int payload) {
+        MapSession session = repository.createSession();
+        session.setAttribute("payload", "p".repeat(payload));
+        repository.save(session);
+        return session;
+    }
+}
@@ -0,0 +1,42 @@
+package net.projectsync.springboot.concepts.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import net.projectsync.springboot.beanscopes.dto.BatchTransferResponse;
+import net.projectsync.springboot.beanscopes.dto.TransferResult;
+
+class BinaryPayloadTest {
+
+	@Test
+	@DisplayName("CBOR and Smile round-trip a batch response and are smaller than JSON (timings: CodecBenchmark)")
+	void binaryPayloadsAreSmaller() throws Exception {
+		List<TransferResult> results = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			results.add(i % 10 == 0 ? TransferResult.rejected(i, "amount must be at least 0.01") : TransferResult.completed(i));
+		}
+		BatchTransferResponse response = BatchTransferResponse.of(results);
+
+		ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+		ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+		ObjectMapper smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+		byte[] jsonBytes = json.writeValueAsBytes(response);
+		byte[] cborBytes = cbor.writeValueAsBytes(response);
+		byte[] smileBytes = smile.writeValueAsBytes(response);
+
+		assertThat(cbor.readValue(cborBytes, BatchTransferResponse.class)).isEqualTo(response);
+		assertThat(smile.readValue(smileBytes, BatchTransferResponse.class)).isEqualTo(response);
+		assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+		assertThat(smileBytes.length).isLessThan(cborBytes.length); // repeated field names and values are back-references
+	}
+}
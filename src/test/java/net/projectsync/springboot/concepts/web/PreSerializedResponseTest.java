@@ -0,0 +1,81 @@
+package net.projectsync.springboot.concepts.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import net.projectsync.springboot.beanscopes2.dto.ScopeResponse;
+import net.projectsync.springboot.common.web.PreSerializedResponse;
+
+class PreSerializedResponseTest {
+
+	private static final ScopeResponse SINGLETON = new ScopeResponse("singleton", "0190a1b2-c3d4-7e5f-8a6b-1c2d3e4f5a6b", 42);
+
+	private final MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter();
+	private final PreSerializedResponse response = new PreSerializedResponse(SINGLETON,
+			List.of(new MappingJackson2HttpMessageConverter(), cbor, new MappingJackson2SmileHttpMessageConverter()));
+
+	@Test
+	@DisplayName("Writes the pre-serialized body with a strong ETag")
+	void writesBodyAndEtag() throws Exception {
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+		response.writeTo(new MockHttpServletRequest("GET", "/singleton"), servletResponse);
+
+		assertThat(servletResponse.getStatus()).isEqualTo(200);
+		assertThat(servletResponse.getContentAsString())
+				.isEqualTo("{\"scope\":\"singleton\",\"uuid\":\"0190a1b2-c3d4-7e5f-8a6b-1c2d3e4f5a6b\",\"hashcode\":42}");
+		assertThat(servletResponse.getContentType()).isEqualTo("application/json");
+		assertThat(servletResponse.getHeader("ETag")).isEqualTo(response.getEtag(MediaType.APPLICATION_JSON))
+				.startsWith("\"").doesNotStartWith("W/");
+	}
+
+	@Test
+	@DisplayName("A matching If-None-Match gets 304 without a body; a different one gets the body")
+	void notModified() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/singleton");
+		request.addHeader("If-None-Match", "\"other\", " + response.getEtag(MediaType.APPLICATION_JSON));
+		MockHttpServletResponse notModified = new MockHttpServletResponse();
+		response.writeTo(request, notModified);
+
+		assertThat(notModified.getStatus()).isEqualTo(304);
+		assertThat(notModified.getContentAsByteArray()).isEmpty();
+		assertThat(notModified.getHeader("ETag")).isEqualTo(response.getEtag(MediaType.APPLICATION_JSON));
+
+		MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/singleton");
+		stale.addHeader("If-None-Match", "\"other\"");
+		MockHttpServletResponse modified = new MockHttpServletResponse();
+		response.writeTo(stale, modified);
+
+		assertThat(modified.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	@DisplayName("The Accept header picks the encoding; each encoding has its own bytes and ETag")
+	void negotiatesMediaType() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/singleton");
+		request.addHeader("Accept", "application/x-jackson-smile;q=0.5, application/cbor");
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+		response.writeTo(request, servletResponse);
+
+		assertThat(servletResponse.getContentType()).isEqualTo("application/cbor");
+		assertThat(servletResponse.getHeader("ETag")).isNotEqualTo(response.getEtag(MediaType.APPLICATION_JSON));
+		assertThat(cbor.getObjectMapper().readValue(servletResponse.getContentAsByteArray(), ScopeResponse.class)).isEqualTo(SINGLETON);
+
+		MockHttpServletRequest xml = new MockHttpServletRequest("GET", "/singleton");
+		xml.addHeader("Accept", "application/xml");
+		MockHttpServletResponse notAcceptable = new MockHttpServletResponse();
+		response.writeTo(xml, notAcceptable);
+
+		assertThat(notAcceptable.getStatus()).isEqualTo(406);
+	}
+}